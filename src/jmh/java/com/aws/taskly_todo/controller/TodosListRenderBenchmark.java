@@ -0,0 +1,74 @@
+package com.aws.taskly_todo.controller;
+
+import com.aws.taskly_todo.model.Status;
+import com.aws.taskly_todo.model.TodoSummary;
+import org.openjdk.jmh.annotations.*;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IExpressionContext;
+import org.thymeleaf.linkbuilder.StandardLinkBuilder;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-side rendering of {@code todos-list.html} with the template cache warm, as in production.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class TodosListRenderBenchmark {
+    @Param( { "10", "100", "1000" } )
+    int rows;
+    
+    private SpringTemplateEngine templateEngine;
+    private Context context;
+    
+    @Setup
+    public void setUp () {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix( "templates/" );
+        resolver.setSuffix( ".html" );
+        resolver.setTemplateMode( TemplateMode.HTML );
+        resolver.setCacheable( true );
+        
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver( resolver );
+        // Outside a servlet request there is no context path to prepend to "@{/...}" links
+        templateEngine.setLinkBuilder( new StandardLinkBuilder() {
+            @Override
+            protected String computeContextPath (IExpressionContext context, String base, Map<String, Object> parameters) {
+                return "";
+            }
+        } );
+        
+        Status[] statuses = Status.values();
+        List<TodoSummary> todos = new ArrayList<>();
+        for ( int i = 0; i < rows; i++ ) {
+            todos.add( new TodoSummary( "5f0c2a8e-3b41-4c8e-9a57-" + String.format( "%012d", i ),
+                    "Todo number " + i, statuses[ i % statuses.length ].name(), "2025-07-15" ) );
+        }
+        
+        context = new Context();
+        context.setVariable( "todos", todos );
+        context.setVariable( "statuses", statuses );
+        context.setVariable( "selectedStatuses", List.of() );
+        context.setVariable( "selectedDueDate", null );
+        context.setVariable( "nextCursor", "q1Xb0c9RzKf2mN4t" );
+        context.setVariable( "hasPrevious", true );
+        context.setVariable( "prevCursor", "Zt7Lp2wQx8VdHc3e" );
+        context.setVariable( "limit", rows );
+    }
+    
+    @Benchmark
+    public String render () {
+        return templateEngine.process( "todos-list", context );
+    }
+}
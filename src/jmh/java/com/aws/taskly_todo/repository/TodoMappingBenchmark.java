@@ -0,0 +1,81 @@
+package com.aws.taskly_todo.repository;
+
+import com.aws.taskly_todo.model.PaginatedResult;
+import com.aws.taskly_todo.model.TodoItem;
+import com.aws.taskly_todo.model.TodoSummary;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning DynamoDB items into model objects, per item and per list page
+ * (mapping plus LastEvaluatedKey encoding).
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class TodoMappingBenchmark {
+    @Param( { "10", "100" } )
+    int pageSize;
+    
+    private Map<String, AttributeValue> item;
+    private QueryResponse page;
+    
+    @Setup
+    public void setUp () {
+        item = item( 0 );
+        
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        for ( int i = 0; i < pageSize; i++ ) items.add( item( i ) );
+        Map<String, AttributeValue> last = items.get( items.size() - 1 );
+        page = QueryResponse.builder()
+                .items( items )
+                .count( items.size() )
+                .lastEvaluatedKey( Map.of(
+                        TodoRepository.ID, last.get( TodoRepository.ID ),
+                        TodoRepository.SORT_KEY, last.get( TodoRepository.SORT_KEY ),
+                        TodoRepository.CREATED_AT, last.get( TodoRepository.CREATED_AT ) ) )
+                .build();
+    }
+    
+    @Benchmark
+    public TodoItem mapToTodoItem () {
+        return TodoRepository.mapToTodoItem( item );
+    }
+    
+    @Benchmark
+    public TodoSummary mapToTodoSummary () {
+        return TodoRepository.mapToTodoSummary( item );
+    }
+    
+    @Benchmark
+    public PaginatedResult<TodoSummary> toPaginatedResult () {
+        return TodoRepository.toPaginatedResult( page );
+    }
+    
+    private static Map<String, AttributeValue> item (int i) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put( TodoRepository.ID, s( "5f0c2a8e-3b41-4c8e-9a57-" + String.format( "%012d", i ) ) );
+        item.put( TodoRepository.TITLE, s( "Todo number " + i ) );
+        item.put( TodoRepository.DESCRIPTION, s( "A description long enough to be representative of what users type. ".repeat( 4 ) ) );
+        item.put( TodoRepository.DUE_DATE, s( "2025-07-15" ) );
+        item.put( TodoRepository.STATUS, s( "PENDING" ) );
+        item.put( TodoRepository.CREATED_AT, s( "2025-07-01T10:15:30.123456" ) );
+        item.put( TodoRepository.UPDATED_AT, s( "2025-07-02T08:00:00.000001" ) );
+        item.put( TodoRepository.SORT_KEY, s( TodoRepository.TODOS ) );
+        return item;
+    }
+    
+    private static AttributeValue s (String value) {
+        return AttributeValue.builder().s( value ).build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.aws.taskly_todo.repository;
+
+import com.aws.taskly_todo.model.TodoItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Search latency of the {@link TodoSearchIndex} over generated items with a skewed vocabulary:
+ * a rare exact term, a common term, a short prefix that expands to many terms, and two terms
+ * that must both match. {@code build} measures a full rebuild.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgs = "-Xmx2g" )
+@State( Scope.Benchmark )
+public class TodoSearchBenchmark {
+    private static final List<String> WORDS = List.of( "report", "review", "release", "groceries", "invoice", "meeting",
+            "budget", "deploy", "dentist", "renew", "passport", "quarterly", "customer", "backlog", "refactor", "payroll" );
+    
+    @Param( { "100000" } )
+    int items;
+    
+    @Param( { "invoice", "report", "re", "quarterly report" } )
+    String query;
+    
+    private TodoSearchIndex index;
+    private List<TodoItem> todoItems;
+    
+    @Setup
+    public void setUp () {
+        SplittableRandom random = new SplittableRandom( 42 );
+        todoItems = IntStream.range( 0, items )
+                .mapToObj( n -> new TodoItem( "id-" + n, sentence( random, 4 ), sentence( random, 20 ) + " ticket" + n,
+                        "2026-10-17", "PENDING", "2026-01-01T00:00:00", null, "TODOS" ) )
+                .toList();
+        index = new TodoSearchIndex();
+        index.rebuild( todoItems.stream() );
+    }
+    
+    @Benchmark
+    public List<String> search () {
+        return index.search( query, 20 );
+    }
+    
+    @Benchmark
+    @BenchmarkMode( Mode.SingleShotTime )
+    @OutputTimeUnit( TimeUnit.MILLISECONDS )
+    public TodoSearchIndex build () {
+        TodoSearchIndex rebuilt = new TodoSearchIndex();
+        rebuilt.rebuild( todoItems.stream() );
+        return rebuilt;
+    }
+    
+    // Zipf-like: the first words of the vocabulary are far more common than the last
+    private static String sentence (SplittableRandom random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for ( int i = 0; i < words; i++ ) {
+            int word = (int) ( WORDS.size() * Math.pow( random.nextDouble(), 2 ) );
+            sentence.append( WORDS.get( word ) ).append( ' ' );
+        }
+        return sentence.toString();
+    }
+}
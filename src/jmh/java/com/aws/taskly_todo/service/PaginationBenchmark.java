@@ -0,0 +1,66 @@
+package com.aws.taskly_todo.service;
+
+import com.aws.taskly_todo.model.TodoFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request pagination bookkeeping of the list page at increasing depth. {@code cursorStore} is
+ * the current signed cursor (one verification, one signature and one back-link lookup and insert per page). {@code legacyTokenStack}
+ * reproduces the former hidden-field stack, which grows with every page and is re-split on each request.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class PaginationBenchmark {
+    @Param( { "1", "10", "100", "1000" } )
+    int depth;
+    
+    private final TodoFilter filter = new TodoFilter( null, null, null, null, false );
+    private CursorStore cursorStore;
+    private String token;
+    private String tokenStack;
+    private String lastKey;
+    
+    @Setup
+    public void setUp () {
+        cursorStore = new CursorStore( "benchmark", 100_000, Duration.ofMinutes( 30 ), new SimpleMeterRegistry() );
+        lastKey = Base64.getEncoder().encodeToString( "id=5f0c2a8e-3b41-4c8e-9a57-000000000001,sortKey=TODOS,createdAt=2025-07-01T10:15:30.123456".getBytes() );
+        
+        StringBuilder stack = new StringBuilder();
+        String previous = null;
+        for ( int page = 0; page < depth; page++ ) {
+            previous = cursorStore.issue( filter, lastKey, previous );
+            if ( page > 0 ) stack.append( ',' );
+            stack.append( lastKey );
+        }
+        token = previous;
+        tokenStack = stack.toString();
+    }
+    
+    @Benchmark
+    public String cursorStore () {
+        CursorStore.Cursor current = cursorStore.resolve( filter, token ).orElseThrow();
+        return cursorStore.issue( filter, current.lastKey(), token ) + current.previous();
+    }
+    
+    @Benchmark
+    public String legacyTokenStack () {
+        String currentStack = tokenStack + "," + lastKey;
+        String[] tokens = currentStack.split( "," );
+        
+        StringBuilder newStack = new StringBuilder();
+        for ( int i = 0; i < tokens.length - 2; i++ ) {
+            if ( i > 0 ) newStack.append( "," );
+            newStack.append( tokens[ i ] );
+        }
+        return tokens[ tokens.length - 2 ] + newStack;
+    }
+}
@@ -0,0 +1,84 @@
+package com.aws.taskly_todo.utils;
+
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Encoding and decoding of list cursors. {@code shards = 1} is a plain CreatedAtIndex key; higher
+ * values are composite scatter-gather cursors. The {@code legacy*} benchmarks keep the former
+ * Base64 {@code k=v,k=v} format as a baseline.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class CursorCodecBenchmark {
+    @Param( { "1", "8" } )
+    int shards;
+    
+    private Map<String, AttributeValue> key;
+    private String cursor;
+    private String legacyCursor;
+    
+    @Setup
+    public void setUp () {
+        key = new LinkedHashMap<>();
+        for ( int shard = 0; shard < shards; shard++ ) {
+            String prefix = shards == 1 ? "" : "TODOS#" + shard + "/";
+            key.put( prefix + "id", s( "5f0c2a8e-3b41-4c8e-9a57-00000000000" + shard ) );
+            key.put( prefix + "sortKey", s( shards == 1 ? "TODOS" : "TODOS#" + shard ) );
+            key.put( prefix + "createdAt", s( "2025-07-01T10:15:30.123456" ) );
+        }
+        cursor = CursorCodec.encode( key );
+        legacyCursor = legacyEncode( key );
+    }
+    
+    @Benchmark
+    public String encode () {
+        return CursorCodec.encode( key );
+    }
+    
+    @Benchmark
+    public Map<String, AttributeValue> decode () {
+        return CursorCodec.decode( cursor );
+    }
+    
+    @Benchmark
+    public String legacyEncode () {
+        return legacyEncode( key );
+    }
+    
+    @Benchmark
+    public Map<String, AttributeValue> legacyDecode () {
+        return legacyDecode( legacyCursor );
+    }
+    
+    private static String legacyEncode (Map<String, AttributeValue> key) {
+        String keyString = key.entrySet().stream()
+                .map( entry -> entry.getKey() + "=" + entry.getValue().s() )
+                .collect( Collectors.joining( "," ) );
+        return Base64.getEncoder().encodeToString( keyString.getBytes() );
+    }
+    
+    private static Map<String, AttributeValue> legacyDecode (String encodedKey) {
+        Map<String, AttributeValue> keyMap = new HashMap<>();
+        for ( String entry : new String( Base64.getDecoder().decode( encodedKey ) ).split( "," ) ) {
+            String[] kv = entry.split( "=" );
+            keyMap.put( kv[ 0 ], s( kv[ 1 ] ) );
+        }
+        return keyMap;
+    }
+    
+    private static AttributeValue s (String value) {
+        return AttributeValue.builder().s( value ).build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.aws.taskly_todo.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from {@code -Dloadtest.*} system properties.
+ *
+ * @param target    Base URL of a running instance. When null, the app is started in-process on a random port.
+ * @param profiles  Spring profiles of the in-process app, comma-separated.
+ * @param appArgs   Extra arguments for the in-process app, e.g. {@code --taskly.cache.pages.max-size=0}.
+ * @param label     Name of the run; reports are written to {@code outputDir/label}.
+ * @param users     Number of concurrent virtual users, each issuing requests back to back.
+ * @param warmup    Time to run before measuring.
+ * @param duration  Measured time.
+ * @param seed      Number of items imported before the run.
+ * @param pageSize  The {@code limit} of list requests.
+ * @param mix       Relative weight of each operation.
+ * @param outputDir Directory for the reports.
+ */
+record LoadTestConfig(
+        String target,
+        String profiles,
+        String[] appArgs,
+        String label,
+        int users,
+        Duration warmup,
+        Duration duration,
+        int seed,
+        int pageSize,
+        Map<Operation, Integer> mix,
+        Path outputDir ) {
+    
+    static LoadTestConfig fromSystemProperties () {
+        String profiles = System.getProperty( "loadtest.profiles", "inmemory" );
+        String appArgs = System.getProperty( "loadtest.app-args", "" ).trim();
+        
+        return new LoadTestConfig(
+                System.getProperty( "loadtest.target" ),
+                profiles,
+                appArgs.isEmpty() ? new String[ 0 ] : appArgs.split( "\\s+" ),
+                System.getProperty( "loadtest.label", profiles.replace( ',', '-' ) ),
+                Integer.getInteger( "loadtest.users", 16 ),
+                Duration.parse( "PT" + System.getProperty( "loadtest.warmup", "10s" ).toUpperCase() ),
+                Duration.parse( "PT" + System.getProperty( "loadtest.duration", "60s" ).toUpperCase() ),
+                Integer.getInteger( "loadtest.seed", 500 ),
+                Integer.getInteger( "loadtest.page-size", 10 ),
+                parseMix( System.getProperty( "loadtest.mix" ) ),
+                Path.of( System.getProperty( "loadtest.output", "target/loadtest" ) ) );
+    }
+    
+    /**
+     * Parses a mix such as {@code list=50,view=30,create=20}. Operations left out get weight 0;
+     * without a mix the defaults of {@link Operation} apply.
+     */
+    private static Map<Operation, Integer> parseMix (String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>( Operation.class );
+        if ( mix == null || mix.isBlank() ) {
+            for ( Operation operation : Operation.values() ) weights.put( operation, operation.defaultWeight() );
+            return weights;
+        }
+        
+        for ( String part : mix.split( "," ) ) {
+            String[] keyValue = part.split( "=" );
+            weights.put( Operation.fromKey( keyValue[ 0 ] ), Integer.parseInt( keyValue[ 1 ].trim() ) );
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,323 @@
+package com.aws.taskly_todo.loadtest;
+
+import com.aws.taskly_todo.TasklyTodoApplication;
+import com.aws.taskly_todo.model.Status;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Closed-loop HTTP load test of the web routes.
+ * <p>
+ * Seeds the store through the bulk import, then runs {@link LoadTestConfig#users()} virtual users that
+ * each pick an {@link Operation} from the configured mix and issue it as soon as the previous one returns.
+ * Latencies go into one HdrHistogram per operation. After the run a table is printed and, per run label,
+ * {@code summary.csv} plus one {@code .hgrm} percentile distribution per operation are written so runs
+ * can be compared side by side or plotted.
+ */
+public final class LoadTestRunner {
+    private static final Pattern TODO_LINK = Pattern.compile( "href=\"/todos/([0-9a-f-]{36})\"" );
+    private static final Pattern CURSOR = Pattern.compile( "name=\"cursor\"(?: value=\"([^\"]*)\")?" );
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final int DUE_DATE_DAYS = 30;
+    
+    private final LoadTestConfig config;
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final IdPool ids = new IdPool();
+    private final Map<Operation, Recorder> recorders = new EnumMap<>( Operation.class );
+    private final Map<Operation, LongAdder> errors = new EnumMap<>( Operation.class );
+    private final Operation[] schedule;
+    
+    private LoadTestRunner (LoadTestConfig config, String baseUrl) {
+        this.config = config;
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .followRedirects( HttpClient.Redirect.NEVER )
+                .connectTimeout( Duration.ofSeconds( 5 ) )
+                .build();
+        for ( Operation operation : Operation.values() ) {
+            recorders.put( operation, new Recorder( 3 ) );
+            errors.put( operation, new LongAdder() );
+        }
+        
+        // One slot per unit of weight, so a uniform pick follows the mix
+        List<Operation> slots = new ArrayList<>();
+        config.mix().forEach( (operation, weight) -> slots.addAll( Collections.nCopies( weight, operation ) ) );
+        if ( slots.isEmpty() ) throw new IllegalArgumentException( "The operation mix is empty" );
+        this.schedule = slots.toArray( Operation[]::new );
+    }
+    
+    public static void main (String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        ConfigurableApplicationContext app = null;
+        String baseUrl = config.target();
+        
+        if ( baseUrl == null ) {
+            app = new SpringApplicationBuilder( TasklyTodoApplication.class )
+                    .profiles( config.profiles().split( "," ) )
+                    .properties( "server.port=0" )
+                    .run( config.appArgs() );
+            baseUrl = "http://localhost:" + ( (WebServerApplicationContext) app ).getWebServer().getPort();
+        }
+        
+        try {
+            new LoadTestRunner( config, baseUrl ).run();
+        } finally {
+            if ( app != null ) app.close();
+        }
+    }
+    
+    private void run () throws Exception {
+        System.out.printf( "Load test '%s' against %s: %d users, %s warm-up, %s measured%n",
+                config.label(), baseUrl, config.users(), config.warmup(), config.duration() );
+        seed();
+        
+        ExecutorService users = Executors.newFixedThreadPool( config.users() );
+        long warmupEnd = System.nanoTime() + config.warmup().toNanos();
+        long end = warmupEnd + config.duration().toNanos();
+        for ( int i = 0; i < config.users(); i++ ) {
+            users.submit( () -> virtualUser( end ) );
+        }
+        
+        TimeUnit.NANOSECONDS.sleep( warmupEnd - System.nanoTime() );
+        // Drop everything recorded during the warm-up
+        recorders.values().forEach( Recorder::getIntervalHistogram );
+        errors.values().forEach( LongAdder::reset );
+        
+        users.shutdown();
+        if ( !users.awaitTermination( config.duration().toSeconds() + 60, TimeUnit.SECONDS ) ) users.shutdownNow();
+        
+        report();
+    }
+    
+    /**
+     * Imports the seed items in one CSV request, then walks the list to learn their IDs.
+     */
+    private void seed () throws IOException, InterruptedException {
+        if ( config.seed() > 0 ) {
+            StringBuilder csv = new StringBuilder( "title,description,dueDate\n" );
+            for ( int i = 0; i < config.seed(); i++ ) {
+                csv.append( "Load test todo " ).append( i ).append( ",Seeded by the load test," ).append( randomDueDate() ).append( '\n' );
+            }
+            HttpResponse<String> response = httpClient.send( HttpRequest.newBuilder( URI.create( baseUrl + "/todos/import" ) )
+                    .header( "Content-Type", "text/csv" )
+                    .POST( HttpRequest.BodyPublishers.ofString( csv.toString() ) )
+                    .build(), HttpResponse.BodyHandlers.ofString() );
+            if ( response.statusCode() != 200 ) throw new IllegalStateException( "Seeding failed with HTTP " + response.statusCode() );
+        }
+        
+        String cursor = null;
+        do {
+            String page = get( "/?limit=100" + ( cursor == null ? "" : "&cursor=" + encode( cursor ) ) ).body();
+            collectIds( page );
+            cursor = nextCursor( page );
+        } while ( cursor != null && ids.size() < config.seed() );
+        System.out.printf( "Seeded, %d items known%n", ids.size() );
+    }
+    
+    private void virtualUser (long end) {
+        String[] cursor = new String[ 1 ];
+        
+        while ( System.nanoTime() < end ) {
+            Operation operation = schedule[ ThreadLocalRandom.current().nextInt( schedule.length ) ];
+            long started = System.nanoTime();
+            boolean ok;
+            try {
+                ok = execute( operation, cursor );
+            } catch ( Exception e ) {
+                ok = false;
+            }
+            recorders.get( operation ).recordValue( System.nanoTime() - started );
+            if ( !ok ) errors.get( operation ).increment();
+        }
+    }
+    
+    /**
+     * Issues one operation. Operations that need an ID or a cursor fall back to listing
+     * when none is available, so the mix is never blocked.
+     *
+     * @param cursor The user's cursor for the next page, updated by list requests.
+     * @return Whether the server answered with a 2xx or 3xx status.
+     */
+    private boolean execute (Operation operation, String[] cursor) throws IOException, InterruptedException {
+        int limit = config.pageSize();
+        HttpResponse<String> response;
+        
+        switch ( operation ) {
+            case LIST_FILTERED -> response = ThreadLocalRandom.current().nextBoolean()
+                    ? get( "/?limit=" + limit + "&status=" + randomStatus() )
+                    : get( "/?limit=" + limit + "&dueDate=" + randomDueDate() );
+            case NEXT_PAGE -> {
+                response = get( "/?limit=" + limit + ( cursor[ 0 ] == null ? "" : "&cursor=" + encode( cursor[ 0 ] ) ) );
+                cursor[ 0 ] = nextCursor( response.body() );
+                collectIds( response.body() );
+            }
+            case VIEW -> {
+                String id = ids.random();
+                response = id == null ? get( "/?limit=" + limit ) : get( "/todos/" + id );
+            }
+            case CREATE -> response = post( "/todos", Map.of(
+                    "title", "Load test todo",
+                    "description", "Created by the load test",
+                    "dueDate", randomDueDate() ) );
+            case UPDATE_STATUS -> {
+                String id = ids.random();
+                response = id == null
+                        ? get( "/?limit=" + limit )
+                        : post( "/todos/update-status", Map.of( "id", id, "status", randomStatus() ) );
+            }
+            case DELETE -> {
+                String id = ids.take();
+                response = id == null ? get( "/?limit=" + limit ) : post( "/todos/" + id + "/delete", Map.of() );
+            }
+            default -> {
+                response = get( "/?limit=" + limit );
+                cursor[ 0 ] = nextCursor( response.body() );
+                collectIds( response.body() );
+            }
+        }
+        
+        return response.statusCode() < 400;
+    }
+    
+    private void report () throws IOException {
+        Path dir = config.outputDir().resolve( config.label() );
+        Files.createDirectories( dir );
+        double seconds = config.duration().toNanos() / 1e9;
+        Histogram total = new Histogram( 3 );
+        long totalErrors = 0;
+        
+        StringBuilder csv = new StringBuilder( "operation,count,errors,throughput_per_s,p50_ms,p99_ms,p999_ms,max_ms\n" );
+        System.out.printf( "%n%-14s %9s %7s %10s %9s %9s %9s %9s%n", "operation", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms" );
+        
+        for ( Operation operation : Operation.values() ) {
+            Histogram histogram = recorders.get( operation ).getIntervalHistogram();
+            long operationErrors = errors.get( operation ).sum();
+            if ( histogram.getTotalCount() == 0 ) continue;
+            
+            total.add( histogram );
+            totalErrors += operationErrors;
+            row( csv, operation.key(), histogram, operationErrors, seconds );
+            try ( PrintStream out = new PrintStream( Files.newOutputStream( dir.resolve( operation.key() + ".hgrm" ) ) ) ) {
+                histogram.outputPercentileDistribution( out, NANOS_PER_MILLI );
+            }
+        }
+        
+        row( csv, "total", total, totalErrors, seconds );
+        try ( PrintStream out = new PrintStream( Files.newOutputStream( dir.resolve( "total.hgrm" ) ) ) ) {
+            total.outputPercentileDistribution( out, NANOS_PER_MILLI );
+        }
+        Files.writeString( dir.resolve( "summary.csv" ), csv );
+        System.out.printf( "%nReports written to %s%n", dir.toAbsolutePath() );
+    }
+    
+    private static void row (StringBuilder csv, String name, Histogram histogram, long errors, double seconds) {
+        double throughput = histogram.getTotalCount() / seconds;
+        double p50 = histogram.getValueAtPercentile( 50 ) / NANOS_PER_MILLI;
+        double p99 = histogram.getValueAtPercentile( 99 ) / NANOS_PER_MILLI;
+        double p999 = histogram.getValueAtPercentile( 99.9 ) / NANOS_PER_MILLI;
+        double max = histogram.getMaxValue() / NANOS_PER_MILLI;
+        
+        System.out.printf( "%-14s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getTotalCount(), errors, throughput, p50, p99, p999, max );
+        csv.append( String.format( Locale.ROOT, "%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f%n",
+                name, histogram.getTotalCount(), errors, throughput, p50, p99, p999, max ) );
+    }
+    
+    private HttpResponse<String> get (String path) throws IOException, InterruptedException {
+        return httpClient.send( HttpRequest.newBuilder( URI.create( baseUrl + path ) ).GET().build(),
+                HttpResponse.BodyHandlers.ofString() );
+    }
+    
+    private HttpResponse<String> post (String path, Map<String, String> form) throws IOException, InterruptedException {
+        String body = form.entrySet().stream()
+                .map( entry -> encode( entry.getKey() ) + "=" + encode( entry.getValue() ) )
+                .collect( Collectors.joining( "&" ) );
+        return httpClient.send( HttpRequest.newBuilder( URI.create( baseUrl + path ) )
+                .header( "Content-Type", "application/x-www-form-urlencoded" )
+                .POST( HttpRequest.BodyPublishers.ofString( body ) )
+                .build(), HttpResponse.BodyHandlers.ofString() );
+    }
+    
+    private void collectIds (String page) {
+        Matcher matcher = TODO_LINK.matcher( page );
+        while ( matcher.find() ) ids.add( matcher.group( 1 ) );
+    }
+    
+    /**
+     * Returns the Next button's cursor: the last cursor field on the page, which has no value on the last page.
+     */
+    private static String nextCursor (String page) {
+        Matcher matcher = CURSOR.matcher( page );
+        String cursor = null;
+        while ( matcher.find() ) cursor = matcher.group( 1 );
+        return ( cursor == null || cursor.isEmpty() ) ? null : cursor;
+    }
+    
+    private static String randomStatus () {
+        Status[] statuses = Status.values();
+        return statuses[ ThreadLocalRandom.current().nextInt( statuses.length ) ].name();
+    }
+    
+    private static String randomDueDate () {
+        return LocalDate.now().plusDays( ThreadLocalRandom.current().nextInt( DUE_DATE_DAYS ) ).toString();
+    }
+    
+    private static String encode (String value) {
+        return URLEncoder.encode( value, StandardCharsets.UTF_8 );
+    }
+    
+    /**
+     * IDs known to exist, learnt from list pages. Deleted IDs are taken out so they are not viewed again.
+     */
+    private static final class IdPool {
+        private final List<String> ids = new ArrayList<>();
+        private final Set<String> known = new HashSet<>();
+        
+        synchronized void add (String id) {
+            if ( known.add( id ) ) ids.add( id );
+        }
+        
+        synchronized String random () {
+            return ids.isEmpty() ? null : ids.get( ThreadLocalRandom.current().nextInt( ids.size() ) );
+        }
+        
+        synchronized String take () {
+            if ( ids.isEmpty() ) return null;
+            
+            int index = ThreadLocalRandom.current().nextInt( ids.size() );
+            String id = ids.get( index );
+            ids.set( index, ids.get( ids.size() - 1 ) );
+            ids.remove( ids.size() - 1 );
+            return id;
+        }
+        
+        synchronized int size () {
+            return ids.size();
+        }
+    }
+}
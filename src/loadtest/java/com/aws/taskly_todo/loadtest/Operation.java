@@ -0,0 +1,47 @@
+package com.aws.taskly_todo.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * The user actions the load test performs, each mapped to one {@code TasklyTodoController} route.
+ */
+enum Operation {
+    /** {@code GET /}, the first page of the unfiltered list. */
+    LIST( "list", 35 ),
+    /** {@code GET /?status=...} or {@code GET /?dueDate=...}. */
+    LIST_FILTERED( "list-filtered", 15 ),
+    /** {@code GET /?cursor=...}, the next page after the user's last list page. */
+    NEXT_PAGE( "next-page", 15 ),
+    /** {@code GET /todos/{id}}. */
+    VIEW( "view", 15 ),
+    /** {@code POST /todos}. */
+    CREATE( "create", 8 ),
+    /** {@code POST /todos/update-status}. */
+    UPDATE_STATUS( "update-status", 8 ),
+    /** {@code POST /todos/{id}/delete}. */
+    DELETE( "delete", 4 );
+    
+    private final String key;
+    private final int defaultWeight;
+    
+    Operation (String key, int defaultWeight) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+    }
+    
+    String key () {
+        return key;
+    }
+    
+    int defaultWeight () {
+        return defaultWeight;
+    }
+    
+    static Operation fromKey (String key) {
+        return Arrays.stream( values() )
+                .filter( operation -> operation.key.equals( key.trim() ) )
+                .findFirst()
+                .orElseThrow( () -> new IllegalArgumentException( "Unknown operation '" + key + "', expected one of "
+                        + Arrays.stream( values() ).map( Operation::key ).toList() ) );
+    }
+}
@@ -1,32 +1,111 @@
 package com.aws.taskly_todo.configs;
 
+import com.aws.taskly_todo.repository.DynamoDbMetricsInterceptor;
+import com.aws.taskly_todo.repository.DynamoDbPoolMetrics;
+import com.aws.taskly_todo.repository.DynamoDbThrottleGuard;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.web.filter.HiddenHttpMethodFilter;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Configuration
+@EnableScheduling
 public class AppConfig {
-
+    
     /**
      * Provides a DynamoDB client for the region specified in
      * {@code application.properties} as {@code aws.region}.
      *
-     * @param region the region in which the DynamoDB client should be created
+     * @param region             the region in which the DynamoDB client should be created
+     * @param metricsInterceptor records latency, consumed capacity and throttling of every call
+     * @param throttleGuard      paces calls to what the table sustains and retries them with jitter
+     * @param transport          the HTTP client and pool settings, {@code taskly.dynamodb.http}
+     * @param poolMetrics        publishes connection pool saturation
      * @return a DynamoDB client for the specified region
      */
     @Bean
-    public DynamoDbClient dynamoDbClient(@Value( "${aws.region}" ) String region) {
+    public DynamoDbClient dynamoDbClient(@Value( "${aws.region}" ) String region, DynamoDbMetricsInterceptor metricsInterceptor,
+                                         DynamoDbThrottleGuard throttleGuard, DynamoDbTransport transport, DynamoDbPoolMetrics poolMetrics) {
         return DynamoDbClient.builder()
                 .region( Region.of(region))
                 .credentialsProvider( DefaultCredentialsProvider.create())
+                .httpClientBuilder( transport.httpClient() )
+                .overrideConfiguration( config -> config
+                        .apiCallAttemptTimeout( transport.attemptTimeout() )
+                        .addMetricPublisher( poolMetrics )
+                        // The guard goes first, so time spent waiting for capacity is not counted as call latency
+                        .addExecutionInterceptor( throttleGuard )
+                        .addExecutionInterceptor( metricsInterceptor )
+                        .retryPolicy( throttleGuard.retryPolicy() ) )
+                .build();
+    }
+    
+    /**
+     * Provides a non-blocking DynamoDB client for the same region, used by the
+     * {@code async} profile so request threads are released while calls are in flight.
+     *
+     * @param region             the region in which the DynamoDB client should be created
+     * @param metricsInterceptor records latency, consumed capacity and throttling of every call
+     * @param throttleGuard      paces calls to what the table sustains and retries them with jitter
+     * @param transport          the HTTP client and pool settings, {@code taskly.dynamodb.http}
+     * @param poolMetrics        publishes connection pool saturation
+     * @return an asynchronous DynamoDB client for the specified region
+     */
+    @Bean
+    @Profile( "async & !inmemory" )
+    public DynamoDbAsyncClient dynamoDbAsyncClient(@Value( "${aws.region}" ) String region, DynamoDbMetricsInterceptor metricsInterceptor,
+                                                   DynamoDbThrottleGuard throttleGuard, DynamoDbTransport transport,
+                                                   DynamoDbPoolMetrics poolMetrics) {
+        return DynamoDbAsyncClient.builder()
+                .region( Region.of(region))
+                .credentialsProvider( DefaultCredentialsProvider.create())
+                .httpClientBuilder( transport.asyncHttpClient() )
+                .overrideConfiguration( config -> config
+                        .apiCallAttemptTimeout( transport.attemptTimeout() )
+                        .addMetricPublisher( poolMetrics )
+                        .addExecutionInterceptor( throttleGuard )
+                        .addExecutionInterceptor( metricsInterceptor )
+                        .retryPolicy( throttleGuard.retryPolicy() ) )
                 .build();
     }
     
+    /**
+     * Provides the bounded pool used to run independent DynamoDB calls in parallel,
+     * such as the per-shard queries of a scatter-gather read. Its tasks are single calls
+     * that never wait on other tasks, and retries are scheduled rather than slept on it.
+     *
+     * @param threads the number of worker threads, {@code taskly.dynamodb.executor-threads}
+     * @return a fixed-size executor, shut down with the application context
+     */
+    @Bean( destroyMethod = "shutdown" )
+    public ExecutorService dynamoDbExecutor(@Value( "${taskly.dynamodb.executor-threads:16}" ) int threads) {
+        return Executors.newFixedThreadPool( threads, new CustomizableThreadFactory( "dynamodb-" ) );
+    }
+    
+    /**
+     * Provides the bounded pool for blocking background work that makes DynamoDB calls of its own:
+     * bulk status changes, imports and status buffer flushes. Keeping it apart from
+     * {@link #dynamoDbExecutor} means a job waiting on its calls never holds the threads they need.
+     *
+     * @param threads the number of worker threads, {@code taskly.dynamodb.task-threads}
+     * @return a fixed-size executor, shut down with the application context
+     */
+    @Bean( destroyMethod = "shutdown" )
+    public ExecutorService dynamoDbTaskExecutor(@Value( "${taskly.dynamodb.task-threads:8}" ) int threads) {
+        return Executors.newFixedThreadPool( threads, new CustomizableThreadFactory( "dynamodb-task-" ) );
+    }
+    
     /**
      * Creates a Spring {@link FilterRegistrationBean} for the
      * {@link HiddenHttpMethodFilter}, which is used to support
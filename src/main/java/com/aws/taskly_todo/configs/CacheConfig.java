@@ -0,0 +1,15 @@
+package com.aws.taskly_todo.configs;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    
+    /**
+     * Name of the read-through cache holding single to-do items by ID.
+     * Size and TTL are configured through {@code spring.cache.caffeine.spec}.
+     */
+    public static final String TODO_ITEMS_CACHE = "todoItems";
+}
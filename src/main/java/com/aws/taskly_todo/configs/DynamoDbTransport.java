@@ -0,0 +1,122 @@
+package com.aws.taskly_todo.configs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.crt.AwsCrtAsyncHttpClient;
+import software.amazon.awssdk.http.crt.AwsCrtHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * HTTP transport settings of the DynamoDB clients, under {@code taskly.dynamodb.http}.
+ * <p>
+ * {@code client} picks the implementation: {@code apache} (Apache for the synchronous client, Netty for the
+ * asynchronous one) or {@code crt} (the AWS Common Runtime client for both). The pool size, timeouts and
+ * keep-alive apply to either; settings one implementation does not have are left at its default.
+ */
+@Component
+public class DynamoDbTransport {
+    private final boolean crt;
+    private final int maxConnections;
+    private final Duration connectionTimeout;
+    private final Duration socketTimeout;
+    private final Duration acquisitionTimeout;
+    private final Duration maxIdleTime;
+    private final Duration timeToLive;
+    private final boolean tcpKeepAlive;
+    private final Duration keepAliveInterval;
+    private final Duration attemptTimeout;
+    
+    public DynamoDbTransport (
+            @Value( "${taskly.dynamodb.http.client:apache}" ) String client,
+            @Value( "${taskly.dynamodb.http.max-connections:64}" ) int maxConnections,
+            @Value( "${taskly.dynamodb.http.connection-timeout:2s}" ) Duration connectionTimeout,
+            @Value( "${taskly.dynamodb.http.socket-timeout:5s}" ) Duration socketTimeout,
+            @Value( "${taskly.dynamodb.http.acquisition-timeout:2s}" ) Duration acquisitionTimeout,
+            @Value( "${taskly.dynamodb.http.max-idle-time:60s}" ) Duration maxIdleTime,
+            @Value( "${taskly.dynamodb.http.time-to-live:0s}" ) Duration timeToLive,
+            @Value( "${taskly.dynamodb.http.tcp-keep-alive:true}" ) boolean tcpKeepAlive,
+            @Value( "${taskly.dynamodb.http.keep-alive-interval:30s}" ) Duration keepAliveInterval,
+            @Value( "${taskly.dynamodb.http.attempt-timeout:3s}" ) Duration attemptTimeout
+    ) {
+        this.crt = switch ( client.toLowerCase( Locale.ROOT ) ) {
+            case "apache" -> false;
+            case "crt" -> true;
+            default -> throw new IllegalArgumentException( "Unknown taskly.dynamodb.http.client: " + client + " (apache or crt)" );
+        };
+        this.maxConnections = maxConnections;
+        this.connectionTimeout = connectionTimeout;
+        this.socketTimeout = socketTimeout;
+        this.acquisitionTimeout = acquisitionTimeout;
+        this.maxIdleTime = maxIdleTime;
+        this.timeToLive = timeToLive;
+        this.tcpKeepAlive = tcpKeepAlive;
+        this.keepAliveInterval = keepAliveInterval;
+        this.attemptTimeout = attemptTimeout;
+    }
+    
+    /**
+     * Returns a builder of the HTTP client for the synchronous DynamoDB client, which owns and closes the result.
+     */
+    public SdkHttpClient.Builder<?> httpClient () {
+        if ( crt ) {
+            AwsCrtHttpClient.Builder builder = AwsCrtHttpClient.builder()
+                    .maxConcurrency( maxConnections )
+                    .connectionTimeout( connectionTimeout )
+                    .connectionMaxIdleTime( maxIdleTime );
+            if ( tcpKeepAlive ) builder.tcpKeepAliveConfiguration( keepAlive -> keepAlive
+                    .keepAliveInterval( keepAliveInterval )
+                    .keepAliveTimeout( connectionTimeout ) );
+            return builder;
+        }
+        
+        ApacheHttpClient.Builder builder = ApacheHttpClient.builder()
+                .maxConnections( maxConnections )
+                .connectionTimeout( connectionTimeout )
+                .socketTimeout( socketTimeout )
+                .connectionAcquisitionTimeout( acquisitionTimeout )
+                .connectionMaxIdleTime( maxIdleTime )
+                .tcpKeepAlive( tcpKeepAlive );
+        if ( !timeToLive.isZero() ) builder.connectionTimeToLive( timeToLive );
+        return builder;
+    }
+    
+    /**
+     * Returns a builder of the HTTP client for the asynchronous DynamoDB client, which owns and closes the result.
+     */
+    public SdkAsyncHttpClient.Builder<?> asyncHttpClient () {
+        if ( crt ) {
+            AwsCrtAsyncHttpClient.Builder builder = AwsCrtAsyncHttpClient.builder()
+                    .maxConcurrency( maxConnections )
+                    .connectionTimeout( connectionTimeout )
+                    .connectionMaxIdleTime( maxIdleTime );
+            if ( tcpKeepAlive ) builder.tcpKeepAliveConfiguration( keepAlive -> keepAlive
+                    .keepAliveInterval( keepAliveInterval )
+                    .keepAliveTimeout( connectionTimeout ) );
+            return builder;
+        }
+        
+        NettyNioAsyncHttpClient.Builder builder = NettyNioAsyncHttpClient.builder()
+                .maxConcurrency( maxConnections )
+                .connectionTimeout( connectionTimeout )
+                .readTimeout( socketTimeout )
+                .writeTimeout( socketTimeout )
+                .connectionAcquisitionTimeout( acquisitionTimeout )
+                .connectionMaxIdleTime( maxIdleTime )
+                .tcpKeepAlive( tcpKeepAlive );
+        if ( !timeToLive.isZero() ) builder.connectionTimeToLive( timeToLive );
+        return builder;
+    }
+    
+    /**
+     * Returns the time limit of a single attempt, which also bounds reads on the CRT client.
+     */
+    public Duration attemptTimeout () {
+        return attemptTimeout;
+    }
+}
@@ -2,63 +2,100 @@ package com.aws.taskly_todo.controller;
 
 import com.aws.taskly_todo.model.PaginatedResult;
 import com.aws.taskly_todo.model.Status;
+import com.aws.taskly_todo.model.TodoFilter;
 import com.aws.taskly_todo.model.TodoItem;
+import com.aws.taskly_todo.model.TodoSummary;
+import com.aws.taskly_todo.service.CursorStore;
 import com.aws.taskly_todo.service.TasklyTodoService;
-import com.aws.taskly_todo.utils.PaginationUtils;
+import com.aws.taskly_todo.service.TodoCountsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.Map;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Server-rendered to-do pages. Handlers that touch DynamoDB return futures so that, with the
+ * {@code async} profile, the request thread is released while the call is in flight.
+ * <p>
+ * Writes sent with the {@value #FRAGMENT_HEADER} header answer with the affected table row
+ * instead of a redirect, so the list page can update in place without querying the list again.
+ */
 @Controller
 @RequiredArgsConstructor
 @RequestMapping( "/" )
 public class TasklyTodoController {
+    static final String FRAGMENT_HEADER = "X-Taskly-Fragment";
+    private static final String ROW_FRAGMENT = "fragments/todo-row :: row";
+    
     private final TasklyTodoService tasklyTodoService;
+    private final CursorStore cursorStore;
+    private final TodoCountsService todoCountsService;
     
     /**
      * List To-do items with pagination.
      *
-     * @param status The status filter to apply. Optional.
+     * @param status The statuses to list, repeated or comma-separated. Optional.
      * @param dueDate The due date filter to apply. Optional.
-     * @param lastKey The last key from the previous query. Optional.
-     * @param tokenStack The token stack from the previous query. Optional.
+     * @param dueFrom The first due date of a range filter. Optional.
+     * @param dueTo The last due date of a range filter. Optional.
+     * @param overdue Whether to only list open items due before today. Defaults to false.
+     * @param cursor The token of the page to show, issued by the {@link CursorStore} for the same filter. Optional.
      * @param limit The page size. Defaults to 10.
      * @param model The model to populate with attributes.
-     * @return The view name, which is "todos-list".
+     * @return The view name, which is "todos-list". A cursor that was altered or issued for another filter, and
+     * a range over all statuses that the month buckets cannot cover, are answered with 400.
      */
     @GetMapping
-    public String listTodos (
-            @RequestParam(required = false) String status,
+    public CompletableFuture<String> listTodos (
+            @RequestParam(required = false) List<String> status,
             @RequestParam(required = false) String dueDate,
-            @RequestParam(required = false) String lastKey,
-            @RequestParam(required = false) String tokenStack,
+            @RequestParam(required = false) String dueFrom,
+            @RequestParam(required = false) String dueTo,
+            @RequestParam(defaultValue = "false") boolean overdue,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int limit,
             Model model
     ) {
-        // Get paginated result from service FIRST
-        PaginatedResult<TodoItem> result = tasklyTodoService.getTodos(status, dueDate, limit, lastKey);
-        
-        // Build the CURRENT page's token stack using the PREVIOUS request's lastKey
-        String currentTokenStack = updateTokenStack(tokenStack, lastKey);
-        
-        // Extract previous page token using the current token stack
-        Map<String, String> prevPage = PaginationUtils.getPreviousPageToken(currentTokenStack);
+        TodoFilter filter = new TodoFilter( status, dueDate, dueFrom, dueTo, overdue );
+        Optional<CursorStore.Cursor> current;
+        CompletableFuture<PaginatedResult<TodoSummary>> page;
+        try {
+            current = cursorStore.resolve( filter, cursor );
+            page = tasklyTodoService.getTodosAsync(filter, limit, current.map( CursorStore.Cursor::lastKey ).orElse( null ));
+        } catch ( IllegalArgumentException e ) {
+            throw new ResponseStatusException( HttpStatus.BAD_REQUEST, e.getMessage() );
+        }
+        String currentToken = current.isPresent() ? cursor : null;
         
-        // Send attributes to view
-        model.addAttribute("todos", result.items());
-        model.addAttribute("statuses", Status.values());
-        model.addAttribute("selectedStatus", status);
-        model.addAttribute("selectedDueDate", dueDate);
-        model.addAttribute("lastKey", result.lastEvaluatedKey());
-        model.addAttribute("tokenStack", currentTokenStack);
-        model.addAttribute("prevLastKey", prevPage.get("lastKey"));
-        model.addAttribute("prevTokenStack", prevPage.get("tokenStack"));
-        model.addAttribute("limit", limit);
-        
-        return "todos-list";
+        return page
+                .thenCombine( todoCountsService.countsAsync(), (result, counts) -> {
+                    String nextCursor = result.lastEvaluatedKey() == null
+                            ? null
+                            : cursorStore.issue( filter, result.lastEvaluatedKey(), currentToken );
+                    
+                    // Send attributes to view
+                    model.addAttribute("todos", result.items());
+                    model.addAttribute("statuses", Status.values());
+                    model.addAttribute("selectedStatuses", filter.statuses());
+                    model.addAttribute("selectedDueDate", dueDate);
+                    model.addAttribute("selectedDueFrom", filter.dueFrom());
+                    model.addAttribute("selectedDueTo", filter.dueTo());
+                    model.addAttribute("overdue", overdue);
+                    model.addAttribute("nextCursor", nextCursor);
+                    model.addAttribute("hasPrevious", current.isPresent());
+                    model.addAttribute("prevCursor", current.map( CursorStore.Cursor::previous ).orElse( null ));
+                    model.addAttribute("limit", limit);
+                    model.addAttribute("counts", counts);
+                    
+                    return "todos-list";
+                } );
     }
     
     /**
@@ -68,10 +105,11 @@ public class TasklyTodoController {
      * @return The view name, which is "to-do-view".
      */
     @GetMapping( "todos/{id}" )
-    public String viewTodo (@PathVariable String id, Model model) {
-        TodoItem todo = tasklyTodoService.getTodoItem( id );
-        model.addAttribute( "todo", todo );
-        return "todo-view";
+    public CompletableFuture<String> viewTodo (@PathVariable String id, Model model) {
+        return tasklyTodoService.getTodoItemAsync( id ).thenApply( todo -> {
+            model.addAttribute( "todo", todo );
+            return "todo-view";
+        } );
     }
     
     /**
@@ -93,9 +131,22 @@ public class TasklyTodoController {
      * @return A redirect to the list of todos.
      */
     @PostMapping( "todos" )
-    public String createTodo (@ModelAttribute TodoItem todoItem) {
-        tasklyTodoService.createTodo( todoItem.getTitle(), todoItem.getDescription(), todoItem.getDueDate() );
-        return "redirect:/";
+    public CompletableFuture<String> createTodo (@ModelAttribute TodoItem todoItem) {
+        return tasklyTodoService.createTodoAsync( todoItem.getTitle(), todoItem.getDescription(), todoItem.getDueDate() )
+                .thenApply( done -> "redirect:/" );
+    }
+    
+    /**
+     * Creates a new to-do item and renders its table row.
+     *
+     * @param todoItem The to-do item to be created, populated from the form submission.
+     * @param model The model to populate with attributes.
+     * @return The row fragment of the created item.
+     */
+    @PostMapping( value = "todos", headers = FRAGMENT_HEADER + "=row" )
+    public CompletableFuture<String> createTodoRow (@ModelAttribute TodoItem todoItem, Model model) {
+        return tasklyTodoService.createTodoAsync( todoItem.getTitle(), todoItem.getDescription(), todoItem.getDueDate() )
+                .thenApply( created -> row( created, model ) );
     }
     
     /**
@@ -105,13 +156,13 @@ public class TasklyTodoController {
      * @return The view name, which is "to-do-form".
      */
     @GetMapping( "todos/{id}/edit" )
-    public String showEditForm (@PathVariable String id, Model model) {
-        TodoItem todo = tasklyTodoService.getTodoItem( id );
-        
-        model.addAttribute( "todo", todo );
-        model.addAttribute( "statuses", Status.values() );
-        model.addAttribute("isEdit", true);
-        return "todo-form";
+    public CompletableFuture<String> showEditForm (@PathVariable String id, Model model) {
+        return tasklyTodoService.getTodoItemAsync( id ).thenApply( todo -> {
+            model.addAttribute( "todo", todo );
+            model.addAttribute( "statuses", Status.values() );
+            model.addAttribute("isEdit", true);
+            return "todo-form";
+        } );
     }
     
     /**
@@ -121,11 +172,26 @@ public class TasklyTodoController {
      * @return A redirect to the list of todos.
      */
     @PutMapping( "todos/{id}" )
-    public String updateTodo (@PathVariable String id, @ModelAttribute TodoItem todoItem) {
-        tasklyTodoService.updateTodo( id, todoItem.getTitle(),
+    public CompletableFuture<String> updateTodo (@PathVariable String id, @ModelAttribute TodoItem todoItem) {
+        return tasklyTodoService.updateTodoAsync( id, todoItem.getTitle(),
                 todoItem.getDescription(), todoItem.getDueDate(),
-                Status.valueOf( todoItem.getStatus() ) );
-        return "redirect:/";
+                Status.valueOf( todoItem.getStatus() ) )
+                .thenApply( done -> "redirect:/" );
+    }
+    
+    /**
+     * Updates a to-do item and renders its table row from the attributes returned by the write.
+     * @param id The ID of the to-do item to be updated.
+     * @param todoItem The updated to-do item, populated from the form submission.
+     * @param model The model to populate with attributes.
+     * @return The row fragment of the updated item.
+     */
+    @PutMapping( value = "todos/{id}", headers = FRAGMENT_HEADER + "=row" )
+    public CompletableFuture<String> updateTodoRow (@PathVariable String id, @ModelAttribute TodoItem todoItem, Model model) {
+        return tasklyTodoService.updateTodoAsync( id, todoItem.getTitle(),
+                todoItem.getDescription(), todoItem.getDueDate(),
+                Status.valueOf( todoItem.getStatus() ) )
+                .thenApply( updated -> row( updated, model ) );
     }
     
     /**
@@ -135,9 +201,19 @@ public class TasklyTodoController {
      * @return A redirect to the list of todos.
      */
     @PostMapping( "todos/{id}/delete" )
-    public String deleteTodo (@PathVariable String id) {
-        tasklyTodoService.deleteTodo( id );
-        return "redirect:/";
+    public CompletableFuture<String> deleteTodo (@PathVariable String id) {
+        return tasklyTodoService.deleteTodoAsync( id ).thenApply( done -> "redirect:/" );
+    }
+    
+    /**
+     * Deletes a to-do item by its ID. The empty body tells the page to drop the row.
+     *
+     * @param id The ID of the to-do item to be deleted.
+     * @return An empty response once the item is deleted.
+     */
+    @PostMapping( value = "todos/{id}/delete", headers = FRAGMENT_HEADER + "=row" )
+    public CompletableFuture<ResponseEntity<Void>> deleteTodoRow (@PathVariable String id) {
+        return tasklyTodoService.deleteTodoAsync( id ).thenApply( done -> ResponseEntity.ok().build() );
     }
     
     /**
@@ -147,27 +223,25 @@ public class TasklyTodoController {
      * @return A redirect to the list of todos.
      */
     @PostMapping("/todos/update-status")
-    public String updateStatus(@RequestParam String id, @RequestParam Status status) {
-        tasklyTodoService.updateStatus(id, status.name());
-        return "redirect:/";
+    public CompletableFuture<String> updateStatus(@RequestParam String id, @RequestParam Status status) {
+        return tasklyTodoService.updateStatusAsync(id, status.name()).thenApply( done -> "redirect:/" );
     }
     
-    //helper methods
     /**
-     * Updates the token stack by appending the last key.
-     *
-     * @param tokenStack The current stack of tokens as a comma-separated string.
-     *                   Can be null or blank if no tokens exist.
-     * @param lastKey The last key to append to the token stack.
-     *                If null or empty, the token stack remains unchanged.
-     * @return The updated token stack with the last key appended,
-     *         or the original token stack if the last key is null or empty.
+     * Updates the status of a to-do item and renders its table row.
+     * @param id The ID of the to-do item to update.
+     * @param status The new status of the to-do item.
+     * @param model The model to populate with attributes.
+     * @return The row fragment of the updated item.
      */
-    public String updateTokenStack(String tokenStack, String lastKey) {
-        if (lastKey == null || lastKey.isEmpty()) return tokenStack;
-        
-        return (tokenStack == null || tokenStack.isBlank())
-                ? lastKey
-                : tokenStack + "," + lastKey;
+    @PostMapping( value = "/todos/update-status", headers = FRAGMENT_HEADER + "=row" )
+    public CompletableFuture<String> updateStatusRow (@RequestParam String id, @RequestParam Status status, Model model) {
+        return tasklyTodoService.updateStatusAsync( id, status.name() ).thenApply( updated -> row( updated, model ) );
+    }
+    
+    private static String row (TodoItem todo, Model model) {
+        model.addAttribute( "todo", todo );
+        model.addAttribute( "statuses", Status.values() );
+        return ROW_FRAGMENT;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,231 @@
+package com.aws.taskly_todo.controller;
+
+import com.aws.taskly_todo.model.BatchGetRequest;
+import com.aws.taskly_todo.model.BatchGetResult;
+import com.aws.taskly_todo.model.PaginatedResult;
+import com.aws.taskly_todo.model.Status;
+import com.aws.taskly_todo.model.StatusChange;
+import com.aws.taskly_todo.model.TodoCounts;
+import com.aws.taskly_todo.model.TodoDraft;
+import com.aws.taskly_todo.model.TodoFilter;
+import com.aws.taskly_todo.model.TodoItem;
+import com.aws.taskly_todo.model.TodoSummary;
+import com.aws.taskly_todo.repository.TodoStore;
+import com.aws.taskly_todo.service.TasklyTodoService;
+import com.aws.taskly_todo.service.TodoCountsService;
+import com.aws.taskly_todo.service.TodoSearchService;
+import com.aws.taskly_todo.utils.ETags;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * JSON API over the same operations as the web pages.
+ * <p>
+ * Items and pages carry strong ETags. A GET with a matching {@code If-None-Match} is answered with
+ * 304 and no body: Spring compares the ETag of the returned {@link ResponseEntity} before serialising it.
+ * Updates and deletes honour {@code If-Match} and answer 412 when the item has changed since it was read:
+ * the write is conditional on the version that was matched, so a change that lands in between is caught too.
+ * The {@code cursor} of a page is its {@code lastEvaluatedKey}, so the same page always has the same body.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping( "/api/todos" )
+public class TodoApiController {
+    private final TasklyTodoService tasklyTodoService;
+    private final TodoCountsService todoCountsService;
+    private final TodoSearchService todoSearchService;
+    
+    /**
+     * Lists to-do items with pagination.
+     *
+     * @param status  The statuses to list, repeated or comma-separated. Optional.
+     * @param dueDate The due date filter to apply. Optional.
+     * @param dueFrom The first due date of a range filter. Optional.
+     * @param dueTo   The last due date of a range filter. Optional.
+     * @param overdue Whether to only list open items due before today. Defaults to false.
+     * @param cursor  The lastEvaluatedKey of the previous page. Optional.
+     * @param limit   The page size. Defaults to 10.
+     * @return The page, tagged with a signature of its content, or 400 for a range over all statuses that is
+     * open-ended or spans more than {@code taskly.due-buckets.max-buckets} months.
+     */
+    @GetMapping
+    public CompletableFuture<ResponseEntity<PaginatedResult<TodoSummary>>> listTodos (
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) String dueDate,
+            @RequestParam(required = false) String dueFrom,
+            @RequestParam(required = false) String dueTo,
+            @RequestParam(defaultValue = "false") boolean overdue,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        CompletableFuture<PaginatedResult<TodoSummary>> page;
+        try {
+            page = tasklyTodoService.getTodosAsync( new TodoFilter( status, dueDate, dueFrom, dueTo, overdue ), limit, cursor );
+        } catch ( IllegalArgumentException e ) {
+            return CompletableFuture.completedFuture( ResponseEntity.badRequest().build() );
+        }
+        return page.thenApply( result -> ResponseEntity.ok().eTag( ETags.of( result ) ).body( result ) );
+    }
+    
+    /**
+     * Returns the per-status and overdue counts, read from the counter shards rather than the items.
+     *
+     * @return The counts, at most {@code taskly.counters.max-age} old.
+     */
+    @GetMapping( "counts" )
+    public CompletableFuture<TodoCounts> counts () {
+        return todoCountsService.countsAsync();
+    }
+    
+    /**
+     * Searches the titles and descriptions of all to-do items.
+     *
+     * @param q     The search text. Every term matches as a prefix and all terms must match.
+     * @param limit The maximum number of results. Defaults to 20.
+     * @return The matching items, best match first.
+     */
+    @GetMapping( "search" )
+    public CompletableFuture<List<TodoSummary>> search (
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return todoSearchService.search( q, limit );
+    }
+    
+    /**
+     * Retrieves a single to-do item.
+     *
+     * @param id The ID of the to-do item.
+     * @return The item, or 404 if there is none with the given ID.
+     */
+    @GetMapping( "{id}" )
+    public CompletableFuture<ResponseEntity<TodoItem>> getTodo (@PathVariable String id) {
+        return tasklyTodoService.findTodoItemAsync( id )
+                .thenApply( todo -> todo.map( TodoApiController::tagged ).orElseGet( () -> ResponseEntity.notFound().build() ) );
+    }
+    
+    /**
+     * Fetches several to-do items in one call.
+     *
+     * @param request The IDs to fetch, at most {@value TodoStore#BATCH_GET_MAX_IDS}.
+     * @return The items found in request order, the IDs that do not exist and the IDs that could not be read,
+     * or 400 if there are no IDs or too many.
+     */
+    @PostMapping( "batch-get" )
+    public CompletableFuture<ResponseEntity<BatchGetResult>> batchGet (@RequestBody BatchGetRequest request) {
+        if ( request.ids() == null || request.ids().isEmpty() || request.ids().size() > TodoStore.BATCH_GET_MAX_IDS )
+            return CompletableFuture.completedFuture( ResponseEntity.badRequest().build() );
+        
+        return tasklyTodoService.getTodoItemsAsync( request.ids() ).thenApply( ResponseEntity::ok );
+    }
+    
+    /**
+     * Creates a new to-do item.
+     *
+     * @param draft The fields of the new item.
+     * @return 201 with the created item and its location.
+     */
+    @PostMapping
+    public CompletableFuture<ResponseEntity<TodoItem>> createTodo (@RequestBody TodoDraft draft) {
+        return tasklyTodoService.createTodoAsync( draft.title(), draft.description(), draft.dueDate() )
+                .thenApply( created -> ResponseEntity.created( URI.create( "/api/todos/" + created.getId() ) )
+                        .eTag( ETags.of( created ) )
+                        .body( created ) );
+    }
+    
+    /**
+     * Updates a to-do item. Null fields are left unchanged.
+     *
+     * @param id       The ID of the to-do item.
+     * @param ifMatch  The ETags the client expects the item to have. Optional.
+     * @param todoItem The new field values.
+     * @return The updated item, 400 if the status is unknown, 404 if there is none with the given ID, or 412 if
+     * it does not match.
+     */
+    @PutMapping( "{id}" )
+    public CompletableFuture<ResponseEntity<TodoItem>> updateTodo (
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody TodoItem todoItem
+    ) {
+        Status status;
+        try {
+            status = todoItem.getStatus() == null ? null : Status.valueOf( todoItem.getStatus() );
+        } catch ( IllegalArgumentException e ) {
+            return CompletableFuture.completedFuture( ResponseEntity.badRequest().build() );
+        }
+        
+        return ifMatching( id, ifMatch, version -> tasklyTodoService.updateTodoAsync( id, todoItem.getTitle(),
+                        todoItem.getDescription(), todoItem.getDueDate(), status, version )
+                .thenApply( TodoApiController::tagged ) );
+    }
+    
+    /**
+     * Moves a to-do item to another status.
+     *
+     * @param id      The ID of the to-do item.
+     * @param ifMatch The ETags the client expects the item to have. Optional.
+     * @param change  The target status.
+     * @return The updated item, 404 if there is none with the given ID, or 412 if it does not match.
+     */
+    @PutMapping( "{id}/status" )
+    public CompletableFuture<ResponseEntity<TodoItem>> updateStatus (
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody StatusChange change
+    ) {
+        return ifMatching( id, ifMatch, version -> tasklyTodoService.updateStatusAsync( id, change.status().name(), version )
+                .thenApply( TodoApiController::tagged ) );
+    }
+    
+    /**
+     * Deletes a to-do item. Deleting an item that does not exist succeeds unless {@code If-Match} is sent.
+     *
+     * @param id      The ID of the to-do item.
+     * @param ifMatch The ETags the client expects the item to have. Optional.
+     * @return 204, 404 if {@code If-Match} is sent for a missing item, or 412 if it does not match.
+     */
+    @DeleteMapping( "{id}" )
+    public CompletableFuture<ResponseEntity<Void>> deleteTodo (
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        if ( ifMatch == null )
+            return tasklyTodoService.deleteTodoAsync( id ).thenApply( done -> ResponseEntity.noContent().build() );
+        
+        return ifMatching( id, ifMatch, version -> tasklyTodoService.deleteTodoAsync( id, version )
+                .thenApply( done -> ResponseEntity.noContent().build() ) );
+    }
+    
+    // Reads the item (usually from the item cache) to answer 404 and evaluate If-Match, then writes on the
+    // condition that the stored item is still at the version read, so a write in between also answers 412
+    private <T> CompletableFuture<ResponseEntity<T>> ifMatching (String id, String ifMatch,
+                                                                 Function<String, CompletableFuture<ResponseEntity<T>>> write) {
+        return tasklyTodoService.findVersionedTodoItemAsync( id ).thenCompose( current -> {
+            if ( current.isEmpty() )
+                return CompletableFuture.completedFuture( ResponseEntity.notFound().build() );
+            if ( !ETags.matches( ifMatch, ETags.of( current.get().item() ) ) )
+                return CompletableFuture.completedFuture( ResponseEntity.status( HttpStatus.PRECONDITION_FAILED ).build() );
+            
+            return write.apply( ifMatch == null ? null : current.get().version() );
+        } ).exceptionally( e -> {
+            Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+            if ( cause instanceof ConditionalCheckFailedException ) return ResponseEntity.status( HttpStatus.PRECONDITION_FAILED ).build();
+            throw e instanceof CompletionException completion ? completion : new CompletionException( e );
+        } );
+    }
+    
+    private static ResponseEntity<TodoItem> tagged (TodoItem todo) {
+        return ResponseEntity.ok().eTag( ETags.of( todo ) ).body( todo );
+    }
+}
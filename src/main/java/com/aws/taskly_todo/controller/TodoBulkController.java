@@ -0,0 +1,129 @@
+package com.aws.taskly_todo.controller;
+
+import com.aws.taskly_todo.model.BulkStatusRequest;
+import com.aws.taskly_todo.model.BulkStatusResult;
+import com.aws.taskly_todo.model.ImportReport;
+import com.aws.taskly_todo.model.Status;
+import com.aws.taskly_todo.model.TodoFileFormat;
+import com.aws.taskly_todo.service.TodoBulkStatusService;
+import com.aws.taskly_todo.service.TodoExportService;
+import com.aws.taskly_todo.service.TodoImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulk data endpoints, for loading and extracting many to-do items at once.
+ */
+@Controller
+@RequiredArgsConstructor
+@RequestMapping( "/todos" )
+public class TodoBulkController {
+    private final TodoImportService todoImportService;
+    private final TodoExportService todoExportService;
+    private final TodoBulkStatusService todoBulkStatusService;
+    
+    /**
+     * Imports to-do items from a CSV ({@code text/csv}) or NDJSON ({@code application/x-ndjson}) body.
+     * The body is streamed and written as it is parsed, but the report lists every row, so its size,
+     * and the memory it takes, grows with the number of rows.
+     *
+     * @param contentType The content type of the body, selecting the parser.
+     * @param body        The request body.
+     * @return A report with the result of every row, the throughput and the capacity consumed.
+     */
+    @PostMapping( value = "import", consumes = { "text/csv", "application/x-ndjson" } )
+    @ResponseBody
+    public ImportReport importTodos (@RequestHeader( HttpHeaders.CONTENT_TYPE ) String contentType, InputStream body) throws IOException {
+        return todoImportService.importTodos( body, TodoFileFormat.fromContentType( contentType ) );
+    }
+    
+    /**
+     * Exports all to-do items matching the filters as a file download. Items are written page by page
+     * while DynamoDB is being read, so the response starts immediately and memory stays constant.
+     *
+     * @param status  The status filter to apply. Optional; an unknown status is rejected with 400.
+     * @param dueDate The due date filter to apply. Optional.
+     * @param format  The output format, CSV or NDJSON. Defaults to CSV.
+     * @param gzip    Whether to gzip the file. Defaults to false.
+     * @return The streamed file.
+     */
+    @GetMapping( "export" )
+    public ResponseEntity<StreamingResponseBody> exportTodos (
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) String dueDate,
+            @RequestParam(defaultValue = "CSV") TodoFileFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        String filename = "todos." + format.getExtension() + ( gzip ? ".gz" : "" );
+        String statusFilter = status == null ? null : status.name();
+        
+        StreamingResponseBody body = output -> {
+            if ( gzip ) {
+                GZIPOutputStream compressed = new GZIPOutputStream( output, true );
+                todoExportService.export( statusFilter, dueDate, format, compressed );
+                compressed.finish();
+            } else {
+                todoExportService.export( statusFilter, dueDate, format, output );
+            }
+        };
+        
+        return ResponseEntity.ok()
+                .contentType( gzip ? MediaType.parseMediaType( "application/gzip" ) : format.getMediaType() )
+                .header( HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename( filename ).build().toString() )
+                .body( body );
+    }
+    
+    /**
+     * Moves the to-do items selected on the list page to one status, then redirects back to the list
+     * with a summary of the operation.
+     *
+     * @param ids                The IDs of the selected to-do items.
+     * @param status             The target status.
+     * @param atomic             Whether to apply the change all-or-nothing.
+     * @param redirectAttributes Used to pass the summary to the list page.
+     * @return A redirect to the list page.
+     */
+    @PostMapping( value = "bulk-status", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE )
+    public String bulkStatusForm (
+            @RequestParam(required = false) List<String> ids,
+            @RequestParam Status status,
+            @RequestParam(defaultValue = "false") boolean atomic,
+            RedirectAttributes redirectAttributes
+    ) {
+        BulkStatusResult result = todoBulkStatusService.updateStatuses( ids == null ? List.of() : ids, status, atomic );
+        redirectAttributes.addFlashAttribute( "bulkStatusResult", result );
+        return "redirect:/";
+    }
+    
+    /**
+     * Moves many to-do items to one status.
+     *
+     * @param request The IDs, the target status and whether to apply the change all-or-nothing.
+     * @return A summary listing the missing and failed IDs.
+     * @throws ResponseStatusException 400 if the status or the IDs are missing.
+     */
+    @PostMapping( value = "bulk-status", consumes = MediaType.APPLICATION_JSON_VALUE )
+    @ResponseBody
+    public BulkStatusResult bulkStatus (@RequestBody BulkStatusRequest request) {
+        if ( request.status() == null )
+            throw new ResponseStatusException( HttpStatus.BAD_REQUEST, "A target status is required" );
+        if ( request.ids() == null || request.ids().isEmpty() )
+            throw new ResponseStatusException( HttpStatus.BAD_REQUEST, "At least one ID is required" );
+        
+        return todoBulkStatusService.updateStatuses( request.ids(), request.status(), request.atomic() );
+    }
+}
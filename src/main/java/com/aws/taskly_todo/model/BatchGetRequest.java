@@ -0,0 +1,12 @@
+package com.aws.taskly_todo.model;
+
+import java.util.List;
+
+/**
+ * JSON body of a multi-ID lookup.
+ *
+ * @param ids The IDs of the to-do items to fetch. Duplicates are looked up once.
+ */
+public record BatchGetRequest(
+        List<String> ids ) {
+}
@@ -0,0 +1,16 @@
+package com.aws.taskly_todo.model;
+
+import java.util.List;
+
+/**
+ * Outcome of fetching several to-do items by ID.
+ *
+ * @param items          The items found, in the order their IDs were first requested.
+ * @param missingIds     IDs that do not exist, in request order.
+ * @param unprocessedIds IDs still unprocessed after all retries, in request order. They may or may not exist.
+ */
+public record BatchGetResult(
+        List<TodoItem> items,
+        List<String> missingIds,
+        List<String> unprocessedIds ) {
+}
@@ -0,0 +1,17 @@
+package com.aws.taskly_todo.model;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Outcome of writing one batch of new to-do items.
+ *
+ * @param items            The items built from the drafts, in draft order.
+ * @param unprocessedIds   IDs of items still unprocessed after all retries.
+ * @param consumedCapacity Write capacity units consumed by the batch, including retries.
+ */
+public record BatchSaveResult(
+        List<TodoItem> items,
+        Set<String> unprocessedIds,
+        double consumedCapacity ) {
+}
@@ -0,0 +1,16 @@
+package com.aws.taskly_todo.model;
+
+import java.util.List;
+
+/**
+ * JSON body of a bulk status transition.
+ *
+ * @param ids    The IDs of the to-do items to update.
+ * @param status The target status.
+ * @param atomic Whether to apply the change in all-or-nothing transactions of up to 100 items.
+ */
+public record BulkStatusRequest(
+        List<String> ids,
+        Status status,
+        boolean atomic ) {
+}
@@ -0,0 +1,24 @@
+package com.aws.taskly_todo.model;
+
+import java.util.List;
+
+/**
+ * Summary of a bulk status transition.
+ *
+ * @param status        The target status.
+ * @param atomic        Whether the items were updated in all-or-nothing transactions.
+ * @param requested     The number of distinct IDs requested.
+ * @param updated       The number of items updated.
+ * @param missingIds    IDs that do not exist.
+ * @param failedIds     IDs that were not updated because of an error or a rolled-back transaction.
+ * @param elapsedMillis Wall-clock duration of the operation.
+ */
+public record BulkStatusResult(
+        Status status,
+        boolean atomic,
+        int requested,
+        int updated,
+        List<String> missingIds,
+        List<String> failedIds,
+        long elapsedMillis ) {
+}
@@ -0,0 +1,34 @@
+package com.aws.taskly_todo.model;
+
+import java.util.List;
+
+/**
+ * Summary of a bulk import.
+ *
+ * @param rows                  The number of data rows read.
+ * @param imported              The number of rows written.
+ * @param failed                The number of rows rejected or not written.
+ * @param elapsedMillis         Wall-clock duration of the import.
+ * @param rowsPerSecond         Imported rows per second.
+ * @param consumedWriteCapacity Write capacity units consumed, including retries.
+ * @param results               One entry per row, in input order.
+ */
+public record ImportReport(
+        long rows,
+        long imported,
+        long failed,
+        long elapsedMillis,
+        double rowsPerSecond,
+        double consumedWriteCapacity,
+        List<RowResult> results ) {
+    
+    /**
+     * Result of a single input row.
+     *
+     * @param row   The 1-based data row number.
+     * @param id    The ID of the created item, or null if the row failed.
+     * @param error The reason the row failed, or null on success.
+     */
+    public record RowResult(long row, String id, String error) {
+    }
+}
@@ -4,5 +4,34 @@ public enum Status {
     PENDING,
     ONGOING,
     COMPLETED,
-    CANCELLED
+    CANCELLED;
+    
+    /**
+     * Returns a Bootstrap class name corresponding to a status
+     * to style the status field in the UI.
+     *
+     * @param status The status name.
+     * @return a CSS class name to style the status field in the UI.
+     */
+    public static String styleClassOf(String status) {
+        if (status == null) return "";
+        
+        return switch (status) {
+            case "PENDING" -> "bg-light text-secondary";
+            case "ONGOING" -> "bg-warning-subtle text-dark";
+            case "CANCELLED" -> "bg-danger-subtle text-dark";
+            case "COMPLETED"-> "bg-success-subtle text-dark";
+            default -> "";
+        };
+    }
+    
+    /**
+     * Returns whether a status counts as open work, i.e. can become overdue.
+     *
+     * @param status The status name.
+     * @return true for PENDING and ONGOING.
+     */
+    public static boolean isOpen(String status) {
+        return PENDING.name().equals(status) || ONGOING.name().equals(status);
+    }
 }
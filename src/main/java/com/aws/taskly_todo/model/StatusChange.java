@@ -0,0 +1,10 @@
+package com.aws.taskly_todo.model;
+
+/**
+ * JSON body of a single status transition.
+ *
+ * @param status The target status.
+ */
+public record StatusChange(
+        Status status ) {
+}
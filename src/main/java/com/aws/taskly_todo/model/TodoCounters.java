@@ -0,0 +1,151 @@
+package com.aws.taskly_todo.model;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Aggregate counters over all to-do items: the number of items per status, and the number of
+ * open items per due date, from which the overdue count for any day can be derived.
+ * Also used for signed deltas between two states. Zero entries are dropped, so two instances
+ * with the same counts are equal.
+ *
+ * @param byStatus      Item count per status name.
+ * @param openByDueDate Count of open items per due date (yyyy-MM-dd).
+ */
+public record TodoCounters(
+        Map<String, Long> byStatus,
+        Map<String, Long> openByDueDate ) {
+    
+    public static final TodoCounters EMPTY = new TodoCounters(Map.of(), Map.of());
+    
+    public TodoCounters {
+        byStatus = withoutZeros(byStatus);
+        openByDueDate = withoutZeros(openByDueDate);
+    }
+    
+    /**
+     * Returns the change in counters when an item goes from one state to another.
+     *
+     * @param before The item before the write, or null if it is being created.
+     * @param after  The item after the write, or null if it is being deleted.
+     * @return The signed delta, empty if the write does not move any counter.
+     */
+    public static TodoCounters delta(TodoItem before, TodoItem after) {
+        Map<String, Long> byStatus = new HashMap<>();
+        Map<String, Long> openByDueDate = new HashMap<>();
+        if (before != null) count(before, -1, byStatus, openByDueDate);
+        if (after != null) count(after, 1, byStatus, openByDueDate);
+        return new TodoCounters(byStatus, openByDueDate);
+    }
+    
+    /**
+     * Counts a stream of items from scratch.
+     *
+     * @param items The items to count.
+     * @return The counters of all items.
+     */
+    public static TodoCounters of(Stream<TodoItem> items) {
+        return items.collect(counting());
+    }
+    
+    /**
+     * Returns a collector counting items from scratch, like {@link #of}, without holding on to them.
+     * It can be used downstream of a grouping, such as one per counter shard.
+     */
+    public static Collector<TodoItem, ?, TodoCounters> counting() {
+        return Collector.of(
+                Tally::new,
+                (tally, item) -> count(item, 1, tally.byStatus, tally.openByDueDate),
+                Tally::merge,
+                tally -> new TodoCounters(tally.byStatus, tally.openByDueDate));
+    }
+    
+    public TodoCounters plus(TodoCounters other) {
+        return combine(other, Long::sum);
+    }
+    
+    public TodoCounters minus(TodoCounters other) {
+        return combine(other, (a, b) -> a - b);
+    }
+    
+    /**
+     * Returns the part of this delta that another estimate of the same delta agrees on: per counter,
+     * the amount closer to zero when both have the same sign, and nothing when they differ in sign.
+     *
+     * @param other The other estimate.
+     * @return The agreed part, which never exceeds either estimate.
+     */
+    public TodoCounters commonPart(TodoCounters other) {
+        return new TodoCounters(commonPart(byStatus, other.byStatus), commonPart(openByDueDate, other.openByDueDate));
+    }
+    
+    public boolean isEmpty() {
+        return byStatus.isEmpty() && openByDueDate.isEmpty();
+    }
+    
+    public long count(Status status) {
+        return byStatus.getOrDefault(status.name(), 0L);
+    }
+    
+    /**
+     * Returns the number of open items due before the given day.
+     *
+     * @param today The current day.
+     * @return The overdue count.
+     */
+    public long overdue(LocalDate today) {
+        String cutoff = today.toString();
+        return openByDueDate.entrySet().stream()
+                .filter(entry -> entry.getKey().compareTo(cutoff) < 0)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+    
+    private static void count(TodoItem item, long sign, Map<String, Long> byStatus, Map<String, Long> openByDueDate) {
+        if (item.getStatus() != null) byStatus.merge(item.getStatus(), sign, Long::sum);
+        if (Status.isOpen(item.getStatus()) && item.getDueDate() != null && !item.getDueDate().isBlank())
+            openByDueDate.merge(item.getDueDate(), sign, Long::sum);
+    }
+    
+    private TodoCounters combine(TodoCounters other, BiFunction<Long, Long, Long> operator) {
+        return new TodoCounters(combine(byStatus, other.byStatus, operator), combine(openByDueDate, other.openByDueDate, operator));
+    }
+    
+    private static Map<String, Long> combine(Map<String, Long> left, Map<String, Long> right, BiFunction<Long, Long, Long> operator) {
+        Map<String, Long> result = new HashMap<>(left);
+        right.forEach((key, value) -> result.put(key, operator.apply(result.getOrDefault(key, 0L), value)));
+        return result;
+    }
+    
+    private static Map<String, Long> commonPart(Map<String, Long> left, Map<String, Long> right) {
+        Map<String, Long> result = new HashMap<>();
+        left.forEach((key, value) -> {
+            long otherValue = right.getOrDefault(key, 0L);
+            if (Long.signum(value) == Long.signum(otherValue))
+                result.put(key, Long.signum(value) * Math.min(Math.abs(value), Math.abs(otherValue)));
+        });
+        return result;
+    }
+    
+    private static Map<String, Long> withoutZeros(Map<String, Long> counts) {
+        return counts.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+    
+    private static final class Tally {
+        private final Map<String, Long> byStatus = new HashMap<>();
+        private final Map<String, Long> openByDueDate = new HashMap<>();
+        
+        private Tally merge(Tally other) {
+            other.byStatus.forEach((key, value) -> byStatus.merge(key, value, Long::sum));
+            other.openByDueDate.forEach((key, value) -> openByDueDate.merge(key, value, Long::sum));
+            return this;
+        }
+    }
+}
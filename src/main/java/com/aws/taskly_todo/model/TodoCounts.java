@@ -0,0 +1,32 @@
+package com.aws.taskly_todo.model;
+
+import java.time.LocalDate;
+
+/**
+ * Counts shown on the list header and served to dashboards.
+ *
+ * @param pending   Items in the PENDING status.
+ * @param ongoing   Items in the ONGOING status.
+ * @param completed Items in the COMPLETED status.
+ * @param cancelled Items in the CANCELLED status.
+ * @param overdue   Open items due before {@code asOf}.
+ * @param asOf      The day the overdue count refers to.
+ */
+public record TodoCounts(
+        long pending,
+        long ongoing,
+        long completed,
+        long cancelled,
+        long overdue,
+        LocalDate asOf ) {
+    
+    public static TodoCounts of(TodoCounters counters, LocalDate today) {
+        return new TodoCounts(
+                counters.count(Status.PENDING),
+                counters.count(Status.ONGOING),
+                counters.count(Status.COMPLETED),
+                counters.count(Status.CANCELLED),
+                counters.overdue(today),
+                today);
+    }
+}
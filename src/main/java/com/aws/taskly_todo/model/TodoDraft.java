@@ -0,0 +1,10 @@
+package com.aws.taskly_todo.model;
+
+/**
+ * The user-supplied fields of a to-do item that has not been saved yet.
+ */
+public record TodoDraft(
+        String title,
+        String description,
+        String dueDate ) {
+}
@@ -0,0 +1,39 @@
+package com.aws.taskly_todo.model;
+
+import org.springframework.http.MediaType;
+
+/**
+ * File formats supported by bulk import and export.
+ */
+public enum TodoFileFormat {
+    CSV( "text/csv", "csv" ),
+    NDJSON( "application/x-ndjson", "ndjson" );
+    
+    private final String mediaType;
+    private final String extension;
+    
+    TodoFileFormat (String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+    
+    public MediaType getMediaType () {
+        return MediaType.parseMediaType( mediaType );
+    }
+    
+    public String getExtension () {
+        return extension;
+    }
+    
+    /**
+     * Resolves the format of a request body from its content type.
+     *
+     * @param contentType The {@code Content-Type} header value.
+     * @return {@link #CSV} for {@code text/csv}, otherwise {@link #NDJSON}.
+     */
+    public static TodoFileFormat fromContentType (String contentType) {
+        return contentType != null && MediaType.parseMediaType( contentType ).isCompatibleWith( CSV.getMediaType() )
+                ? CSV
+                : NDJSON;
+    }
+}
@@ -0,0 +1,90 @@
+package com.aws.taskly_todo.model;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Filters of the to-do list. Blank values mean "not filtered"; range ends that are not valid
+ * yyyy-MM-dd dates are ignored.
+ * <p>
+ * Several statuses select items in any of them. Unknown status names are dropped and the rest are
+ * kept in {@link Status} order, so the same selection always makes the same filter.
+ * An exact {@code dueDate} takes precedence over a range. {@code overdue} selects open items
+ * due before today, and can be combined with statuses and a range.
+ *
+ * @param statuses The status filter, or empty for all statuses.
+ * @param dueDate The exact due date filter, or null.
+ * @param dueFrom The first due date of a range, inclusive, or null.
+ * @param dueTo   The last due date of a range, inclusive, or null.
+ * @param overdue Whether to only list open items due before today.
+ */
+public record TodoFilter(
+        List<String> statuses,
+        String dueDate,
+        String dueFrom,
+        String dueTo,
+        boolean overdue ) {
+    
+    public TodoFilter {
+        statuses = statuses == null ? List.of() : Arrays.stream(Status.values())
+                .map(Status::name)
+                .filter(statuses::contains)
+                .toList();
+        dueDate = blankToNull(dueDate);
+        dueFrom = validDateOrNull(dueFrom);
+        dueTo = validDateOrNull(dueTo);
+    }
+    
+    /**
+     * Returns whether the filter is answered by a due-date range query.
+     */
+    public boolean isRange() {
+        return dueDate == null && (overdue || dueFrom != null || dueTo != null);
+    }
+    
+    /**
+     * Returns whether the filter cannot match anything, i.e. overdue items in closed statuses only.
+     */
+    public boolean isEmpty() {
+        return overdue && !statuses.isEmpty() && rangeStatuses().isEmpty();
+    }
+    
+    /**
+     * Returns the statuses a range query reads: the selected ones, only the open ones of those for overdue
+     * items, or none to read all statuses.
+     */
+    public List<String> rangeStatuses() {
+        if (!overdue) return statuses;
+        if (statuses.isEmpty()) return List.of(Status.PENDING.name(), Status.ONGOING.name());
+        return statuses.stream().filter(Status::isOpen).toList();
+    }
+    
+    /**
+     * Returns the last due date of a range query, which for overdue items is at most yesterday.
+     *
+     * @param today The current day.
+     * @return The inclusive upper bound, or null for none.
+     */
+    public String rangeTo(LocalDate today) {
+        if (!overdue) return dueTo;
+        
+        String yesterday = today.minusDays(1).toString();
+        return (dueTo == null || dueTo.compareTo(yesterday) > 0) ? yesterday : dueTo;
+    }
+    
+    private static String blankToNull(String value) {
+        return (value == null || value.isBlank()) ? null : value;
+    }
+    
+    private static String validDateOrNull(String value) {
+        if (value == null || value.isBlank()) return null;
+        
+        try {
+            return LocalDate.parse(value).toString();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
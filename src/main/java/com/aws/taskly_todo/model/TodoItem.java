@@ -26,12 +26,16 @@ public class TodoItem {
      * @return a CSS class name to style the status field in the UI.
      */
     public String getStatusStyleClass() {
-        return switch (status) {
-            case "PENDING" -> "bg-light text-secondary";
-            case "ONGOING" -> "bg-warning-subtle text-dark";
-            case "CANCELLED" -> "bg-danger-subtle text-dark";
-            case "COMPLETED"-> "bg-success-subtle text-dark";
-            default -> "";
-        };
+        return Status.styleClassOf(status);
+    }
+    
+    /**
+     * Returns the version of the item: the time of its last write, which every write sets, or of its
+     * creation for items never updated. ETags and conditional writes are both based on it.
+     *
+     * @return the updatedAt timestamp, or createdAt if there is none.
+     */
+    public String version() {
+        return updatedAt != null ? updatedAt : createdAt;
     }
 }
\ No newline at end of file
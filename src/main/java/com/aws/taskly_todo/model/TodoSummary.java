@@ -0,0 +1,25 @@
+package com.aws.taskly_todo.model;
+
+/**
+ * The fields of a to-do item shown on the list page. List queries project only these attributes,
+ * so descriptions are never read for a list page.
+ *
+ * @param id      The ID of the to-do item.
+ * @param title   The title.
+ * @param status  The status name.
+ * @param dueDate The due date.
+ */
+public record TodoSummary(
+        String id,
+        String title,
+        String status,
+        String dueDate ) {
+    
+    /**
+     * @return a CSS class name to style the status field in the UI.
+     * @see Status#styleClassOf(String)
+     */
+    public String statusStyleClass() {
+        return Status.styleClassOf(status);
+    }
+}
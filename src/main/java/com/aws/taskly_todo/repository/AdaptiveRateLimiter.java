@@ -0,0 +1,140 @@
+package com.aws.taskly_todo.repository;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A token bucket whose rate follows the throttling signals of the table: it drops by a factor on every
+ * throttle and grows back by a fraction of itself per second of successful calls (AIMD). Callers reserve
+ * permits up front and wait until the bucket has refilled, so a burst is spread out instead of failing.
+ * {@link #acquire} sleeps for that time; {@link #reserve} only returns it, for callers that must not block.
+ */
+final class AdaptiveRateLimiter {
+    // Throttles arriving together are one signal, not one per in-flight call
+    private static final long DECREASE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos( 200 );
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos( 1 );
+    
+    private final double minRate;
+    private final double maxRate;
+    private final double decrease;
+    private final double growth;
+    private final double burstSeconds;
+    private final AtomicInteger queued = new AtomicInteger();
+    private double rate;
+    private double tokens;
+    private long refilledAt;
+    private long grownAt;
+    private long decreasedAt;
+    
+    /**
+     * @param minRate      The lowest rate, in permits per second, throttling can push the bucket to.
+     * @param maxRate      The starting and highest rate.
+     * @param decrease     The factor the rate is multiplied by on a throttle.
+     * @param growth       The fraction of itself the rate grows by per second without throttles.
+     * @param burstSeconds How many seconds' worth of permits the bucket holds.
+     */
+    AdaptiveRateLimiter (double minRate, double maxRate, double decrease, double growth, double burstSeconds) {
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.decrease = decrease;
+        this.growth = growth;
+        this.burstSeconds = burstSeconds;
+        this.rate = maxRate;
+        this.tokens = capacity();
+        this.refilledAt = this.grownAt = System.nanoTime();
+        // The first throttle always counts, even right after start-up
+        this.decreasedAt = refilledAt - DECREASE_INTERVAL_NANOS;
+    }
+    
+    /**
+     * Reserves permits, waiting for them if the bucket is empty.
+     *
+     * @param permits      The permits the call costs.
+     * @param maxWaitNanos How long the caller may wait.
+     * @return The nanoseconds waited, or -1 if the permits could not be had in time. Nothing is reserved then.
+     * @throws InterruptedException If interrupted while waiting. The reservation is kept.
+     */
+    long acquire (int permits, long maxWaitNanos) throws InterruptedException {
+        long waitNanos = reserve( permits, maxWaitNanos );
+        if ( waitNanos <= 0 ) return waitNanos;
+        
+        queued.incrementAndGet();
+        try {
+            TimeUnit.NANOSECONDS.sleep( waitNanos );
+        } finally {
+            queued.decrementAndGet();
+        }
+        return waitNanos;
+    }
+    
+    /**
+     * Lowers the rate after a throttled call.
+     */
+    synchronized void throttled () {
+        long now = System.nanoTime();
+        if ( now - decreasedAt < DECREASE_INTERVAL_NANOS ) return;
+        
+        refill( now );
+        rate = Math.max( minRate, rate * decrease );
+        tokens = Math.min( tokens, capacity() );
+        decreasedAt = grownAt = now;
+    }
+    
+    /**
+     * Raises the rate after a successful call, in proportion to the time since it last changed.
+     */
+    synchronized void succeeded () {
+        long now = System.nanoTime();
+        if ( rate >= maxRate ) {
+            grownAt = now;
+            return;
+        }
+        
+        refill( now );
+        rate = Math.min( maxRate, rate * ( 1 + growth * ( now - grownAt ) / NANOS_PER_SECOND ) );
+        grownAt = now;
+    }
+    
+    synchronized double rate () {
+        return rate;
+    }
+    
+    int queued () {
+        return queued.get();
+    }
+    
+    /**
+     * Reserves permits without waiting for them.
+     *
+     * @param permits      The permits the call costs.
+     * @param maxWaitNanos How long the caller may wait.
+     * @return The nanoseconds the caller has to wait before using the permits, or -1 if they could not be had
+     * in time. Nothing is reserved then.
+     */
+    synchronized long reserve (int permits, long maxWaitNanos) {
+        long now = System.nanoTime();
+        refill( now );
+        // A batch larger than the bucket would never fit; it costs a full bucket instead
+        double cost = Math.min( permits, capacity() );
+        if ( tokens >= cost ) {
+            tokens -= cost;
+            return 0;
+        }
+        
+        // Tokens go negative: callers queue behind each other, each waiting for what the ones before took
+        long waitNanos = (long) ( ( cost - tokens ) / rate * NANOS_PER_SECOND );
+        if ( waitNanos > maxWaitNanos ) return -1;
+        
+        tokens -= cost;
+        return waitNanos;
+    }
+    
+    private void refill (long now) {
+        tokens = Math.min( capacity(), tokens + rate * ( now - refilledAt ) / NANOS_PER_SECOND );
+        refilledAt = now;
+    }
+    
+    private double capacity () {
+        return Math.max( 1, rate * burstSeconds );
+    }
+}
@@ -0,0 +1,319 @@
+package com.aws.taskly_todo.repository;
+
+import com.aws.taskly_todo.configs.CacheConfig;
+import com.aws.taskly_todo.model.BatchGetResult;
+import com.aws.taskly_todo.model.PaginatedResult;
+import com.aws.taskly_todo.model.Status;
+import com.aws.taskly_todo.model.TodoCounters;
+import com.aws.taskly_todo.model.TodoItem;
+import com.aws.taskly_todo.model.TodoSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static com.aws.taskly_todo.repository.TodoRepository.*;
+
+/**
+ * Non-blocking variant of {@link TodoRepository} built on {@link DynamoDbAsyncClient}.
+ * <p>
+ * Issues exactly the same requests as the synchronous repository and shares its item cache,
+ * but completes the returned futures on the SDK's I/O threads instead of blocking the caller.
+ * Every call first waits for its DynamoDB capacity through {@link DynamoDbThrottleGuard#pace}, without blocking.
+ * Only active with the {@code async} profile, and not together with {@code inmemory}.
+ */
+@Slf4j
+@Repository
+@Profile( "async & !inmemory" )
+public class AsyncTodoRepository {
+    private final DynamoDbAsyncClient dynamoDbAsyncClient;
+    private final CreatedAtShards createdAtShards;
+    private final DueMonthBuckets dueMonthBuckets;
+    private final TodoSearchIndex searchIndex;
+    private final CounterShards counterShards;
+    private final Cache itemCache;
+    private final DynamoDbThrottleGuard throttleGuard;
+    
+    public AsyncTodoRepository (DynamoDbAsyncClient dynamoDbAsyncClient, CreatedAtShards createdAtShards,
+                                DueMonthBuckets dueMonthBuckets, TodoSearchIndex searchIndex, CounterShards counterShards,
+                                CacheManager cacheManager, DynamoDbThrottleGuard throttleGuard) {
+        this.dynamoDbAsyncClient = dynamoDbAsyncClient;
+        this.createdAtShards = createdAtShards;
+        this.dueMonthBuckets = dueMonthBuckets;
+        this.searchIndex = searchIndex;
+        this.counterShards = counterShards;
+        this.itemCache = Objects.requireNonNull( cacheManager.getCache( CacheConfig.TODO_ITEMS_CACHE ) );
+        this.throttleGuard = throttleGuard;
+    }
+    
+    /**
+     * Saves a new to-do item and puts it into the item cache.
+     *
+     * @param title       The title of the to-do item.
+     * @param description The description of the to-do item.
+     * @param dueDate     The due date of the to-do item.
+     * @return A future completing with the saved to-do item.
+     */
+    public CompletableFuture<TodoItem> save (String title, String description, String dueDate) {
+        Map<String, AttributeValue> item = newItem( title, description, dueDate, createdAtShards );
+        
+        TodoItem todoItem = mapToTodoItem( item );
+        
+        return paced( saveRequest( item ), dynamoDbAsyncClient::putItem )
+                .thenCompose( response -> count( counterShards.shardOf( todoItem.getId() ), TodoCounters.delta( null, todoItem ) ) )
+                .thenApply( counted -> {
+                    itemCache.put( todoItem.getId(), todoItem );
+                    searchIndex.put( todoItem );
+                    return todoItem;
+                } );
+    }
+    
+    /**
+     * Retrieves a to-do item by its ID, answering from the item cache when possible.
+     *
+     * @param id The ID of the to-do item to retrieve.
+     * @return A future completing with the to-do item, or empty if not found.
+     */
+    public CompletableFuture<Optional<TodoItem>> findById (String id) {
+        TodoItem cached = itemCache.get( id, TodoItem.class );
+        if ( cached != null ) return CompletableFuture.completedFuture( Optional.of( cached ) );
+        
+        return paced( getItemRequest( id ), dynamoDbAsyncClient::getItem )
+                .thenApply( response -> {
+                    Optional<TodoItem> todoItem = toTodoItem( response );
+                    todoItem.ifPresent( found -> itemCache.put( id, found ) );
+                    return todoItem;
+                } );
+    }
+    
+    /**
+     * Retrieves up to {@value TodoStore#BATCH_GET_MAX_IDS} to-do items by their IDs, answering from the item cache
+     * when possible and reading the rest in concurrent {@code BatchGetItem} chunks, as the synchronous repository does.
+     *
+     * @param ids The IDs of the to-do items to retrieve. Duplicates are looked up once.
+     * @return A future completing with the items found in request order, the missing and the unprocessed IDs.
+     */
+    public CompletableFuture<BatchGetResult> findByIds (List<String> ids) {
+        List<String> distinctIds = distinctIds( ids );
+        Map<String, TodoItem> found = new ConcurrentHashMap<>();
+        Set<String> unprocessed = ConcurrentHashMap.newKeySet();
+        List<String> misses = findCached( itemCache, distinctIds, found );
+        
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for ( int from = 0; from < misses.size(); from += TodoStore.BATCH_GET_SIZE ) {
+            List<String> chunk = misses.subList( from, Math.min( from + TodoStore.BATCH_GET_SIZE, misses.size() ) );
+            chunks.add( batchGet( batchGetKeys( chunk ), found, unprocessed, 0 ) );
+        }
+        
+        return CompletableFuture.allOf( chunks.toArray( CompletableFuture[]::new ) )
+                .thenApply( done -> toBatchGetResult( distinctIds, found, unprocessed ) );
+    }
+    
+    /**
+     * Reads the aggregate counters, summed over their shards, with one {@code BatchGetItem}. Unprocessed keys are
+     * retried after a jittered delay, as the synchronous repository does.
+     *
+     * @return A future completing with the counters as currently stored.
+     */
+    public CompletableFuture<TodoCounters> readCounters () {
+        Map<String, Map<String, AttributeValue>> shards = new ConcurrentHashMap<>();
+        
+        return readCounterShards( batchGetKeys( counterShards.ids() ), shards, 0 )
+                .thenApply( done -> toTodoCounters( shards.values() ) );
+    }
+    
+    public CompletableFuture<PaginatedResult<TodoSummary>> findAll (int limit, Map<String, AttributeValue> exclusiveStartKey) {
+        if ( !createdAtShards.isSharded() )
+            return query( findAllRequest( TODOS, limit ), exclusiveStartKey );
+        
+        return findAllSharded( createdAtShards, limit, exclusiveStartKey, dynamoDbAsyncClient::query );
+    }
+    
+    public CompletableFuture<PaginatedResult<TodoSummary>> findByStatus (String status, int limit, Map<String, AttributeValue> exclusiveStartKey) {
+        return query( findByStatusRequest( status, limit ), exclusiveStartKey );
+    }
+    
+    public CompletableFuture<PaginatedResult<TodoSummary>> findByDueDate (String dueDate, int limit, Map<String, AttributeValue> exclusiveStartKey) {
+        return query( findByDueDateRequest( dueDate, limit ), exclusiveStartKey );
+    }
+    
+    public CompletableFuture<PaginatedResult<TodoSummary>> findByStatusAndDueDate (String status, String dueDate, int limit, Map<String, AttributeValue> exclusiveStartKey) {
+        return query( findByStatusAndDueDateRequest( status, dueDate, limit ), exclusiveStartKey );
+    }
+    
+    public CompletableFuture<PaginatedResult<TodoSummary>> findByStatuses (List<String> statuses, String dueDate, int limit,
+                                                                         Map<String, AttributeValue> exclusiveStartKey) {
+        return TodoRepository.findByStatuses( statuses, dueDate, limit, exclusiveStartKey, dynamoDbAsyncClient::query );
+    }
+    
+    public CompletableFuture<PaginatedResult<TodoSummary>> findByDueDateRange (List<String> statuses, String from, String to, int limit,
+                                                                             Map<String, AttributeValue> exclusiveStartKey) {
+        return TodoRepository.findByDueDateRange( dueMonthBuckets, statuses, from, to, limit, exclusiveStartKey, dynamoDbAsyncClient::query );
+    }
+    
+    public CompletableFuture<Void> deleteById (String id, String expectedVersion) {
+        return paced( deleteRequest( id, expectedVersion ), dynamoDbAsyncClient::deleteItem )
+                .thenCompose( response -> response.hasAttributes() && !response.attributes().isEmpty()
+                        ? count( counterShards.shardOf( id ), TodoCounters.delta( mapToTodoItem( response.attributes() ), null ) )
+                        : CompletableFuture.completedFuture( null ) )
+                .thenRun( () -> {
+                    itemCache.evict( id );
+                    searchIndex.remove( id );
+                } );
+    }
+    
+    public CompletableFuture<Optional<TodoItem>> updateTodo (String id, String title, String description, Status status, String dueDate,
+                                                             String expectedVersion) {
+        return update( id, title, description, status == null ? null : status.name(), dueDate, expectedVersion )
+                .thenApply( updated -> {
+                    if ( title != null || description != null ) updated.ifPresent( searchIndex::put );
+                    return updated;
+                } );
+    }
+    
+    public CompletableFuture<Optional<TodoItem>> updateStatus (String id, String newStatus, String expectedVersion) {
+        return update( id, null, null, newStatus, null, expectedVersion );
+    }
+    
+    /**
+     * Asynchronous counterpart of the synchronous repository's update: sets every supplied field and returns the
+     * item as stored. Edits of the status or due date apply only while both are as read, from the item cache on
+     * the first attempt, and are retried from a consistent read after a jittered delay while that fails. With an
+     * expected version, a failed condition fails the future instead.
+     */
+    private CompletableFuture<Optional<TodoItem>> update (String id, String title, String description, String status, String dueDate,
+                                                          String expectedVersion) {
+        CompletableFuture<Optional<TodoItem>> updated;
+        if ( status == null && dueDate == null ) {
+            updated = paced( itemUpdate( id, title, description, null, null, null, expectedVersion ), dynamoDbAsyncClient::updateItem )
+                    .thenApply( response -> Optional.of( mapToTodoItem( response.attributes() ) ) )
+                    .exceptionallyCompose( e -> expectedVersion == null && isLostRace( e )
+                            ? CompletableFuture.completedFuture( Optional.empty() )
+                            : CompletableFuture.failedFuture( e ) );
+        } else {
+            updated = counted( id, title, description, status, dueDate, expectedVersion, 1 );
+        }
+        
+        return updated.thenApply( item -> {
+            item.ifPresent( found -> itemCache.put( id, found ) );
+            return item;
+        } );
+    }
+    
+    private CompletableFuture<Void> readCounterShards (List<Map<String, AttributeValue>> keys,
+                                                       Map<String, Map<String, AttributeValue>> shards, int attempt) {
+        return paced( batchGetRequest( keys ), dynamoDbAsyncClient::batchGetItem ).thenCompose( response -> {
+            if ( response.hasResponses() )
+                response.responses().getOrDefault( tableName, List.of() ).forEach( item -> shards.put( item.get( ID ).s(), item ) );
+            List<Map<String, AttributeValue>> pending = unprocessedKeys( response );
+            if ( pending.isEmpty() ) return CompletableFuture.completedFuture( null );
+            
+            if ( attempt + 1 >= RETRY_MAX_ATTEMPTS )
+                return CompletableFuture.failedFuture( new IllegalStateException(
+                        pending.size() + " keys left unread after " + ( attempt + 1 ) + " attempts" ) );
+            Executor delayed = CompletableFuture.delayedExecutor( retryDelayMillis( attempt + 1 ), TimeUnit.MILLISECONDS );
+            return CompletableFuture.runAsync( () -> { }, delayed ).thenCompose( ready -> readCounterShards( pending, shards, attempt + 1 ) );
+        } );
+    }
+    
+    private CompletableFuture<Optional<TodoItem>> counted (String id, String title, String description, String status, String dueDate,
+                                                           String expectedVersion, int attempt) {
+        TodoItem cached = attempt == 1 ? itemCache.get( id, TodoItem.class ) : null;
+        CompletableFuture<Optional<TodoItem>> current = cached != null
+                ? CompletableFuture.completedFuture( Optional.of( cached ) )
+                : paced( consistentGetItemRequest( id ), dynamoDbAsyncClient::getItem ).thenApply( TodoRepository::toTodoItem );
+        
+        return current.thenCompose( found -> {
+            if ( found.isEmpty() ) return CompletableFuture.completedFuture( Optional.<TodoItem>empty() );
+            
+            return paced( itemUpdate( id, title, description, status, dueDate, found.get(), expectedVersion ), dynamoDbAsyncClient::updateItem )
+                    .thenCompose( response -> {
+                        TodoItem updated = mapToTodoItem( response.attributes() );
+                        return count( counterShards.shardOf( id ), TodoCounters.delta( found.get(), updated ) )
+                                .thenApply( counted -> Optional.of( updated ) );
+                    } );
+        } ).exceptionallyCompose( e -> {
+            if ( expectedVersion != null || attempt >= COUNTED_WRITE_MAX_ATTEMPTS || !isLostRace( e ) )
+                return CompletableFuture.failedFuture( e );
+            
+            Executor delayed = CompletableFuture.delayedExecutor( retryDelayMillis( attempt ), TimeUnit.MILLISECONDS );
+            return CompletableFuture.runAsync( () -> { }, delayed )
+                    .thenCompose( ready -> counted( id, title, description, status, dueDate, expectedVersion, attempt + 1 ) );
+        } );
+    }
+    
+    /**
+     * Adds the counter change of an item write that has already happened. A failure is logged rather than
+     * passed on and the difference is left to reconciliation.
+     */
+    private CompletableFuture<Void> count (int shard, TodoCounters delta) {
+        if ( delta.isEmpty() ) return CompletableFuture.completedFuture( null );
+        
+        String counterId = counterShards.idOf( shard );
+        return paced( countersUpdate( counterId, delta ), dynamoDbAsyncClient::updateItem )
+                .thenCompose( response -> zeroCountersRemoval( counterId, response )
+                        // A failed removal means the counter moved again since, so it stays
+                        .map( removal -> paced( removal, dynamoDbAsyncClient::updateItem ).handle( (removed, e) -> (Void) null ) )
+                        .orElse( CompletableFuture.completedFuture( null ) ) )
+                .exceptionally( e -> {
+                    log.warn( "Counter update {} on shard {} failed, left to reconciliation", delta, shard, e );
+                    return null;
+                } );
+    }
+    
+    /**
+     * Reads one chunk of keys, retrying the unprocessed ones after a jittered delay. If the read fails, the
+     * chunk's keys are reported as unprocessed.
+     */
+    private CompletableFuture<Void> batchGet (List<Map<String, AttributeValue>> keys, Map<String, TodoItem> found,
+                                              Set<String> unprocessed, int attempt) {
+        return paced( batchGetRequest( keys ), dynamoDbAsyncClient::batchGetItem ).thenCompose( response -> {
+            batchGetItems( response ).forEach( todoItem -> {
+                found.put( todoItem.getId(), todoItem );
+                itemCache.put( todoItem.getId(), todoItem );
+            } );
+            List<Map<String, AttributeValue>> pending = unprocessedKeys( response );
+            if ( pending.isEmpty() ) return CompletableFuture.completedFuture( null );
+            
+            if ( attempt + 1 >= RETRY_MAX_ATTEMPTS ) {
+                pending.forEach( key -> unprocessed.add( key.get( ID ).s() ) );
+                return CompletableFuture.completedFuture( null );
+            }
+            Executor delayed = CompletableFuture.delayedExecutor( retryDelayMillis( attempt + 1 ), TimeUnit.MILLISECONDS );
+            return CompletableFuture.runAsync( () -> { }, delayed ).thenCompose( ready -> batchGet( pending, found, unprocessed, attempt + 1 ) );
+        } ).exceptionally( e -> {
+            log.warn( "Batch read of {} items failed, reported as unprocessed", keys.size(), e );
+            keys.forEach( key -> unprocessed.add( key.get( ID ).s() ) );
+            return null;
+        } );
+    }
+    
+    /**
+     * Makes a call once its permits are available. The wait is scheduled, so no thread is held meanwhile.
+     */
+    private <R extends SdkRequest, T> CompletableFuture<T> paced (R request, Function<R, CompletableFuture<T>> call) {
+        return throttleGuard.pace( request ).thenCompose( ready -> call.apply( request ) );
+    }
+    
+    private CompletableFuture<PaginatedResult<TodoSummary>> query (QueryRequest.Builder requestBuilder, Map<String, AttributeValue> exclusiveStartKey) {
+        return paced( withStartKey( summaryProjection( requestBuilder ), exclusiveStartKey ), dynamoDbAsyncClient::query )
+                .thenApply( TodoRepository::toPaginatedResult );
+    }
+}
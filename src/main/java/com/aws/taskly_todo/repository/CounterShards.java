@@ -0,0 +1,60 @@
+package com.aws.taskly_todo.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Write-sharding layout of the aggregate counters.
+ * <p>
+ * The counters are split over {@code taskly.counters.shards} items, so concurrent writes to unrelated to-do
+ * items do not all update the same item. Shard 0 is the original {@value TodoRepository#COUNTERS_ID} item and
+ * shard {@code n > 0} is {@code #counters#<n>}; reads sum all of them. A to-do item is counted in the shard
+ * chosen from its ID, so every increment and decrement it causes lands in the same shard, and a counter of a
+ * shard drops back to zero once its items are gone. The number of shards can be raised but not lowered,
+ * since reads only cover the configured shards; reconciliation moves existing counts to the new layout.
+ */
+@Component
+public class CounterShards {
+    // One BatchGetItem reads every shard
+    private static final int MAX_SHARDS = 100;
+    private final int shardCount;
+    
+    public CounterShards (@Value( "${taskly.counters.shards:8}" ) int shardCount) {
+        this.shardCount = Math.min( MAX_SHARDS, Math.max( 1, shardCount ) );
+    }
+    
+    /**
+     * Returns the shard a to-do item is counted in.
+     *
+     * @param id The ID of the to-do item.
+     * @return The shard, from 0 to the number of shards - 1.
+     */
+    public int shardOf (String id) {
+        return Math.floorMod( id.hashCode(), shardCount );
+    }
+    
+    /**
+     * Returns the IDs of the counter items, in shard order.
+     */
+    public List<String> ids () {
+        List<String> ids = new ArrayList<>( shardCount );
+        for ( int shard = 0; shard < shardCount; shard++ ) {
+            ids.add( idOf( shard ) );
+        }
+        return ids;
+    }
+    
+    public String idOf (int shard) {
+        return shard == 0 ? TodoRepository.COUNTERS_ID : TodoRepository.COUNTERS_ID + "#" + shard;
+    }
+    
+    /**
+     * Returns whether an ID is one of the counter items rather than a to-do item.
+     */
+    public static boolean isCounterId (String id) {
+        return id.startsWith( TodoRepository.COUNTERS_ID );
+    }
+}
@@ -0,0 +1,57 @@
+package com.aws.taskly_todo.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+
+import java.util.Map;
+
+/**
+ * One-off migration of existing items from the legacy {@code TODOS} partition to their
+ * {@code TODOS#<shard>} partition. Enabled with {@code taskly.sharding.migrate=true}.
+ * <p>
+ * Keep {@code taskly.sharding.include-legacy} on while this runs so unmigrated items stay
+ * visible, and switch it off once the legacy partition is empty. Safe to re-run: each move is
+ * conditional on the item still being in the legacy partition.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty( name = "taskly.sharding.migrate", havingValue = "true" )
+@RequiredArgsConstructor
+public class CreatedAtShardMigration implements ApplicationRunner {
+    private final DynamoDbClient dynamoDbClient;
+    private final CreatedAtShards createdAtShards;
+    
+    @Override
+    public void run (ApplicationArguments args) {
+        if ( !createdAtShards.isSharded() ) {
+            log.warn( "taskly.sharding.migrate is set but taskly.sharding.shards is 1, nothing to migrate" );
+            return;
+        }
+        
+        QueryRequest request = TodoRepository.findAllRequest( TodoRepository.TODOS, 100 ).build();
+        long moved = 0;
+        long skipped = 0;
+        
+        for ( Map<String, AttributeValue> item : dynamoDbClient.queryPaginator( request ).items() ) {
+            String id = item.get( TodoRepository.ID ).s();
+            try {
+                dynamoDbClient.updateItem( TodoRepository.movePartitionRequest(
+                        id, TodoRepository.TODOS, createdAtShards.partitionFor( id ) ) );
+                moved++;
+            } catch ( ConditionalCheckFailedException e ) {
+                // Deleted or already moved since it was read
+                skipped++;
+            }
+        }
+        
+        log.info( "CreatedAtIndex shard migration finished: {} items moved, {} skipped", moved, skipped );
+    }
+}
@@ -0,0 +1,62 @@
+package com.aws.taskly_todo.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Write-sharding layout of the {@code CreatedAtIndex} partition key.
+ * <p>
+ * With a single shard every item is written under {@code TODOS}, as before. With {@code N > 1}
+ * shards an item is written under {@code TODOS#0..N-1}, chosen from its ID, so writes spread
+ * over several GSI partitions and {@code findAll} has to query and merge all of them.
+ */
+@Component
+public class CreatedAtShards {
+    private final int shardCount;
+    private final boolean includeLegacy;
+    
+    public CreatedAtShards (
+            @Value( "${taskly.sharding.shards:1}" ) int shardCount,
+            @Value( "${taskly.sharding.include-legacy:true}" ) boolean includeLegacy
+    ) {
+        this.shardCount = Math.max( 1, shardCount );
+        this.includeLegacy = includeLegacy;
+    }
+    
+    public boolean isSharded () {
+        return shardCount > 1;
+    }
+    
+    /**
+     * Returns the {@code sortKey} partition a new item with the given ID is written to.
+     *
+     * @param id The ID of the to-do item.
+     * @return {@code TODOS} when unsharded, otherwise {@code TODOS#<shard>}.
+     */
+    public String partitionFor (String id) {
+        if ( !isSharded() ) return TodoRepository.TODOS;
+        
+        return TodoRepository.TODOS + "#" + Math.floorMod( id.hashCode(), shardCount );
+    }
+    
+    /**
+     * Returns every partition {@code findAll} has to read. While sharded, the legacy {@code TODOS}
+     * partition is included until {@code taskly.sharding.include-legacy} is switched off after
+     * {@link CreatedAtShardMigration} has moved the existing items.
+     *
+     * @return The partitions to query, in shard order.
+     */
+    public List<String> partitions () {
+        if ( !isSharded() ) return List.of( TodoRepository.TODOS );
+        
+        List<String> partitions = new ArrayList<>( shardCount + 1 );
+        for ( int shard = 0; shard < shardCount; shard++ ) {
+            partitions.add( TodoRepository.TODOS + "#" + shard );
+        }
+        if ( includeLegacy ) partitions.add( TodoRepository.TODOS );
+        return partitions;
+    }
+}
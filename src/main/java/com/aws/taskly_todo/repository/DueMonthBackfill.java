@@ -0,0 +1,56 @@
+package com.aws.taskly_todo.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+
+import java.util.Map;
+
+/**
+ * One-off backfill of the {@code dueMonth} attribute on items written before the
+ * {@code DueMonthIndex} existed. Enabled with {@code taskly.due-buckets.backfill=true}.
+ * <p>
+ * Until it has run, older items are missing from due-date range queries without a status.
+ * Safe to re-run: each update is conditional on the item still having the due date it was read with.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty( name = "taskly.due-buckets.backfill", havingValue = "true" )
+@RequiredArgsConstructor
+public class DueMonthBackfill implements ApplicationRunner {
+    private final DynamoDbClient dynamoDbClient;
+    private final CreatedAtShards createdAtShards;
+    
+    @Override
+    public void run (ApplicationArguments args) {
+        long updated = 0;
+        long skipped = 0;
+        
+        for ( String partition : createdAtShards.partitions() ) {
+            QueryRequest request = TodoRepository.findAllRequest( partition, 100 ).build();
+            
+            for ( Map<String, AttributeValue> item : dynamoDbClient.queryPaginator( request ).items() ) {
+                AttributeValue dueDate = item.get( TodoRepository.DUE_DATE );
+                if ( item.containsKey( TodoRepository.DUE_MONTH ) || dueDate == null || DueMonthBuckets.bucketOf( dueDate.s() ) == null )
+                    continue;
+                
+                try {
+                    dynamoDbClient.updateItem( TodoRepository.dueMonthBackfillRequest( item.get( TodoRepository.ID ).s(), dueDate.s() ) );
+                    updated++;
+                } catch ( ConditionalCheckFailedException e ) {
+                    // Deleted or given a new due date, and with it a due month, since it was read
+                    skipped++;
+                }
+            }
+        }
+        
+        log.info( "DueMonthIndex backfill finished: {} items updated, {} skipped", updated, skipped );
+    }
+}
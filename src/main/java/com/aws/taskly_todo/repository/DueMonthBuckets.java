@@ -0,0 +1,79 @@
+package com.aws.taskly_todo.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bucket layout of the {@code DueMonthIndex}: items are partitioned by the month of their due date
+ * ({@code dueMonth = yyyy-MM}) and sorted by {@code dueDate}, so a due-date range becomes one
+ * {@code BETWEEN} query per month it touches.
+ * <p>
+ * A range query fans out to one query per bucket, each read with the full page limit, so the number
+ * of buckets is capped by {@code taskly.due-buckets.max-buckets}. A range must have both ends and span at
+ * most that many months; anything else is rejected rather than answered with part of the range.
+ */
+@Component
+public class DueMonthBuckets {
+    private final int maxBuckets;
+    
+    public DueMonthBuckets (@Value( "${taskly.due-buckets.max-buckets:12}" ) int maxBuckets) {
+        this.maxBuckets = Math.max( 1, maxBuckets );
+    }
+    
+    /**
+     * Returns the bucket of a due date.
+     *
+     * @param dueDate The due date, as yyyy-MM-dd.
+     * @return The month, as yyyy-MM, or null if there is no valid due date, which leaves the item out of the index.
+     */
+    public static String bucketOf (String dueDate) {
+        if ( dueDate == null ) return null;
+        
+        try {
+            return YearMonth.from( LocalDate.parse( dueDate ) ).toString();
+        } catch ( DateTimeParseException e ) {
+            return null;
+        }
+    }
+    
+    /**
+     * Resolves a due-date range into the buckets to query.
+     *
+     * @param from The first due date, inclusive.
+     * @param to   The last due date, inclusive.
+     * @return The range and its buckets, in due-date order. No buckets if it ends before it starts.
+     * @throws IllegalArgumentException If an end is missing or the range spans more than {@code max-buckets} months.
+     */
+    public Range range (String from, String to) {
+        if ( from == null || to == null )
+            throw new IllegalArgumentException( "A due-date range over all statuses needs both dueFrom and dueTo" );
+        
+        YearMonth first = YearMonth.from( LocalDate.parse( from ) );
+        YearMonth last = YearMonth.from( LocalDate.parse( to ) );
+        if ( first.until( last, ChronoUnit.MONTHS ) >= maxBuckets )
+            throw new IllegalArgumentException( "A due-date range over all statuses spans at most " + maxBuckets + " months" );
+        
+        List<String> months = new ArrayList<>();
+        for ( YearMonth month = first; !month.isAfter( last ); month = month.plusMonths( 1 ) ) {
+            months.add( month.toString() );
+        }
+        return new Range( from, to, months );
+    }
+    
+    /**
+     * A due-date range and the buckets it reads.
+     *
+     * @param from   The first due date, inclusive.
+     * @param to     The last due date, inclusive.
+     * @param months The buckets covering the range, in order.
+     */
+    public record Range(String from, String to, List<String> months) {
+    }
+}
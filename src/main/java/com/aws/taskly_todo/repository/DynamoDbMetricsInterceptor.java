@@ -0,0 +1,158 @@
+package com.aws.taskly_todo.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.SdkResponse;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records Micrometer metrics for every call made through the DynamoDB clients.
+ * <ul>
+ *     <li>{@code taskly.dynamodb.requests}: latency timer with a percentile histogram, including SDK retries</li>
+ *     <li>{@code taskly.dynamodb.capacity}: read and write capacity units consumed per call</li>
+ *     <li>{@code taskly.dynamodb.throttles}: calls that failed with a throttling error after all retries</li>
+ *     <li>{@code taskly.dynamodb.page.size}: items returned per {@code Query} or {@code Scan} page</li>
+ * </ul>
+ * All meters are tagged with the operation and the index name ({@code table} for the base table).
+ * {@code ReturnConsumedCapacity=TOTAL} is added to every request that does not already ask for it.
+ */
+@Component
+@RequiredArgsConstructor
+public class DynamoDbMetricsInterceptor implements ExecutionInterceptor {
+    private static final ExecutionAttribute<Long> START_NANOS = new ExecutionAttribute<>( "TasklyStartNanos" );
+    private static final ExecutionAttribute<String> INDEX = new ExecutionAttribute<>( "TasklyIndexName" );
+    private static final String BASE_TABLE = "table";
+    private static final Set<String> READ_OPERATIONS = Set.of( "GetItem", "BatchGetItem", "Query", "Scan", "TransactGetItems" );
+    
+    private final MeterRegistry meterRegistry;
+    
+    @Override
+    public void beforeExecution (Context.BeforeExecution context, ExecutionAttributes attributes) {
+        attributes.putAttribute( START_NANOS, System.nanoTime() );
+        attributes.putAttribute( INDEX, indexName( context.request() ) );
+    }
+    
+    @Override
+    public SdkRequest modifyRequest (Context.ModifyRequest context, ExecutionAttributes attributes) {
+        SdkRequest request = context.request();
+        ReturnConsumedCapacity total = ReturnConsumedCapacity.TOTAL;
+        
+        if ( request instanceof QueryRequest query && query.returnConsumedCapacity() == null )
+            return query.toBuilder().returnConsumedCapacity( total ).build();
+        if ( request instanceof ScanRequest scan && scan.returnConsumedCapacity() == null )
+            return scan.toBuilder().returnConsumedCapacity( total ).build();
+        if ( request instanceof GetItemRequest get && get.returnConsumedCapacity() == null )
+            return get.toBuilder().returnConsumedCapacity( total ).build();
+        if ( request instanceof PutItemRequest put && put.returnConsumedCapacity() == null )
+            return put.toBuilder().returnConsumedCapacity( total ).build();
+        if ( request instanceof UpdateItemRequest update && update.returnConsumedCapacity() == null )
+            return update.toBuilder().returnConsumedCapacity( total ).build();
+        if ( request instanceof DeleteItemRequest delete && delete.returnConsumedCapacity() == null )
+            return delete.toBuilder().returnConsumedCapacity( total ).build();
+        if ( request instanceof BatchGetItemRequest batchGet && batchGet.returnConsumedCapacity() == null )
+            return batchGet.toBuilder().returnConsumedCapacity( total ).build();
+        if ( request instanceof BatchWriteItemRequest batchWrite && batchWrite.returnConsumedCapacity() == null )
+            return batchWrite.toBuilder().returnConsumedCapacity( total ).build();
+        if ( request instanceof TransactWriteItemsRequest transactWrite && transactWrite.returnConsumedCapacity() == null )
+            return transactWrite.toBuilder().returnConsumedCapacity( total ).build();
+        
+        return request;
+    }
+    
+    @Override
+    public void afterExecution (Context.AfterExecution context, ExecutionAttributes attributes) {
+        String operation = attributes.getAttribute( SdkExecutionAttribute.OPERATION_NAME );
+        Tags tags = Tags.of( "operation", operation, "index", attributes.getAttribute( INDEX ) );
+        SdkResponse response = context.response();
+        
+        recordLatency( attributes, tags.and( "outcome", "success" ) );
+        
+        response.getValueForField( "ConsumedCapacity", Object.class ).ifPresent( consumed -> {
+            if ( consumed instanceof ConsumedCapacity capacity ) {
+                recordCapacity( operation, tags, capacity );
+            } else if ( consumed instanceof List<?> capacities ) {
+                capacities.forEach( capacity -> recordCapacity( operation, tags, (ConsumedCapacity) capacity ) );
+            }
+        } );
+        
+        if ( response instanceof QueryResponse query ) recordPageSize( tags, query.count() );
+        if ( response instanceof ScanResponse scan ) recordPageSize( tags, scan.count() );
+    }
+    
+    @Override
+    public void onExecutionFailure (Context.FailedExecution context, ExecutionAttributes attributes) {
+        Tags tags = Tags.of( "operation", attributes.getAttribute( SdkExecutionAttribute.OPERATION_NAME ),
+                "index", attributes.getAttribute( INDEX ) );
+        boolean throttled = context.exception() instanceof AwsServiceException serviceException
+                && serviceException.isThrottlingException();
+        
+        recordLatency( attributes, tags.and( "outcome", throttled ? "throttled" : "error" ) );
+        if ( throttled ) Counter.builder( "taskly.dynamodb.throttles" ).tags( tags ).register( meterRegistry ).increment();
+    }
+    
+    private void recordLatency (ExecutionAttributes attributes, Tags tags) {
+        Long started = attributes.getAttribute( START_NANOS );
+        if ( started == null ) return;
+        
+        Timer.builder( "taskly.dynamodb.requests" )
+                .tags( tags )
+                .publishPercentileHistogram()
+                .register( meterRegistry )
+                .record( System.nanoTime() - started, TimeUnit.NANOSECONDS );
+    }
+    
+    private void recordCapacity (String operation, Tags tags, ConsumedCapacity capacity) {
+        if ( capacity == null ) return;
+        
+        Double read = capacity.readCapacityUnits();
+        Double write = capacity.writeCapacityUnits();
+        // Some responses only carry the combined figure; attribute it by the kind of operation
+        if ( read == null && write == null && capacity.capacityUnits() != null ) {
+            if ( READ_OPERATIONS.contains( operation ) ) read = capacity.capacityUnits();
+            else write = capacity.capacityUnits();
+        }
+        
+        if ( read != null ) capacitySummary( tags, "read" ).record( read );
+        if ( write != null ) capacitySummary( tags, "write" ).record( write );
+    }
+    
+    private DistributionSummary capacitySummary (Tags tags, String type) {
+        return DistributionSummary.builder( "taskly.dynamodb.capacity" )
+                .baseUnit( "capacity_units" )
+                .tags( tags.and( "type", type ) )
+                .register( meterRegistry );
+    }
+    
+    private void recordPageSize (Tags tags, Integer count) {
+        if ( count == null ) return;
+        
+        DistributionSummary.builder( "taskly.dynamodb.page.size" )
+                .baseUnit( "items" )
+                .tags( tags )
+                .register( meterRegistry )
+                .record( count );
+    }
+    
+    private static String indexName (SdkRequest request) {
+        String index = null;
+        if ( request instanceof QueryRequest query ) index = query.indexName();
+        if ( request instanceof ScanRequest scan ) index = scan.indexName();
+        return index == null ? BASE_TABLE : index;
+    }
+}
@@ -0,0 +1,85 @@
+package com.aws.taskly_todo.repository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.awssdk.metrics.SdkMetric;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes the connection pool figures the SDK reports with every attempt, so saturation of the DynamoDB
+ * HTTP pool shows up before calls start timing out waiting for a connection.
+ * <ul>
+ *     <li>{@code taskly.dynamodb.pool.max}, {@code .leased}, {@code .available}, {@code .pending}: gauges of
+ *     the pool as of the latest attempt</li>
+ *     <li>{@code taskly.dynamodb.pool.acquire}: time attempts waited for a connection</li>
+ * </ul>
+ * All meters are tagged with the HTTP client ({@code Apache}, {@code NettyNio} or {@code AwsCommonRuntime}).
+ */
+@Component
+@RequiredArgsConstructor
+public class DynamoDbPoolMetrics implements MetricPublisher {
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+    
+    @Override
+    public void publish (MetricCollection metrics) {
+        List<String> clients = metrics.metricValues( HttpMetric.HTTP_CLIENT_NAME );
+        if ( !clients.isEmpty() ) record( pools.computeIfAbsent( clients.get( 0 ), Pool::new ), metrics );
+        
+        metrics.children().forEach( this::publish );
+    }
+    
+    @Override
+    public void close () {
+    }
+    
+    private void record (Pool pool, MetricCollection metrics) {
+        latest( metrics, HttpMetric.MAX_CONCURRENCY, pool.max );
+        latest( metrics, HttpMetric.LEASED_CONCURRENCY, pool.leased );
+        latest( metrics, HttpMetric.AVAILABLE_CONCURRENCY, pool.available );
+        latest( metrics, HttpMetric.PENDING_CONCURRENCY_ACQUIRES, pool.pending );
+        metrics.metricValues( HttpMetric.CONCURRENCY_ACQUIRE_DURATION ).forEach( pool.acquire::record );
+    }
+    
+    private static void latest (MetricCollection metrics, SdkMetric<Integer> metric, AtomicInteger gauge) {
+        List<Integer> values = metrics.metricValues( metric );
+        if ( !values.isEmpty() ) gauge.set( values.get( values.size() - 1 ) );
+    }
+    
+    private final class Pool {
+        private final AtomicInteger max = new AtomicInteger();
+        private final AtomicInteger leased = new AtomicInteger();
+        private final AtomicInteger available = new AtomicInteger();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final Timer acquire;
+        
+        private Pool (String client) {
+            gauge( client, "max", "Connections the pool may open", max );
+            gauge( client, "leased", "Connections in use", leased );
+            gauge( client, "available", "Open connections not in use", available );
+            gauge( client, "pending", "Attempts waiting for a connection", pending );
+            this.acquire = Timer.builder( "taskly.dynamodb.pool.acquire" )
+                    .description( "Time attempts waited for a connection" )
+                    .tag( "client", client )
+                    .publishPercentileHistogram()
+                    .register( meterRegistry );
+        }
+        
+        private void gauge (String client, String name, String description, AtomicInteger value) {
+            Gauge.builder( "taskly.dynamodb.pool." + name, value, AtomicInteger::get )
+                    .description( description )
+                    .tag( "client", client )
+                    .register( meterRegistry );
+        }
+    }
+}
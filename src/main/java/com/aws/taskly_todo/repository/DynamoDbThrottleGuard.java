@@ -0,0 +1,288 @@
+package com.aws.taskly_todo.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.ClientType;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.exception.AbortedException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.core.retry.RetryMode;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.core.retry.RetryPolicyContext;
+import software.amazon.awssdk.core.retry.RetryUtils;
+import software.amazon.awssdk.core.retry.backoff.BackoffStrategy;
+import software.amazon.awssdk.core.retry.conditions.RetryCondition;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps bursts of DynamoDB calls within what the table sustains, for both clients.
+ * <ul>
+ *     <li>Every attempt takes permits from a read or a write {@link AdaptiveRateLimiter}: one per item for
+ *     batches and transactions, one otherwise. If the bucket is empty the attempt waits for up to
+ *     {@code taskly.dynamodb.limiter.max-wait}. A first attempt fails once that is used up; a retry is not made.</li>
+ *     <li>A retry's wait is added to its backoff delay, which the SDK schedules rather than sleeps on the
+ *     async client.</li>
+ *     <li>Every throttled attempt lowers the rate of its bucket; successful calls raise it back to
+ *     {@code taskly.dynamodb.limiter.(read|write).max-rate}.</li>
+ *     <li>{@link #retryPolicy()} retries with decorrelated jitter. Throttled attempts were not applied, so they are
+ *     always retried, including transactions cancelled by throttling. Other retryable errors are only retried
+ *     for reads and idempotent writes: not for {@code ADD} updates or conditional writes, which a retry of an
+ *     attempt that did succeed would apply twice or fail spuriously.</li>
+ * </ul>
+ * The limits are per instance. The first attempt of a synchronous call waits on the calling thread. The first
+ * attempt of an async call is paced by its caller through {@link #pace}, so no SDK thread ever sleeps here.
+ */
+@Component
+public class DynamoDbThrottleGuard implements ExecutionInterceptor {
+    private static final ExecutionAttribute<Long> PREVIOUS_DELAY_NANOS = new ExecutionAttribute<>( "TasklyPreviousRetryDelay" );
+    private static final ExecutionAttribute<Integer> SIGNALLED_ATTEMPT = new ExecutionAttribute<>( "TasklyThrottleSignalledAttempt" );
+    private static final ExecutionAttribute<Integer> RESERVED_ATTEMPT = new ExecutionAttribute<>( "TasklyThrottleReservedAttempt" );
+    private static final ExecutionAttribute<Long> CAPACITY_WAIT_NANOS = new ExecutionAttribute<>( "TasklyCapacityWait" );
+    
+    private final Budget reads;
+    private final Budget writes;
+    private final long maxWaitNanos;
+    private final int maxRetries;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+    private final MeterRegistry meterRegistry;
+    
+    public DynamoDbThrottleGuard (
+            @Value( "${taskly.dynamodb.limiter.read.max-rate:1000}" ) double readMaxRate,
+            @Value( "${taskly.dynamodb.limiter.write.max-rate:500}" ) double writeMaxRate,
+            @Value( "${taskly.dynamodb.limiter.min-rate:5}" ) double minRate,
+            @Value( "${taskly.dynamodb.limiter.decrease:0.7}" ) double decrease,
+            @Value( "${taskly.dynamodb.limiter.growth:0.1}" ) double growth,
+            @Value( "${taskly.dynamodb.limiter.burst:1s}" ) Duration burst,
+            @Value( "${taskly.dynamodb.limiter.max-wait:2s}" ) Duration maxWait,
+            @Value( "${taskly.dynamodb.retry.max-retries:8}" ) int maxRetries,
+            @Value( "${taskly.dynamodb.retry.base-delay:25ms}" ) Duration baseDelay,
+            @Value( "${taskly.dynamodb.retry.max-delay:2s}" ) Duration maxDelay,
+            MeterRegistry meterRegistry
+    ) {
+        double burstSeconds = burst.toMillis() / 1000.0;
+        this.meterRegistry = meterRegistry;
+        this.reads = new Budget( "read", new AdaptiveRateLimiter( minRate, readMaxRate, decrease, growth, burstSeconds ) );
+        this.writes = new Budget( "write", new AdaptiveRateLimiter( minRate, writeMaxRate, decrease, growth, burstSeconds ) );
+        this.maxWaitNanos = maxWait.toNanos();
+        this.maxRetries = maxRetries;
+        this.baseDelayNanos = baseDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+    }
+    
+    /**
+     * Builds the retry policy of the DynamoDB clients, which also feeds the outcome of every attempt
+     * back into the limiters.
+     */
+    public RetryPolicy retryPolicy () {
+        BackoffStrategy decorrelatedJitter = this::nextDelay;
+        return RetryPolicy.builder( RetryMode.STANDARD )
+                .numRetries( maxRetries )
+                .backoffStrategy( decorrelatedJitter )
+                .throttlingBackoffStrategy( decorrelatedJitter )
+                .retryCondition( new ThrottleAwareRetryCondition() )
+                .build();
+    }
+    
+    /**
+     * Takes the permits of the first attempt of an async call without blocking.
+     *
+     * @param request The request about to be sent on the async client.
+     * @return A future completing once the permits may be used, or failing if they cannot be had within
+     * {@code taskly.dynamodb.limiter.max-wait}.
+     */
+    public CompletableFuture<Void> pace (SdkRequest request) {
+        Budget budget = budgetOf( request );
+        long wait = budget.limiter.reserve( permits( request ), maxWaitNanos );
+        if ( wait < 0 ) {
+            budget.rejected.increment();
+            return CompletableFuture.failedFuture( budget.unavailable() );
+        }
+        
+        budget.waits.record( wait, TimeUnit.NANOSECONDS );
+        if ( wait == 0 ) return CompletableFuture.completedFuture( null );
+        return CompletableFuture.runAsync( () -> { }, CompletableFuture.delayedExecutor( wait, TimeUnit.NANOSECONDS ) );
+    }
+    
+    @Override
+    public void beforeExecution (Context.BeforeExecution context, ExecutionAttributes attributes) {
+        // Async calls were paced by their caller, and sleeping here would hold an SDK thread
+        if ( attributes.getAttribute( SdkExecutionAttribute.CLIENT_TYPE ) == ClientType.ASYNC ) return;
+        
+        SdkRequest request = context.request();
+        Budget budget = budgetOf( request );
+        
+        long waited;
+        try {
+            waited = budget.limiter.acquire( permits( request ), maxWaitNanos );
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw AbortedException.create( "Interrupted while waiting for DynamoDB " + budget.name + " capacity" );
+        }
+        
+        if ( waited < 0 ) {
+            budget.rejected.increment();
+            throw budget.unavailable();
+        }
+        budget.waits.record( waited, TimeUnit.NANOSECONDS );
+    }
+    
+    /**
+     * Decorrelated jitter: each delay is drawn between the base delay and three times the previous one, capped.
+     * It is stretched to the wait for the permits the retry reserved, if that is longer.
+     */
+    private Duration nextDelay (RetryPolicyContext context) {
+        ExecutionAttributes attributes = context.executionAttributes();
+        Long previous = attributes.getAttribute( PREVIOUS_DELAY_NANOS );
+        long upper = Math.min( maxDelayNanos, 3 * ( previous == null ? baseDelayNanos : previous ) );
+        long delay = upper <= baseDelayNanos ? baseDelayNanos : ThreadLocalRandom.current().nextLong( baseDelayNanos, upper + 1 );
+        attributes.putAttribute( PREVIOUS_DELAY_NANOS, delay );
+        Long capacityWait = attributes.getAttribute( CAPACITY_WAIT_NANOS );
+        attributes.putAttribute( CAPACITY_WAIT_NANOS, 0L );
+        
+        Counter.builder( "taskly.dynamodb.retries" )
+                .description( "DynamoDB attempts retried by the client" )
+                .tags( "operation", context.originalRequest().getClass().getSimpleName().replace( "Request", "" ),
+                        "reason", isThrottled( context.exception() ) ? "throttled" : "error" )
+                .register( meterRegistry )
+                .increment();
+        return Duration.ofNanos( Math.max( delay, capacityWait == null ? 0 : capacityWait ) );
+    }
+    
+    private Budget budgetOf (SdkRequest request) {
+        boolean read = request instanceof GetItemRequest || request instanceof QueryRequest || request instanceof ScanRequest
+                || request instanceof BatchGetItemRequest || request instanceof TransactGetItemsRequest;
+        return read ? reads : writes;
+    }
+    
+    private static int permits (SdkRequest request) {
+        if ( request instanceof BatchWriteItemRequest batchWrite )
+            return Math.max( 1, batchWrite.requestItems().values().stream().mapToInt( List::size ).sum() );
+        if ( request instanceof BatchGetItemRequest batchGet )
+            return Math.max( 1, batchGet.requestItems().values().stream().mapToInt( keys -> keys.keys().size() ).sum() );
+        if ( request instanceof TransactWriteItemsRequest transactWrite ) return Math.max( 1, transactWrite.transactItems().size() );
+        if ( request instanceof TransactGetItemsRequest transactGet ) return Math.max( 1, transactGet.transactItems().size() );
+        return 1;
+    }
+    
+    private static boolean isThrottled (SdkException exception) {
+        if ( exception == null ) return false;
+        if ( RetryUtils.isThrottlingException( exception ) ) return true;
+        // A transaction throttled on one of its items is reported as cancelled, not as throttled
+        return exception instanceof TransactionCanceledException canceled && canceled.hasCancellationReasons()
+                && canceled.cancellationReasons().stream().anyMatch( reason -> "ThrottlingError".equals( reason.code() ) );
+    }
+    
+    private static boolean isIdempotent (SdkRequest request) {
+        if ( request instanceof UpdateItemRequest update )
+            return update.conditionExpression() == null && ( update.updateExpression() == null || !update.updateExpression().contains( "ADD " ) );
+        if ( request instanceof PutItemRequest put ) return put.conditionExpression() == null;
+        if ( request instanceof DeleteItemRequest delete ) return delete.conditionExpression() == null;
+        // Transactions carry a client token, so DynamoDB applies a repeated one only once
+        return true;
+    }
+    
+    /**
+     * Decides on retries, takes the permits of every retry, and reports every attempt's outcome to the limiter
+     * of its budget, once per attempt.
+     */
+    private final class ThrottleAwareRetryCondition implements RetryCondition {
+        private final RetryCondition retryable = RetryCondition.defaultRetryCondition();
+        
+        @Override
+        public boolean shouldRetry (RetryPolicyContext context) {
+            signal( context );
+            boolean retry = isThrottled( context.exception() ) || isIdempotent( context.originalRequest() ) && retryable.shouldRetry( context );
+            return retry && reserve( context );
+        }
+        
+        @Override
+        public void requestWillNotBeRetried (RetryPolicyContext context) {
+            signal( context );
+        }
+        
+        @Override
+        public void requestSucceeded (RetryPolicyContext context) {
+            budgetOf( context.originalRequest() ).limiter.succeeded();
+        }
+        
+        private void signal (RetryPolicyContext context) {
+            ExecutionAttributes attributes = context.executionAttributes();
+            Integer signalled = attributes.getAttribute( SIGNALLED_ATTEMPT );
+            if ( signalled != null && signalled == context.retriesAttempted() ) return;
+            
+            attributes.putAttribute( SIGNALLED_ATTEMPT, context.retriesAttempted() );
+            if ( isThrottled( context.exception() ) ) budgetOf( context.originalRequest() ).limiter.throttled();
+        }
+        
+        /**
+         * Reserves the permits of the next attempt, once per attempt, and leaves the wait to {@link #nextDelay}.
+         * A retry that cannot have them in time is not made.
+         */
+        private boolean reserve (RetryPolicyContext context) {
+            ExecutionAttributes attributes = context.executionAttributes();
+            Integer reserved = attributes.getAttribute( RESERVED_ATTEMPT );
+            if ( reserved != null && reserved == context.retriesAttempted() ) return true;
+            
+            Budget budget = budgetOf( context.originalRequest() );
+            long wait = budget.limiter.reserve( permits( context.originalRequest() ), maxWaitNanos );
+            if ( wait < 0 ) {
+                budget.rejected.increment();
+                return false;
+            }
+            budget.waits.record( wait, TimeUnit.NANOSECONDS );
+            attributes.putAttribute( RESERVED_ATTEMPT, context.retriesAttempted() );
+            attributes.putAttribute( CAPACITY_WAIT_NANOS, wait );
+            return true;
+        }
+    }
+    
+    private final class Budget {
+        private final String name;
+        private final AdaptiveRateLimiter limiter;
+        private final Timer waits;
+        private final Counter rejected;
+        
+        private Budget (String name, AdaptiveRateLimiter limiter) {
+            this.name = name;
+            this.limiter = limiter;
+            this.waits = Timer.builder( "taskly.dynamodb.limiter.wait" )
+                    .description( "Time calls waited for DynamoDB capacity" )
+                    .tag( "budget", name )
+                    .register( meterRegistry );
+            this.rejected = Counter.builder( "taskly.dynamodb.limiter.rejected" )
+                    .description( "Calls that gave up waiting for DynamoDB capacity" )
+                    .tag( "budget", name )
+                    .register( meterRegistry );
+            Gauge.builder( "taskly.dynamodb.limiter.rate", limiter, AdaptiveRateLimiter::rate )
+                    .description( "Permits per second the limiter currently allows" )
+                    .tag( "budget", name )
+                    .register( meterRegistry );
+            Gauge.builder( "taskly.dynamodb.limiter.queued", limiter, AdaptiveRateLimiter::queued )
+                    .description( "Calls waiting for DynamoDB capacity" )
+                    .tag( "budget", name )
+                    .register( meterRegistry );
+        }
+        
+        private SdkClientException unavailable () {
+            return SdkClientException.create( "DynamoDB " + name + " capacity not available within "
+                    + TimeUnit.NANOSECONDS.toMillis( maxWaitNanos ) + "ms" );
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.aws.taskly_todo.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens DynamoDB connections before the app reports itself ready, so the first requests after a deploy
+ * do not pay for credential resolution, DNS and TLS handshakes. Disabled with {@code taskly.dynamodb.warmup.enabled=false}.
+ * <p>
+ * One {@code DescribeTable} call resolves the credentials; then {@code taskly.dynamodb.warmup.connections}
+ * concurrent calls each hold a connection, which stays pooled afterwards. {@code DescribeTable} consumes no
+ * capacity. Runners complete before the readiness state turns to accepting traffic, so
+ * {@code /actuator/health/readiness} only passes once this is done. Failures are logged and do not stop startup;
+ * the whole phase is bounded by {@code taskly.dynamodb.warmup.timeout}.
+ */
+@Slf4j
+@Component
+@Profile( "!inmemory" )
+@Order( Ordered.HIGHEST_PRECEDENCE )
+@ConditionalOnProperty( name = "taskly.dynamodb.warmup.enabled", havingValue = "true", matchIfMissing = true )
+public class DynamoDbWarmup implements ApplicationRunner {
+    private final DynamoDbClient dynamoDbClient;
+    private final Optional<DynamoDbAsyncClient> dynamoDbAsyncClient;
+    private final ExecutorService dynamoDbExecutor;
+    private final int connections;
+    private final Duration timeout;
+    
+    public DynamoDbWarmup (
+            DynamoDbClient dynamoDbClient,
+            Optional<DynamoDbAsyncClient> dynamoDbAsyncClient,
+            @Qualifier( "dynamoDbExecutor" ) ExecutorService dynamoDbExecutor,
+            @Value( "${taskly.dynamodb.warmup.connections:16}" ) int connections,
+            @Value( "${taskly.dynamodb.warmup.timeout:10s}" ) Duration timeout
+    ) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.dynamoDbAsyncClient = dynamoDbAsyncClient;
+        this.dynamoDbExecutor = dynamoDbExecutor;
+        this.connections = connections;
+        this.timeout = timeout;
+    }
+    
+    @Override
+    public void run (ApplicationArguments args) {
+        long started = System.nanoTime();
+        long deadline = started + timeout.toNanos();
+        DescribeTableRequest request = DescribeTableRequest.builder()
+                .tableName( TodoRepository.tableName )
+                .overrideConfiguration( config -> config.apiCallTimeout( timeout ) )
+                .build();
+        
+        try {
+            dynamoDbClient.describeTable( request );
+        } catch ( Exception e ) {
+            log.warn( "DynamoDB warm-up skipped: first call failed", e );
+            return;
+        }
+        
+        List<CompletableFuture<?>> calls = new ArrayList<>();
+        for ( int i = 1; i < connections; i++ ) {
+            calls.add( CompletableFuture.runAsync( () -> dynamoDbClient.describeTable( request ), dynamoDbExecutor ) );
+        }
+        dynamoDbAsyncClient.ifPresent( client -> {
+            for ( int i = 0; i < connections; i++ ) calls.add( client.describeTable( request ) );
+        } );
+        
+        int failed = 0;
+        for ( CompletableFuture<?> call : calls ) {
+            try {
+                call.get( Math.max( 0, deadline - System.nanoTime() ), TimeUnit.NANOSECONDS );
+            } catch ( Exception e ) {
+                failed++;
+            }
+        }
+        log.info( "DynamoDB warm-up finished in {} ms: {} calls, {} failed",
+                TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - started ), calls.size() + 1, failed );
+    }
+}
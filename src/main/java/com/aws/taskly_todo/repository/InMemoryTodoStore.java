@@ -0,0 +1,445 @@
+package com.aws.taskly_todo.repository;
+
+import com.aws.taskly_todo.model.BatchGetResult;
+import com.aws.taskly_todo.model.BatchSaveResult;
+import com.aws.taskly_todo.model.PaginatedResult;
+import com.aws.taskly_todo.model.Status;
+import com.aws.taskly_todo.model.TodoCounters;
+import com.aws.taskly_todo.model.TodoDraft;
+import com.aws.taskly_todo.model.TodoItem;
+import com.aws.taskly_todo.model.TodoSummary;
+import com.aws.taskly_todo.utils.CursorCodec;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.aws.taskly_todo.repository.TodoRepository.*;
+
+/**
+ * In-process {@link TodoStore} for offline development, local load tests and small single-instance
+ * deployments. Data lives only as long as the JVM. Selected by the {@code inmemory} profile.
+ * <p>
+ * Items are held in a concurrent map and mirrored into three sorted skip-list indexes with the same
+ * orderings as the DynamoDB queries:
+ * <ul>
+ *     <li>CreatedAtIndex: all items by {@code createdAt}, oldest first</li>
+ *     <li>StatusIndex: per status by {@code dueDate}, latest first</li>
+ *     <li>DueDateIndex: per due date by {@code createdAt}, newest first</li>
+ *     <li>DueMonthIndex: per due month by {@code dueDate}, earliest first, read across months for ranges</li>
+ * </ul>
+ * Cursors are LastEvaluatedKeys built from the index attributes and encoded with {@link CursorCodec},
+ * exactly like the DynamoDB store's. Writes to one item are serialised; readers never block and, like
+ * a GSI, may briefly see an index entry whose item has already changed, which is skipped.
+ * The counters are adjusted alongside the indexes, so they are exact for every kind of write.
+ */
+@Repository
+@Profile( "inmemory" )
+public class InMemoryTodoStore implements TodoStore {
+    private static final String MIN = "";
+    private static final String MAX = "\uffff";
+    // StatusIndex order across partitions, so that one (dueDate, id) position resumes every status
+    private static final Comparator<Entry> BY_SORT_DESCENDING = Comparator.comparing( Entry::sort ).thenComparing( Entry::id ).reversed();
+    
+    private final CreatedAtShards createdAtShards;
+    private final Map<String, TodoItem> items = new ConcurrentHashMap<>();
+    // Single-item writes share the read lock; transactions take the write lock to apply all-or-nothing
+    private final ReadWriteLock transactionLock = new ReentrantReadWriteLock();
+    private final Index createdAtIndex = new Index( SORT_KEY, item -> TODOS, CREATED_AT, TodoItem::getCreatedAt, true );
+    private final Index statusIndex = new Index( STATUS, TodoItem::getStatus, DUE_DATE, TodoItem::getDueDate, false );
+    private final Index dueDateIndex = new Index( DUE_DATE, TodoItem::getDueDate, CREATED_AT, TodoItem::getCreatedAt, false );
+    private final Index dueMonthIndex = new Index( DUE_MONTH, item -> DueMonthBuckets.bucketOf( item.getDueDate() ), DUE_DATE, TodoItem::getDueDate, true );
+    private final List<Index> indexes = List.of( createdAtIndex, statusIndex, dueDateIndex, dueMonthIndex );
+    private final AtomicReference<TodoCounters> counters = new AtomicReference<>( TodoCounters.EMPTY );
+    private final DueMonthBuckets dueMonthBuckets;
+    private final TodoSearchIndex searchIndex;
+    
+    public InMemoryTodoStore (CreatedAtShards createdAtShards, DueMonthBuckets dueMonthBuckets, TodoSearchIndex searchIndex) {
+        this.createdAtShards = createdAtShards;
+        this.dueMonthBuckets = dueMonthBuckets;
+        this.searchIndex = searchIndex;
+    }
+    
+    @Override
+    public TodoItem save (String title, String description, String dueDate) {
+        TodoItem todoItem = mapToTodoItem( newItem( title, description, dueDate, createdAtShards ) );
+        write( todoItem.getId(), current -> todoItem );
+        searchIndex.put( todoItem );
+        return copy( todoItem );
+    }
+    
+    @Override
+    public BatchSaveResult saveBatch (List<TodoDraft> drafts) {
+        if ( drafts.size() > BATCH_WRITE_SIZE )
+            throw new IllegalArgumentException( "A batch holds at most " + BATCH_WRITE_SIZE + " items" );
+        
+        List<TodoItem> saved = drafts.stream()
+                .map( draft -> save( draft.title(), draft.description(), draft.dueDate() ) )
+                .collect( Collectors.toList() );
+        return new BatchSaveResult( saved, Set.of(), 0 );
+    }
+    
+    @Override
+    public PaginatedResult<TodoSummary> findAll (int limit, Map<String, AttributeValue> exclusiveStartKey) {
+        return page( createdAtIndex, TODOS, null, limit, exclusiveStartKey );
+    }
+    
+    @Override
+    public Optional<TodoItem> findById (String id) {
+        return Optional.ofNullable( items.get( id ) ).map( InMemoryTodoStore::copy );
+    }
+    
+    @Override
+    public BatchGetResult findByIds (List<String> ids) {
+        List<String> distinctIds = distinctIds( ids );
+        Map<String, TodoItem> found = new HashMap<>();
+        distinctIds.forEach( id -> findById( id ).ifPresent( item -> found.put( id, item ) ) );
+        return toBatchGetResult( distinctIds, found, Set.of() );
+    }
+    
+    @Override
+    public PaginatedResult<TodoSummary> findByStatus (String status, int limit, Map<String, AttributeValue> exclusiveStartKey) {
+        return page( statusIndex, status, null, limit, exclusiveStartKey );
+    }
+    
+    @Override
+    public PaginatedResult<TodoSummary> findByDueDate (String dueDate, int limit, Map<String, AttributeValue> exclusiveStartKey) {
+        return page( dueDateIndex, dueDate, null, limit, exclusiveStartKey );
+    }
+    
+    @Override
+    public PaginatedResult<TodoSummary> findByStatusAndDueDate (String status, String dueDate, int limit, Map<String, AttributeValue> exclusiveStartKey) {
+        return page( statusIndex, status, dueDate, limit, exclusiveStartKey );
+    }
+    
+    /**
+     * Merges the StatusIndex partitions of the statuses. The cursor is the position of the last item,
+     * which every partition resumes after.
+     */
+    @Override
+    public PaginatedResult<TodoSummary> findByStatuses (List<String> statuses, String dueDate, int limit,
+                                                       Map<String, AttributeValue> exclusiveStartKey) {
+        Entry last = statusIndex.startEntry( exclusiveStartKey );
+        List<Iterator<Entry>> partitions = statuses.stream()
+                .map( status -> statusIndex.scanAfter( status, dueDate, last == null ? null : new Entry( status, last.sort(), last.id() ) ) )
+                .collect( Collectors.toList() );
+        return page( statusIndex, ScatterGatherQuery.mergeSorted( partitions, BY_SORT_DESCENDING ), item -> true, limit );
+    }
+    
+    /**
+     * Reads the range from the DueMonthIndex alone, filtering by status. Without statuses the range is
+     * held to the same bucket limit as the DynamoDB store's, so both accept the same ranges.
+     */
+    @Override
+    public PaginatedResult<TodoSummary> findByDueDateRange (List<String> statuses, String from, String to, int limit,
+                                                           Map<String, AttributeValue> exclusiveStartKey) {
+        if ( statuses.isEmpty() ) dueMonthBuckets.range( from, to );
+        Set<String> included = Set.copyOf( statuses );
+        
+        Iterator<Entry> entries = dueMonthIndex.scanRange( DueMonthBuckets.bucketOf( from ), from, DueMonthBuckets.bucketOf( to ), to, exclusiveStartKey );
+        return page( dueMonthIndex, entries,
+                item -> included.isEmpty() || included.contains( item.getStatus() ), limit );
+    }
+    
+    @Override
+    public Stream<TodoItem> streamAll (String status, String dueDate) {
+        boolean hasStatus = status != null && !status.isBlank();
+        boolean hasDueDate = dueDate != null && !dueDate.isBlank();
+        Index index;
+        Iterator<Entry> entries;
+        
+        if ( hasStatus ) {
+            index = statusIndex;
+            entries = statusIndex.scan( status, hasDueDate ? dueDate : null, null );
+        } else if ( hasDueDate ) {
+            index = dueDateIndex;
+            entries = dueDateIndex.scan( dueDate, null, null );
+        } else {
+            index = createdAtIndex;
+            entries = createdAtIndex.scan( TODOS, null, null );
+        }
+        
+        return StreamSupport.stream( Spliterators.spliteratorUnknownSize( entries, Spliterator.ORDERED ), false )
+                .map( entry -> current( index, entry ) )
+                .filter( Objects::nonNull )
+                .map( InMemoryTodoStore::copy );
+    }
+    
+    @Override
+    public void deleteById (String id, String expectedVersion) {
+        write( id, expecting( expectedVersion, current -> null ) );
+        searchIndex.remove( id );
+    }
+    
+    @Override
+    public Optional<TodoItem> updateTodo (String id, String title, String description, Status status, String dueDate, String expectedVersion) {
+        Optional<TodoItem> result = write( id, expecting( expectedVersion, current -> {
+            if ( current == null ) return null;
+            
+            TodoItem updated = copy( current );
+            if ( title != null ) updated.setTitle( title );
+            if ( description != null ) updated.setDescription( description );
+            if ( status != null ) updated.setStatus( status.name() );
+            if ( dueDate != null ) updated.setDueDate( dueDate );
+            updated.setUpdatedAt( LocalDateTime.now().toString() );
+            return updated;
+        } ) );
+        if ( title != null || description != null ) result.ifPresent( searchIndex::put );
+        return result;
+    }
+    
+    @Override
+    public Optional<TodoItem> updateStatus (String id, String newStatus, String expectedVersion) {
+        return write( id, expecting( expectedVersion, current -> current == null ? null : withStatus( current, Status.valueOf( newStatus ) ) ) );
+    }
+    
+    @Override
+    public boolean updateStatusIfExists (String id, Status status) {
+        AtomicBoolean found = new AtomicBoolean();
+        write( id, current -> {
+            if ( current == null ) return null;
+            
+            found.set( true );
+            return withStatus( current, status );
+        } );
+        return found.get();
+    }
+    
+    @Override
+    public Set<String> transactUpdateStatus (List<String> ids, Status status) {
+        if ( ids.size() > TRANSACT_WRITE_MAX_ITEMS )
+            throw new IllegalArgumentException( "A transaction holds at most " + TRANSACT_WRITE_MAX_ITEMS + " items" );
+        
+        transactionLock.writeLock().lock();
+        try {
+            Set<String> missing = ids.stream().filter( id -> !items.containsKey( id ) ).collect( Collectors.toSet() );
+            if ( !missing.isEmpty() ) return missing;
+            
+            for ( String id : ids ) {
+                items.compute( id, (key, current) -> reindex( current, withStatus( current, status ) ) );
+            }
+            return Set.of();
+        } finally {
+            transactionLock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Returns the counters as a single shard; there is no write contention in process to spread.
+     */
+    @Override
+    public List<TodoCounters> readCounterShards () {
+        return List.of( counters.get() );
+    }
+    
+    @Override
+    public int counterShard (String id) {
+        return 0;
+    }
+    
+    @Override
+    public void addCounters (int shard, TodoCounters delta) {
+        counters.accumulateAndGet( delta, TodoCounters::plus );
+    }
+    
+    /**
+     * Reads one page from an index, skipping entries whose item has changed since they were read.
+     * A cursor is only returned when another item would be listed after the page, so the last page never
+     * links to an empty one, even when the entries left are stale or filtered out.
+     */
+    private PaginatedResult<TodoSummary> page (Index index, String partition, String sortValue, int limit,
+                                               Map<String, AttributeValue> exclusiveStartKey) {
+        return page( index, index.scan( partition, sortValue, exclusiveStartKey ), item -> true, limit );
+    }
+    
+    private PaginatedResult<TodoSummary> page (Index index, Iterator<Entry> entries, Predicate<TodoItem> filter, int limit) {
+        List<TodoSummary> page = new ArrayList<>( limit );
+        Entry last = null;
+        boolean more = false;
+        
+        while ( !more && entries.hasNext() ) {
+            Entry entry = entries.next();
+            TodoItem item = current( index, entry );
+            if ( item == null || !filter.test( item ) ) continue;
+            
+            // One item past the limit only tells whether there is a next page
+            more = page.size() == limit;
+            if ( more ) continue;
+            
+            page.add( new TodoSummary( item.getId(), item.getTitle(), item.getStatus(), item.getDueDate() ) );
+            last = entry;
+        }
+        
+        String lastKey = ( last != null && more ) ? CursorCodec.encode( index.lastKey( last ) ) : null;
+        return new PaginatedResult<>( page, lastKey );
+    }
+    
+    private TodoItem current (Index index, Entry entry) {
+        TodoItem item = items.get( entry.id() );
+        return ( item != null && index.matches( entry, item ) ) ? item : null;
+    }
+    
+    private Optional<TodoItem> write (String id, UnaryOperator<TodoItem> change) {
+        transactionLock.readLock().lock();
+        try {
+            return Optional.ofNullable( items.compute( id, (key, current) -> reindex( current, change.apply( current ) ) ) ).map( InMemoryTodoStore::copy );
+        } finally {
+            transactionLock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Guards a change the way a conditional write would: with an expected version, it fails unless the item
+     * exists at that version.
+     */
+    private static UnaryOperator<TodoItem> expecting (String expectedVersion, UnaryOperator<TodoItem> change) {
+        if ( expectedVersion == null ) return change;
+        return current -> {
+            if ( current == null || !expectedVersion.equals( current.version() ) )
+                throw ConditionalCheckFailedException.builder().message( "The item is not at version " + expectedVersion ).build();
+            return change.apply( current );
+        };
+    }
+    
+    private TodoItem reindex (TodoItem previous, TodoItem next) {
+        if ( previous != null ) indexes.forEach( index -> index.remove( previous ) );
+        if ( next != null ) indexes.forEach( index -> index.add( next ) );
+        addCounters( 0, TodoCounters.delta( previous, next ) );
+        return next;
+    }
+    
+    private static TodoItem withStatus (TodoItem item, Status status) {
+        TodoItem updated = copy( item );
+        updated.setStatus( status.name() );
+        updated.setUpdatedAt( LocalDateTime.now().toString() );
+        return updated;
+    }
+    
+    private static TodoItem copy (TodoItem item) {
+        return new TodoItem( item.getId(), item.getTitle(), item.getDescription(), item.getDueDate(),
+                item.getStatus(), item.getCreatedAt(), item.getUpdatedAt(), item.getSortKey() );
+    }
+    
+    private record Entry(String partition, String sort, String id) implements Comparable<Entry> {
+        private static final Comparator<Entry> ORDER = Comparator.comparing( Entry::partition )
+                .thenComparing( Entry::sort )
+                .thenComparing( Entry::id );
+        
+        @Override
+        public int compareTo (Entry other) {
+            return ORDER.compare( this, other );
+        }
+    }
+    
+    /**
+     * A sorted secondary index: entries are ordered by partition, then sort value, then ID,
+     * and read forwards or backwards within one partition.
+     */
+    private static final class Index {
+        private final String partitionAttribute;
+        private final Function<TodoItem, String> partitionOf;
+        private final String sortAttribute;
+        private final Function<TodoItem, String> sortOf;
+        private final boolean ascending;
+        private final NavigableSet<Entry> entries = new ConcurrentSkipListSet<>();
+        
+        private Index (String partitionAttribute, Function<TodoItem, String> partitionOf,
+                       String sortAttribute, Function<TodoItem, String> sortOf, boolean ascending) {
+            this.partitionAttribute = partitionAttribute;
+            this.partitionOf = partitionOf;
+            this.sortAttribute = sortAttribute;
+            this.sortOf = sortOf;
+            this.ascending = ascending;
+        }
+        
+        private void add (TodoItem item) {
+            Entry entry = entryOf( item );
+            if ( entry != null ) entries.add( entry );
+        }
+        
+        private void remove (TodoItem item) {
+            Entry entry = entryOf( item );
+            if ( entry != null ) entries.remove( entry );
+        }
+        
+        private boolean matches (Entry entry, TodoItem item) {
+            return entry.equals( entryOf( item ) );
+        }
+        
+        /**
+         * Iterates one partition in index order, optionally restricted to one sort value,
+         * starting after the given key.
+         */
+        private Iterator<Entry> scan (String partition, String sortValue, Map<String, AttributeValue> exclusiveStartKey) {
+            return scanAfter( partition, sortValue, startEntry( exclusiveStartKey ) );
+        }
+        
+        private Iterator<Entry> scanAfter (String partition, String sortValue, Entry start) {
+            Entry from = new Entry( partition, sortValue == null ? MIN : sortValue, MIN );
+            Entry to = new Entry( partition, sortValue == null ? MAX : sortValue, MAX );
+            NavigableSet<Entry> range = entries.subSet( from, true, to, true );
+            if ( !ascending ) range = range.descendingSet();
+            
+            // A cursor from another partition (the filter changed) restarts from the top
+            if ( start != null && ( !start.partition().equals( partition ) || ( sortValue != null && !start.sort().equals( sortValue ) ) ) )
+                start = null;
+            return ( start == null ? range : range.tailSet( start, false ) ).iterator();
+        }
+        
+        /**
+         * Iterates across partitions in index order between two (partition, sort value) positions, inclusive,
+         * starting after the given key. Only meaningful when the partitions are ordered like their sort values,
+         * as the DueMonthIndex's months are. A null bound leaves that end open.
+         */
+        private Iterator<Entry> scanRange (String fromPartition, String fromSort, String toPartition, String toSort,
+                                           Map<String, AttributeValue> exclusiveStartKey) {
+            Entry from = fromPartition == null ? new Entry( MIN, MIN, MIN ) : new Entry( fromPartition, fromSort, MIN );
+            Entry to = toPartition == null ? new Entry( MAX, MAX, MAX ) : new Entry( toPartition, toSort, MAX );
+            NavigableSet<Entry> range = entries.subSet( from, true, to, true );
+            
+            // A cursor outside the range (the filter changed) restarts from the top
+            Entry start = startEntry( exclusiveStartKey );
+            if ( start != null && ( start.compareTo( from ) < 0 || start.compareTo( to ) > 0 ) )
+                start = null;
+            return ( start == null ? range : range.tailSet( start, false ) ).iterator();
+        }
+        
+        private Map<String, AttributeValue> lastKey (Entry entry) {
+            return Map.of(
+                    ID, AttributeValue.builder().s( entry.id() ).build(),
+                    partitionAttribute, AttributeValue.builder().s( entry.partition() ).build(),
+                    sortAttribute, AttributeValue.builder().s( entry.sort() ).build() );
+        }
+        
+        private Entry startEntry (Map<String, AttributeValue> key) {
+            if ( key == null || !key.containsKey( ID ) || !key.containsKey( partitionAttribute ) || !key.containsKey( sortAttribute ) )
+                return null;
+            
+            return new Entry( key.get( partitionAttribute ).s(), key.get( sortAttribute ).s(), key.get( ID ).s() );
+        }
+        
+        // Items without a partition value are left out, like a sparse GSI
+        private Entry entryOf (TodoItem item) {
+            String partition = partitionOf.apply( item );
+            if ( partition == null || partition.isEmpty() ) return null;
+            
+            String sort = sortOf.apply( item );
+            return new Entry( partition, sort == null ? MIN : sort, item.getId() );
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.aws.taskly_todo.repository;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Queries several index partitions in parallel and k-way merges them into one ordered page.
+ * <p>
+ * Each stream is first read with the full page limit and read again only if its buffer runs dry
+ * before the page is full, so a page holds exactly {@code limit} items unless every stream has ended,
+ * and at most one page per stream is buffered. The returned LastEvaluatedKey is a composite of one position per stream,
+ * flattened into {@code <stream>/<attribute>} entries so it passes through the regular cursor
+ * encoding. A stream that has been read to the end is marked as done and not queried again.
+ */
+final class ScatterGatherQuery {
+    private static final String SEPARATOR = "/";
+    private static final String DONE = "~done";
+    private static final Map<String, AttributeValue> DONE_POSITION = Map.of( DONE, AttributeValue.builder().s( "1" ).build() );
+    
+    private ScatterGatherQuery () {
+    }
+    
+    /**
+     * A merged page of raw items together with the composite position of every stream.
+     *
+     * @param items            The merged items, at most {@code limit}.
+     * @param lastEvaluatedKey The composite key to resume from, or null once every stream is done.
+     */
+    record MergedPage(List<Map<String, AttributeValue>> items, Map<String, AttributeValue> lastEvaluatedKey) {
+    }
+    
+    /**
+     * Runs one query per stream and merges the results.
+     *
+     * @param streams           Query builders keyed by stream name.
+     * @param compositeStartKey The composite key returned with the previous page, or null/empty for the first page.
+     * @param order             The sort order of the merged page; must match the order DynamoDB returns each stream in.
+     * @param keyAttributes     The attributes forming a LastEvaluatedKey of the queried index (table and index keys).
+     * @param limit             The page size.
+     * @param client            Issues a single query, synchronously wrapped or on the async client.
+     * @return A future completing with the merged page.
+     */
+    static CompletableFuture<MergedPage> query (Map<String, QueryRequest.Builder> streams,
+                                                Map<String, AttributeValue> compositeStartKey,
+                                                Comparator<Map<String, AttributeValue>> order,
+                                                List<String> keyAttributes,
+                                                int limit,
+                                                Function<QueryRequest, CompletableFuture<QueryResponse>> client) {
+        return new Merge( streams, split( compositeStartKey ), order, keyAttributes, limit, client ).run();
+    }
+    
+    /**
+     * Lazily merges already sorted iterators into one sorted iterator. Only the head of
+     * each source is held in memory, which keeps streaming reads of many partitions constant-size.
+     *
+     * @param sources The sorted sources.
+     * @param order   The order every source is sorted in.
+     * @return An iterator over all elements of all sources, in order.
+     */
+    static <T> Iterator<T> mergeSorted (List<Iterator<T>> sources, Comparator<? super T> order) {
+        PriorityQueue<Map.Entry<T, Iterator<T>>> heads = new PriorityQueue<>( Map.Entry.comparingByKey( order ) );
+        for ( Iterator<T> source : sources ) {
+            if ( source.hasNext() ) heads.add( new AbstractMap.SimpleEntry<>( source.next(), source ) );
+        }
+        
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext () {
+                return !heads.isEmpty();
+            }
+            
+            @Override
+            public T next () {
+                Map.Entry<T, Iterator<T>> head = heads.poll();
+                if ( head == null ) throw new NoSuchElementException();
+                
+                Iterator<T> source = head.getValue();
+                if ( source.hasNext() ) heads.add( new AbstractMap.SimpleEntry<>( source.next(), source ) );
+                return head.getKey();
+            }
+        };
+    }
+    
+    /**
+     * The state of one merged page. An item can only be taken while every stream that is not done has a
+     * buffered head to compare it with; a stream whose buffer runs dry while it has more items is read
+     * again, for just the items still missing, before merging goes on. A stream therefore never buffers more
+     * than one page, and the page is only short when every stream has been read to the end.
+     */
+    private static final class Merge {
+        private final Map<String, QueryRequest.Builder> streams;
+        private final Comparator<Map<String, AttributeValue>> order;
+        private final List<String> keyAttributes;
+        private final int limit;
+        private final Function<QueryRequest, CompletableFuture<QueryResponse>> client;
+        private final Map<String, Deque<Map<String, AttributeValue>>> buffers = new HashMap<>();
+        // Where the next read of a stream starts: after its buffered items
+        private final Map<String, Map<String, AttributeValue>> readPositions = new ConcurrentHashMap<>();
+        // Where the next page resumes a stream: after its last merged item
+        private final Map<String, Map<String, AttributeValue>> nextPositions;
+        private final List<Map<String, AttributeValue>> items;
+        
+        private Merge (Map<String, QueryRequest.Builder> streams, Map<String, Map<String, AttributeValue>> positions,
+                       Comparator<Map<String, AttributeValue>> order, List<String> keyAttributes, int limit,
+                       Function<QueryRequest, CompletableFuture<QueryResponse>> client) {
+            this.streams = streams;
+            this.order = order;
+            this.keyAttributes = keyAttributes;
+            this.limit = limit;
+            this.client = client;
+            this.nextPositions = new LinkedHashMap<>( positions );
+            this.items = new ArrayList<>( limit );
+            
+            streams.keySet().forEach( name -> {
+                buffers.put( name, new ArrayDeque<>() );
+                readPositions.put( name, positions.getOrDefault( name, Map.of() ) );
+            } );
+        }
+        
+        private CompletableFuture<MergedPage> run () {
+            Set<String> starved = new LinkedHashSet<>();
+            streams.keySet().forEach( name -> {
+                if ( buffers.get( name ).isEmpty() && !isDone( readPositions.get( name ) ) ) starved.add( name );
+            } );
+            if ( !starved.isEmpty() && items.size() < limit ) return read( starved ).thenCompose( ignored -> run() );
+            
+            while ( items.size() < limit ) {
+                String name = head();
+                if ( name == null ) break;
+                
+                Map<String, AttributeValue> item = buffers.get( name ).pollFirst();
+                items.add( item );
+                nextPositions.put( name, keyOf( item, keyAttributes ) );
+                if ( buffers.get( name ).isEmpty() && !isDone( readPositions.get( name ) ) ) return run();
+            }
+            
+            streams.keySet().forEach( name -> {
+                if ( buffers.get( name ).isEmpty() && isDone( readPositions.get( name ) ) ) nextPositions.put( name, DONE_POSITION );
+            } );
+            boolean allDone = streams.keySet().stream()
+                    .allMatch( name -> isDone( nextPositions.get( name ) ) );
+            return CompletableFuture.completedFuture( new MergedPage( items, allDone ? null : flatten( nextPositions ) ) );
+        }
+        
+        private CompletableFuture<Void> read (Set<String> names) {
+            int missing = limit - items.size();
+            List<CompletableFuture<Void>> reads = new ArrayList<>();
+            for ( String name : names ) {
+                QueryRequest request = TodoRepository.withStartKey( streams.get( name ).limit( missing ), readPositions.get( name ) );
+                reads.add( client.apply( request ).thenAccept( response -> {
+                    buffers.get( name ).addAll( response.items() );
+                    boolean more = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty();
+                    readPositions.put( name, more ? response.lastEvaluatedKey() : DONE_POSITION );
+                } ) );
+            }
+            return CompletableFuture.allOf( reads.toArray( CompletableFuture[]::new ) );
+        }
+        
+        private String head () {
+            String head = null;
+            for ( Map.Entry<String, Deque<Map<String, AttributeValue>>> buffer : buffers.entrySet() ) {
+                if ( buffer.getValue().isEmpty() ) continue;
+                if ( head == null || order.compare( buffer.getValue().peekFirst(), buffers.get( head ).peekFirst() ) < 0 )
+                    head = buffer.getKey();
+            }
+            return head;
+        }
+        
+        private static boolean isDone (Map<String, AttributeValue> position) {
+            return position != null && position.containsKey( DONE );
+        }
+    }
+    
+    private static Map<String, AttributeValue> keyOf (Map<String, AttributeValue> item, List<String> keyAttributes) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        for ( String attribute : keyAttributes ) {
+            key.put( attribute, item.get( attribute ) );
+        }
+        return key;
+    }
+    
+    private static Map<String, AttributeValue> flatten (Map<String, Map<String, AttributeValue>> positions) {
+        Map<String, AttributeValue> composite = new LinkedHashMap<>();
+        positions.forEach( (name, position) ->
+                position.forEach( (attribute, value) -> composite.put( name + SEPARATOR + attribute, value ) ) );
+        return composite;
+    }
+    
+    private static Map<String, Map<String, AttributeValue>> split (Map<String, AttributeValue> composite) {
+        Map<String, Map<String, AttributeValue>> positions = new LinkedHashMap<>();
+        if ( composite == null ) return positions;
+        
+        composite.forEach( (flatName, value) -> {
+            int separator = flatName.lastIndexOf( SEPARATOR );
+            if ( separator < 0 ) return;
+            positions.computeIfAbsent( flatName.substring( 0, separator ), name -> new HashMap<>() )
+                    .put( flatName.substring( separator + 1 ), value );
+        } );
+        return positions;
+    }
+}
@@ -1,23 +1,64 @@
 package com.aws.taskly_todo.repository;
 
+import com.aws.taskly_todo.configs.CacheConfig;
+import com.aws.taskly_todo.model.BatchGetResult;
+import com.aws.taskly_todo.model.BatchSaveResult;
 import com.aws.taskly_todo.model.PaginatedResult;
 import com.aws.taskly_todo.model.Status;
+import com.aws.taskly_todo.model.TodoCounters;
+import com.aws.taskly_todo.model.TodoDraft;
 import com.aws.taskly_todo.model.TodoItem;
+import com.aws.taskly_todo.model.TodoSummary;
+import com.aws.taskly_todo.utils.CursorCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.*;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * DynamoDB implementation of {@link TodoStore}, active unless the {@code inmemory} profile is.
+ * <p>
+ * The aggregate counters live in the counter items laid out by {@link CounterShards}. Their attributes are
+ * {@code status#<STATUS>} and {@code open#<dueDate>}, and they have none of the index keys, so they stay out
+ * of every list query. Item writes are plain conditional single-item writes that return the item as it was or
+ * is now; the counter change they cause is then added to the item's shard. Edits of the status or due date,
+ * which the counters depend on, apply only while both are as read, so the change is computed from the right
+ * state, and are retried from a consistent read when that fails. A counter update that fails after its item
+ * write is logged and left to {@code TodoCountsService} reconciliation.
+ */
+@Slf4j
 @Repository
-public class TodoRepository {
+@Profile( "!inmemory" )
+public class TodoRepository implements TodoStore {
     
     public static final String TODOS = "TODOS";
     public static final String CREATED_AT_INDEX = "CreatedAtIndex";
     public static final String SORT_KEY_SORT_KEY = "sortKey = :sortKey";
     public static final String DUE_DATE_INDEX = "DueDateIndex";
+    public static final String DUE_MONTH_INDEX = "DueMonthIndex";
+    public static final String STATUS_INDEX = "StatusIndex";
     public static final String ID = "id";
     public static final String TITLE = "title";
     public static final String DESCRIPTION = "description";
@@ -26,11 +67,47 @@ public class TodoRepository {
     public static final String CREATED_AT = "createdAt";
     public static final String SORT_KEY = "sortKey";
     public static final String UPDATED_AT = "updatedAt";
-    private static final String tableName = "TasklyTodoItems";
+    public static final String DUE_MONTH = "dueMonth";
+    static final String tableName = "TasklyTodoItems";
+    private static final List<String> CREATED_AT_INDEX_KEY = List.of( ID, SORT_KEY, CREATED_AT );
+    private static final List<String> STATUS_INDEX_KEY = List.of( ID, STATUS, DUE_DATE );
+    private static final List<String> DUE_MONTH_INDEX_KEY = List.of( ID, DUE_MONTH, DUE_DATE );
+    private static final Comparator<Map<String, AttributeValue>> BY_DUE_DATE = Comparator
+            .comparing( (Map<String, AttributeValue> item) -> item.get( DUE_DATE ).s() );
+    private static final Comparator<Map<String, AttributeValue>> BY_DUE_DATE_DESCENDING = BY_DUE_DATE.reversed();
+    private static final Comparator<Map<String, AttributeValue>> BY_CREATED_AT = Comparator
+            .comparing( (Map<String, AttributeValue> item) -> item.get( CREATED_AT ).s() )
+            .thenComparing( item -> item.get( ID ).s() );
+    private static final int STREAM_PAGE_SIZE = 500;
+    // Attributes read by list queries: the summary fields plus the CreatedAtIndex key used to merge shards
+    private static final String SUMMARY_PROJECTION = "id, title, #status, dueDate, createdAt, sortKey";
+    // Full-jitter backoff shared by every retry loop; the attempt limit applies to unprocessed batch keys
+    static final int RETRY_MAX_ATTEMPTS = 8;
+    private static final long RETRY_BASE_DELAY_MS = 50;
+    private static final long RETRY_MAX_DELAY_MS = 2_000;
+    public static final String COUNTERS_ID = "#counters";
+    private static final String STATUS_COUNTER_PREFIX = "status#";
+    private static final String OPEN_COUNTER_PREFIX = "open#";
+    static final int COUNTED_WRITE_MAX_ATTEMPTS = 5;
     private final DynamoDbClient dynamoDbClient;
+    private final CreatedAtShards createdAtShards;
+    private final ExecutorService dynamoDbExecutor;
+    private final DueMonthBuckets dueMonthBuckets;
+    private final TodoSearchIndex searchIndex;
+    private final CounterShards counterShards;
+    private final Cache itemCache;
     
-    public TodoRepository (DynamoDbClient dynamoDbClient) {
+    public TodoRepository (DynamoDbClient dynamoDbClient, CreatedAtShards createdAtShards,
+                           @Qualifier( "dynamoDbExecutor" ) ExecutorService dynamoDbExecutor,
+                           DueMonthBuckets dueMonthBuckets, TodoSearchIndex searchIndex, CounterShards counterShards,
+                           CacheManager cacheManager) {
         this.dynamoDbClient = dynamoDbClient;
+        this.createdAtShards = createdAtShards;
+        this.dynamoDbExecutor = dynamoDbExecutor;
+        this.dueMonthBuckets = dueMonthBuckets;
+        this.searchIndex = searchIndex;
+        this.counterShards = counterShards;
+        this.itemCache = Objects.requireNonNull( cacheManager.getCache( CacheConfig.TODO_ITEMS_CACHE ) );
     }
     
     /**
@@ -39,65 +116,166 @@ public class TodoRepository {
      * @param title       The title of the to-do item.
      * @param description The description of the to-do item.
      * @param dueDate     The due date of the to-do item.
+     * @return The saved to-do item, which is also put into the item cache.
      */
-    public void save (String title, String description, String dueDate) {
-        Map<String, AttributeValue> item = new HashMap<>();
-        item.put( ID, AttributeValue.builder().s( UUID.randomUUID().toString() ).build() );
-        item.put( TITLE, AttributeValue.builder().s( title ).build() );
-        item.put( DESCRIPTION, AttributeValue.builder().s( description ).build() );
-        item.put( STATUS, AttributeValue.builder().s( Status.PENDING.name() ).build() );
-        item.put( DUE_DATE, AttributeValue.builder().s( dueDate ).build() );
-        item.put( CREATED_AT, AttributeValue.builder().s( LocalDateTime.now().toString() ).build() );
-        item.put( SORT_KEY, AttributeValue.builder().s( TODOS ).build() );
+    @CachePut( cacheNames = CacheConfig.TODO_ITEMS_CACHE, key = "#result.id" )
+    @Override
+    public TodoItem save (String title, String description, String dueDate) {
+        Map<String, AttributeValue> item = newItem( title, description, dueDate, createdAtShards );
         
-        PutItemRequest request = PutItemRequest.builder()
-                .tableName( tableName )
-                .item( item )
-                .build();
+        dynamoDbClient.putItem( saveRequest( item ) );
         
-        dynamoDbClient.putItem( request );
+        TodoItem todoItem = mapToTodoItem( item );
+        count( counterShards.shardOf( todoItem.getId() ), TodoCounters.delta( null, todoItem ) );
+        searchIndex.put( todoItem );
+        return todoItem;
+    }
+    
+    /**
+     * Saves up to {@value #BATCH_WRITE_SIZE} new to-do items with a single {@code BatchWriteItem}.
+     * Unprocessed items are retried with full-jitter exponential backoff; items still unprocessed
+     * after the last attempt are reported rather than thrown. The counters of the written items are
+     * added afterwards with one update per counter shard, outside the batch.
+     *
+     * @param drafts The items to create, at most {@value #BATCH_WRITE_SIZE}.
+     * @return The created items, the IDs left unprocessed and the capacity consumed.
+     */
+    @Override
+    public BatchSaveResult saveBatch (List<TodoDraft> drafts) {
+        if ( drafts.size() > BATCH_WRITE_SIZE )
+            throw new IllegalArgumentException( "A batch holds at most " + BATCH_WRITE_SIZE + " items" );
+        
+        List<Map<String, AttributeValue>> items = drafts.stream()
+                .map( draft -> newItem( draft.title(), draft.description(), draft.dueDate(), createdAtShards ) )
+                .collect( Collectors.toList() );
+        List<WriteRequest> pending = items.stream()
+                .map( item -> WriteRequest.builder().putRequest( PutRequest.builder().item( item ).build() ).build() )
+                .collect( Collectors.toList() );
+        double consumedCapacity = 0;
+        
+        for ( int attempt = 0; !pending.isEmpty() && attempt < RETRY_MAX_ATTEMPTS; attempt++ ) {
+            if ( attempt > 0 && !backOff( attempt ) ) break;
+            
+            BatchWriteItemResponse response = dynamoDbClient.batchWriteItem( BatchWriteItemRequest.builder()
+                    .requestItems( Map.of( tableName, pending ) )
+                    .returnConsumedCapacity( ReturnConsumedCapacity.TOTAL )
+                    .build() );
+            
+            if ( response.hasConsumedCapacity() ) {
+                consumedCapacity += response.consumedCapacity().stream()
+                        .mapToDouble( capacity -> capacity.capacityUnits() == null ? 0 : capacity.capacityUnits() )
+                        .sum();
+            }
+            pending = response.hasUnprocessedItems()
+                    ? response.unprocessedItems().getOrDefault( tableName, List.of() )
+                    : List.of();
+        }
+        
+        Set<String> unprocessedIds = pending.stream()
+                .map( request -> request.putRequest().item().get( ID ).s() )
+                .collect( Collectors.toSet() );
+        List<TodoItem> todoItems = items.stream()
+                .map( TodoRepository::mapToTodoItem )
+                .collect( Collectors.toList() );
+        List<TodoItem> processed = todoItems.stream()
+                .filter( item -> !unprocessedIds.contains( item.getId() ) )
+                .collect( Collectors.toList() );
+        processed.stream()
+                .collect( Collectors.groupingBy( item -> counterShards.shardOf( item.getId() ) ) )
+                .forEach( (shard, written) -> count( shard, TodoCounters.of( written.stream() ) ) );
+        processed.forEach( searchIndex::put );
+        
+        return new BatchSaveResult( todoItems, unprocessedIds, consumedCapacity );
     }
     
     /**
      * Returns a paginated result of all to-do items in dueDate today firs and descending order (newest first).
+     * When the CreatedAtIndex partition is sharded, all shards are queried in parallel and merged by createdAt.
+     * Like the other list queries, only the {@link TodoSummary} attributes are read.
      *
      * @param limit             the maximum number of items to return
      * @param exclusiveStartKey the key from the previous query to start from.
      *                          If null, the query starts from the beginning.
      * @return the paginated result, containing the items and the last key.
      */
-    public PaginatedResult<TodoItem> findAll (int limit, Map<String, AttributeValue> exclusiveStartKey) {
-        QueryRequest.Builder queryBuilder = QueryRequest.builder()
-                .tableName( tableName )
-                .indexName( CREATED_AT_INDEX )
-                .keyConditionExpression( SORT_KEY_SORT_KEY )
-                .expressionAttributeValues( Map.of( ":sortKey", AttributeValue.builder().s( TODOS ).build() ) )
-                .limit( limit )
-                .scanIndexForward( true ); // or true for ascending
+    @Override
+    public PaginatedResult<TodoSummary> findAll (int limit, Map<String, AttributeValue> exclusiveStartKey) {
+        if ( !createdAtShards.isSharded() )
+            return getTodoSummaryPaginatedResult( exclusiveStartKey, findAllRequest( TODOS, limit ) );
         
-        return getTodoItemPaginatedResult( exclusiveStartKey, queryBuilder );
+        return findAllSharded( createdAtShards, limit, exclusiveStartKey,
+                request -> CompletableFuture.supplyAsync( () -> dynamoDbClient.query( request ), dynamoDbExecutor ) ).join();
     }
     
     /**
-     * Retrieves a to-do item by its ID.
+     * Retrieves a to-do item by its ID. Found items are served from the item cache
+     * until they are evicted by size, TTL or a write to the same ID.
      *
      * @param id The ID of the to-do item to retrieve.
      * @return An optional containing the to-do item if found, or empty if not.
      */
+    @Cacheable( cacheNames = CacheConfig.TODO_ITEMS_CACHE, key = "#id", unless = "#result == null" )
+    @Override
     public Optional<TodoItem> findById (String id) {
-        Map<String, AttributeValue> key = new HashMap<>();
-        key.put( ID, AttributeValue.builder().s( id ).build() );
-        
-        GetItemRequest request = GetItemRequest.builder()
-                .tableName( tableName )
-                .key( key )
-                .build();
+        return toTodoItem( dynamoDbClient.getItem( getItemRequest( id ) ) );
+    }
+    
+    /**
+     * Retrieves up to {@value #BATCH_GET_MAX_IDS} to-do items by their IDs. Items in the item cache are served
+     * from it; the rest are read with {@code BatchGetItem} in chunks of {@value #BATCH_GET_SIZE}, issued
+     * concurrently. Unprocessed keys are retried with full-jitter exponential backoff; IDs still unprocessed
+     * after the last attempt, or in a chunk whose read failed, are reported rather than thrown. Items read are
+     * put into the item cache.
+     *
+     * @param ids The IDs of the to-do items to retrieve. Duplicates are looked up once.
+     * @return The items found in request order, the IDs that do not exist and the IDs that could not be read.
+     */
+    @Override
+    public BatchGetResult findByIds (List<String> ids) {
+        List<String> distinctIds = distinctIds( ids );
+        Map<String, TodoItem> found = new ConcurrentHashMap<>();
+        Set<String> unprocessed = ConcurrentHashMap.newKeySet();
+        List<String> misses = findCached( itemCache, distinctIds, found );
         
-        Map<String, AttributeValue> item = dynamoDbClient.getItem( request ).item();
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for ( int from = 0; from < misses.size(); from += BATCH_GET_SIZE ) {
+            List<String> chunk = misses.subList( from, Math.min( from + BATCH_GET_SIZE, misses.size() ) );
+            chunks.add( batchGet( batchGetKeys( chunk ), found, unprocessed, 0 ) );
+        }
+        CompletableFuture.allOf( chunks.toArray( CompletableFuture[]::new ) ).join();
         
-        if ( item == null || item.isEmpty() ) return Optional.empty();
+        return toBatchGetResult( distinctIds, found, unprocessed );
+    }
+    
+    /**
+     * Reads one chunk of keys on the DynamoDB executor. Unprocessed keys are retried after a jittered delay
+     * that is scheduled rather than slept, so no pool thread is held while waiting. If the read fails, the
+     * chunk's keys are reported as unprocessed so the other chunks still make up the result.
+     */
+    private CompletableFuture<Void> batchGet (List<Map<String, AttributeValue>> keys, Map<String, TodoItem> found,
+                                              Set<String> unprocessed, int attempt) {
+        Executor executor = attempt == 0
+                ? dynamoDbExecutor
+                : CompletableFuture.delayedExecutor( retryDelayMillis( attempt ), TimeUnit.MILLISECONDS, dynamoDbExecutor );
         
-        return Optional.of( mapToTodoItem( item ) );
+        return CompletableFuture.supplyAsync( () -> dynamoDbClient.batchGetItem( batchGetRequest( keys ) ), executor ).thenCompose( response -> {
+            batchGetItems( response ).forEach( todoItem -> {
+                found.put( todoItem.getId(), todoItem );
+                itemCache.put( todoItem.getId(), todoItem );
+            } );
+            List<Map<String, AttributeValue>> pending = unprocessedKeys( response );
+            if ( pending.isEmpty() ) return CompletableFuture.completedFuture( null );
+            
+            if ( attempt + 1 >= RETRY_MAX_ATTEMPTS ) {
+                pending.forEach( key -> unprocessed.add( key.get( ID ).s() ) );
+                return CompletableFuture.completedFuture( null );
+            }
+            return batchGet( pending, found, unprocessed, attempt + 1 );
+        } ).exceptionally( e -> {
+            log.warn( "Batch read of {} items failed, reported as unprocessed", keys.size(), e );
+            keys.forEach( key -> unprocessed.add( key.get( ID ).s() ) );
+            return null;
+        } );
     }
     
     /**
@@ -109,21 +287,9 @@ public class TodoRepository {
      *                          If null, the query starts from the beginning.
      * @return A paginated result containing the filtered to-do items and the last key.
      */
-    public PaginatedResult<TodoItem> findByStatus (String status, int limit, Map<String, AttributeValue> exclusiveStartKey) {
-        QueryRequest.Builder requestBuilder = QueryRequest.builder()
-                .tableName( tableName )
-                .indexName( "StatusIndex" )
-                .keyConditionExpression( "#status = :status" )
-                .expressionAttributeNames( Map.of( "#status", STATUS ) )
-                .expressionAttributeValues( Map.of( ":status", AttributeValue.builder().s( status ).build() ) )
-                .limit( limit )
-                .scanIndexForward( false );
-        
-        if ( exclusiveStartKey != null && !exclusiveStartKey.isEmpty() ) {
-            requestBuilder.exclusiveStartKey( exclusiveStartKey );
-        }
-        
-        return getTodoItemPaginatedResult( exclusiveStartKey, requestBuilder );
+    @Override
+    public PaginatedResult<TodoSummary> findByStatus (String status, int limit, Map<String, AttributeValue> exclusiveStartKey) {
+        return getTodoSummaryPaginatedResult( exclusiveStartKey, findByStatusRequest( status, limit ) );
     }
     
     /**
@@ -135,20 +301,9 @@ public class TodoRepository {
      *                          If null, the query starts from the beginning.
      * @return A paginated result containing the filtered to-do items and the last key.
      */
-    public PaginatedResult<TodoItem> findByDueDate (String dueDate, int limit, Map<String, AttributeValue> exclusiveStartKey) {
-        QueryRequest.Builder requestBuilder = QueryRequest.builder()
-                .tableName( tableName )
-                .indexName( DUE_DATE_INDEX )
-                .keyConditionExpression( "dueDate = :dueDate" )
-                .expressionAttributeValues( Map.of( ":dueDate", AttributeValue.builder().s( dueDate ).build() ) )
-                .limit( limit )
-                .scanIndexForward( false );
-        
-        if ( exclusiveStartKey != null && !exclusiveStartKey.isEmpty() ) {
-            requestBuilder.exclusiveStartKey( exclusiveStartKey );
-        }
-        
-        return getTodoItemPaginatedResult( exclusiveStartKey, requestBuilder );
+    @Override
+    public PaginatedResult<TodoSummary> findByDueDate (String dueDate, int limit, Map<String, AttributeValue> exclusiveStartKey) {
+        return getTodoSummaryPaginatedResult( exclusiveStartKey, findByDueDateRequest( dueDate, limit ) );
     }
     
     /**
@@ -161,124 +316,787 @@ public class TodoRepository {
      *                          If null, the query starts from the beginning.
      * @return A paginated result containing the filtered to-do items and the last key.
      */
-    public PaginatedResult<TodoItem> findByStatusAndDueDate (String status, String dueDate, int limit, Map<String, AttributeValue> exclusiveStartKey) {
-        QueryRequest.Builder requestBuilder = QueryRequest.builder()
-                .tableName( tableName )
-                .indexName( "StatusIndex" )
-                .keyConditionExpression( "#status = :status AND dueDate = :dueDate" )
-                .expressionAttributeNames( Map.of( "#status", STATUS ) )
-                .expressionAttributeValues( Map.of(
-                        ":status", AttributeValue.builder().s( status ).build(),
-                        ":dueDate", AttributeValue.builder().s( dueDate ).build()
-                ) )
-                .limit( limit )
-                .scanIndexForward( false );
-        
-        return getTodoItemPaginatedResult( exclusiveStartKey, requestBuilder );
+    @Override
+    public PaginatedResult<TodoSummary> findByStatusAndDueDate (String status, String dueDate, int limit, Map<String, AttributeValue> exclusiveStartKey) {
+        return getTodoSummaryPaginatedResult( exclusiveStartKey, findByStatusAndDueDateRequest( status, dueDate, limit ) );
     }
     
     /**
-     * Deletes a to-do item by its ID.
+     * Retrieves a page of to-do items in any of several statuses, in StatusIndex order (latest due date first).
+     * One {@code StatusIndex} query per status is issued in parallel and the results are merged into one page.
      *
-     * @param id The ID of the to-do item to delete.
+     * @param statuses          The statuses to include.
+     * @param dueDate           The due date to restrict to, or null for any.
+     * @param limit             The maximum number of items to return.
+     * @param exclusiveStartKey The composite key from the previous query to start from.
+     *                          If null, the query starts from the beginning.
+     * @return A paginated result containing the filtered to-do items and the last key.
      */
-    public void deleteById (String id) {
-        Map<String, AttributeValue> key = new HashMap<>();
-        key.put( ID, AttributeValue.builder().s( id ).build() );
+    @Override
+    public PaginatedResult<TodoSummary> findByStatuses (List<String> statuses, String dueDate, int limit,
+                                                       Map<String, AttributeValue> exclusiveStartKey) {
+        return findByStatuses( statuses, dueDate, limit, exclusiveStartKey,
+                request -> CompletableFuture.supplyAsync( () -> dynamoDbClient.query( request ), dynamoDbExecutor ) ).join();
+    }
+    
+    /**
+     * Retrieves a page of to-do items due within a range, in due-date order (earliest first).
+     * Without statuses, one {@code DueMonthIndex} query per month bucket is issued in parallel and merged;
+     * with statuses, one {@code StatusIndex} range query per status.
+     *
+     * @param statuses          The statuses to include, or empty for all.
+     * @param from              The first due date, inclusive, or null for no lower bound.
+     * @param to                The last due date, inclusive, or null for no upper bound.
+     * @param limit             The maximum number of items to return.
+     * @param exclusiveStartKey The key from the previous query to start from.
+     *                          If null, the query starts from the beginning.
+     * @return A paginated result containing the matching to-do items and the last key.
+     */
+    @Override
+    public PaginatedResult<TodoSummary> findByDueDateRange (List<String> statuses, String from, String to, int limit,
+                                                           Map<String, AttributeValue> exclusiveStartKey) {
+        return findByDueDateRange( dueMonthBuckets, statuses, from, to, limit, exclusiveStartKey,
+                request -> CompletableFuture.supplyAsync( () -> dynamoDbClient.query( request ), dynamoDbExecutor ) ).join();
+    }
+    
+    /**
+     * Lazily streams every to-do item matching the filters, in the same index order as the paginated queries.
+     * Pages are fetched by the SDK paginator as the stream is consumed, so only one page per queried
+     * partition is held in memory at a time. Sharded partitions are merged by createdAt.
+     *
+     * @param status  The status filter, or null.
+     * @param dueDate The due date filter, or null.
+     * @return A lazy stream of matching to-do items.
+     */
+    @Override
+    public Stream<TodoItem> streamAll (String status, String dueDate) {
+        boolean hasStatus = status != null && !status.isBlank();
+        boolean hasDueDate = dueDate != null && !dueDate.isBlank();
+        Iterator<Map<String, AttributeValue>> items;
         
-        DeleteItemRequest request = DeleteItemRequest.builder()
-                .tableName( tableName )
-                .key( key )
-                .build();
+        if ( hasStatus && hasDueDate ) {
+            items = paginate( findByStatusAndDueDateRequest( status, dueDate, STREAM_PAGE_SIZE ) );
+        } else if ( hasStatus ) {
+            items = paginate( findByStatusRequest( status, STREAM_PAGE_SIZE ) );
+        } else if ( hasDueDate ) {
+            items = paginate( findByDueDateRequest( dueDate, STREAM_PAGE_SIZE ) );
+        } else {
+            List<Iterator<Map<String, AttributeValue>>> partitions = createdAtShards.partitions().stream()
+                    .map( partition -> paginate( findAllRequest( partition, STREAM_PAGE_SIZE ) ) )
+                    .collect( Collectors.toList() );
+            items = partitions.size() == 1 ? partitions.get( 0 ) : ScatterGatherQuery.mergeSorted( partitions, BY_CREATED_AT );
+        }
         
-        dynamoDbClient.deleteItem( request );
+        return StreamSupport.stream( Spliterators.spliteratorUnknownSize( items, Spliterator.ORDERED ), false )
+                .map( TodoRepository::mapToTodoItem );
     }
     
     /**
-     * Updates a to-do item.
+     * Deletes a to-do item by its ID. The delete returns the item it removed, which is uncounted.
+     *
+     * @param id              The ID of the to-do item to delete.
+     * @param expectedVersion The version the item must still have, or null to delete unconditionally.
+     */
+    @CacheEvict( cacheNames = CacheConfig.TODO_ITEMS_CACHE, key = "#id" )
+    @Override
+    public void deleteById (String id, String expectedVersion) {
+        DeleteItemResponse response = dynamoDbClient.deleteItem( deleteRequest( id, expectedVersion ) );
+        if ( response.hasAttributes() && !response.attributes().isEmpty() )
+            count( counterShards.shardOf( id ), TodoCounters.delta( mapToTodoItem( response.attributes() ), null ) );
+        searchIndex.remove( id );
+    }
+    
+    /**
+     * Updates a to-do item, setting every supplied field.
      *
      * @param id          The ID of the to-do item to update.
      * @param title       The new title of the to-do item.
      * @param description The new description of the to-do item.
      * @param status      The new status of the to-do item.
      * @param dueDate     The new due date of the to-do item.
+     * @param expectedVersion The version the item must still have, or null for no condition.
+     * @return The item as stored after the update, which also replaces the cached copy.
      */
-    public void updateTodo (String id, String title, String description, Status status, String dueDate) {
-        Map<String, AttributeValue> key = Map.of(
-                ID, AttributeValue.builder().s( id ).build()
-        );
+    @CachePut( cacheNames = CacheConfig.TODO_ITEMS_CACHE, key = "#id", unless = "#result == null" )
+    @Override
+    public Optional<TodoItem> updateTodo (String id, String title, String description, Status status, String dueDate, String expectedVersion) {
+        Optional<TodoItem> updated = update( id, title, description, status == null ? null : status.name(), dueDate, expectedVersion );
+        if ( title != null || description != null ) updated.ifPresent( searchIndex::put );
+        return updated;
+    }
+    
+    /**
+     * Updates the status of a to-do item identified by the given ID.
+     *
+     * @param id        The ID of the to-do item to update.
+     * @param newStatus The new status to set for the to-do item.
+     * @param expectedVersion The version the item must still have, or null for no condition.
+     * @return The item as stored after the update, which also replaces the cached copy.
+     */
+    @CachePut( cacheNames = CacheConfig.TODO_ITEMS_CACHE, key = "#id", unless = "#result == null" )
+    @Override
+    public Optional<TodoItem> updateStatus (String id, String newStatus, String expectedVersion) {
+        return update( id, null, null, newStatus, null, expectedVersion );
+    }
+    
+    /**
+     * Sets the status of an existing to-do item. Unlike {@link #updateStatus}, an unknown ID
+     * is reported instead of creating a partial item.
+     *
+     * @param id     The ID of the to-do item to update.
+     * @param status The new status.
+     * @return true if the item was updated, false if it does not exist.
+     */
+    @CacheEvict( cacheNames = CacheConfig.TODO_ITEMS_CACHE, key = "#id" )
+    @Override
+    public boolean updateStatusIfExists (String id, Status status) {
+        return update( id, null, null, status.name(), null, null ).isPresent();
+    }
+    
+    /**
+     * Sets the status of up to {@value #TRANSACT_WRITE_MAX_ITEMS} existing to-do items in one
+     * all-or-nothing {@code TransactWriteItems} call. The items are read consistently first; each update
+     * applies only while its item still has the status and due date read, so the counter change added
+     * per shard afterwards is exact. A lost race is retried from a fresh read after a jittered backoff.
+     * Only the written items are evicted from the item cache.
+     *
+     * @param ids    The IDs of the to-do items to update.
+     * @param status The new status.
+     * @return The IDs that do not exist. If any are returned, nothing was written.
+     */
+    @Override
+    public Set<String> transactUpdateStatus (List<String> ids, Status status) {
+        if ( ids.size() > TRANSACT_WRITE_MAX_ITEMS )
+            throw new IllegalArgumentException( "A transaction holds at most " + TRANSACT_WRITE_MAX_ITEMS + " items" );
         
-        Map<String, AttributeValueUpdate> updates = new HashMap<>();
+        for ( int attempt = 1; ; attempt++ ) {
+            Map<String, TodoItem> current = new HashMap<>();
+            batchRead( ids, true ).forEach( (id, item) -> current.put( id, mapToTodoItem( item ) ) );
+            Set<String> missing = ids.stream()
+                    .filter( id -> !current.containsKey( id ) )
+                    .collect( Collectors.toSet() );
+            if ( !missing.isEmpty() ) return missing;
+            
+            List<TransactWriteItem> writes = current.values().stream()
+                    .map( found -> TransactWriteItem.builder()
+                            .update( toTransactUpdate( itemUpdate( found.getId(), null, null, status.name(), null, found, null ) ) )
+                            .build() )
+                    .collect( Collectors.toList() );
+            try {
+                dynamoDbClient.transactWriteItems( TransactWriteItemsRequest.builder()
+                        .transactItems( writes )
+                        .clientRequestToken( UUID.randomUUID().toString() )
+                        .build() );
+            } catch ( TransactionCanceledException e ) {
+                if ( attempt >= COUNTED_WRITE_MAX_ATTEMPTS || !isLostRace( e ) || !backOff( attempt ) ) throw e;
+                continue;
+            }
+            ids.forEach( itemCache::evict );
+            
+            current.values().stream()
+                    .collect( Collectors.groupingBy( found -> counterShards.shardOf( found.getId() ) ) )
+                    .forEach( (shard, changed) -> count( shard, changed.stream()
+                            .map( found -> TodoCounters.delta( found, withStatus( found, status.name() ) ) )
+                            .reduce( TodoCounters.EMPTY, TodoCounters::plus ) ) );
+            return Set.of();
+        }
+    }
+    
+    @Override
+    public List<TodoCounters> readCounterShards () {
+        Map<String, Map<String, AttributeValue>> shards = batchRead( counterShards.ids(), false );
         
-        if ( title != null ) {
-            updates.put( TITLE, AttributeValueUpdate.builder()
-                    .value( AttributeValue.builder().s( title ).build() )
-                    .action( AttributeAction.PUT )
-                    .build() );
+        return counterShards.ids().stream()
+                .map( id -> shards.containsKey( id ) ? toTodoCounters( List.of( shards.get( id ) ) ) : TodoCounters.EMPTY )
+                .collect( Collectors.toList() );
+    }
+    
+    @Override
+    public int counterShard (String id) {
+        return counterShards.shardOf( id );
+    }
+    
+    @Override
+    public void addCounters (int shard, TodoCounters delta) {
+        String counterId = counterShards.idOf( shard );
+        UpdateItemResponse response = dynamoDbClient.updateItem( countersUpdate( counterId, delta ) );
+        
+        zeroCountersRemoval( counterId, response ).ifPresent( removal -> {
+            try {
+                dynamoDbClient.updateItem( removal );
+            } catch ( ConditionalCheckFailedException e ) {
+                // Counted again since, so the attribute stays
+            }
+        } );
+    }
+    
+    /**
+     * Reads up to {@value #BATCH_GET_SIZE} items with {@code BatchGetItem}, retrying unprocessed keys with
+     * full-jitter exponential backoff.
+     *
+     * @return The items found, by ID.
+     * @throws IllegalStateException If keys are still unprocessed after the last attempt.
+     */
+    private Map<String, Map<String, AttributeValue>> batchRead (List<String> ids, boolean consistent) {
+        Map<String, Map<String, AttributeValue>> found = new HashMap<>();
+        List<Map<String, AttributeValue>> pending = batchGetKeys( ids );
+        
+        for ( int attempt = 0; !pending.isEmpty(); attempt++ ) {
+            if ( attempt >= RETRY_MAX_ATTEMPTS || attempt > 0 && !backOff( attempt ) )
+                throw new IllegalStateException( pending.size() + " keys left unread after " + attempt + " attempts" );
+            
+            BatchGetItemResponse response = dynamoDbClient.batchGetItem( batchGetRequest( pending, consistent ) );
+            
+            if ( response.hasResponses() )
+                response.responses().getOrDefault( tableName, List.of() ).forEach( item -> found.put( item.get( ID ).s(), item ) );
+            pending = unprocessedKeys( response );
+        }
+        return found;
+    }
+    
+    /**
+     * Writes the supplied fields of an item and returns it as stored. Edits of the status or due date read the
+     * item first, from the item cache on the first attempt, and only apply while both are unchanged; they are
+     * retried from a consistent read, after a jittered backoff, while that fails. With an expected version,
+     * any failed condition means the item changed or is gone, and is thrown rather than retried.
+     *
+     * @return The item as stored after the update, or empty if it does not exist.
+     */
+    private Optional<TodoItem> update (String id, String title, String description, String status, String dueDate, String expectedVersion) {
+        if ( status == null && dueDate == null ) {
+            try {
+                return Optional.of( mapToTodoItem( dynamoDbClient.updateItem(
+                        itemUpdate( id, title, description, null, null, null, expectedVersion ) ).attributes() ) );
+            } catch ( ConditionalCheckFailedException e ) {
+                if ( expectedVersion != null ) throw e;
+                return Optional.empty();
+            }
         }
         
-        if ( description != null ) {
-            updates.put( DESCRIPTION, AttributeValueUpdate.builder()
-                    .value( AttributeValue.builder().s( description ).build() )
-                    .action( AttributeAction.PUT )
-                    .build() );
+        TodoItem cached = itemCache.get( id, TodoItem.class );
+        for ( int attempt = 1; ; attempt++ ) {
+            Optional<TodoItem> current = attempt == 1 && cached != null
+                    ? Optional.of( cached )
+                    : toTodoItem( dynamoDbClient.getItem( consistentGetItemRequest( id ) ) );
+            if ( current.isEmpty() ) return Optional.empty();
+            
+            try {
+                UpdateItemResponse response = dynamoDbClient.updateItem(
+                        itemUpdate( id, title, description, status, dueDate, current.get(), expectedVersion ) );
+                TodoItem updated = mapToTodoItem( response.attributes() );
+                count( counterShards.shardOf( id ), TodoCounters.delta( current.get(), updated ) );
+                return Optional.of( updated );
+            } catch ( ConditionalCheckFailedException e ) {
+                if ( expectedVersion != null || attempt >= COUNTED_WRITE_MAX_ATTEMPTS || !backOff( attempt ) ) throw e;
+            }
         }
+    }
+    
+    /**
+     * Adds the counter change of an item write that has already happened, so a failure is logged rather
+     * than thrown and the difference is left to reconciliation.
+     */
+    private void count (int shard, TodoCounters delta) {
+        if ( delta.isEmpty() ) return;
         
-        if ( status != null ) {
-            updates.put( STATUS, AttributeValueUpdate.builder()
-                    .value( AttributeValue.builder().s( status.name() ).build() )
-                    .action( AttributeAction.PUT )
-                    .build() );
+        try {
+            addCounters( shard, delta );
+        } catch ( SdkException e ) {
+            log.warn( "Counter update {} on shard {} failed, left to reconciliation", delta, shard, e );
         }
+    }
+    
+    /**
+     * Performs a projected DynamoDB query and maps the result to a {@link PaginatedResult} of {@link TodoSummary}s.
+     *
+     * @param exclusiveStartKey The last key from the previous query, or null to start from the beginning.
+     * @param requestBuilder    The query request builder.
+     * @return A paginated result containing the list of {@link TodoSummary}s and the last key.
+     */
+    private PaginatedResult<TodoSummary> getTodoSummaryPaginatedResult (Map<String, AttributeValue> exclusiveStartKey, QueryRequest.Builder requestBuilder) {
+        return toPaginatedResult( dynamoDbClient.query( withStartKey( summaryProjection( requestBuilder ), exclusiveStartKey ) ) );
+    }
+    
+    private Iterator<Map<String, AttributeValue>> paginate (QueryRequest.Builder requestBuilder) {
+        return dynamoDbClient.queryPaginator( requestBuilder.build() ).items().iterator();
+    }
+    
+    /**
+     * Sleeps for a full-jitter exponential delay before the given retry attempt.
+     *
+     * @return false if the thread was interrupted and retrying should stop.
+     */
+    private static boolean backOff (int attempt) {
+        try {
+            Thread.sleep( retryDelayMillis( attempt ) );
+            return true;
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    /**
+     * Returns a full-jitter exponential delay for the given retry attempt.
+     */
+    static long retryDelayMillis (int attempt) {
+        long ceiling = Math.min( RETRY_MAX_DELAY_MS, RETRY_BASE_DELAY_MS << Math.min( attempt, 16 ) );
+        return ThreadLocalRandom.current().nextLong( ceiling + 1 );
+    }
+    
+    // Request builders and mappers, shared with AsyncTodoRepository so both variants issue identical requests.
+    
+    /**
+     * Builds the attribute map of a new to-do item in the {@link Status#PENDING} state.
+     */
+    static Map<String, AttributeValue> newItem (String title, String description, String dueDate, CreatedAtShards createdAtShards) {
+        String id = UUID.randomUUID().toString();
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put( ID, AttributeValue.builder().s( id ).build() );
+        item.put( TITLE, AttributeValue.builder().s( title ).build() );
+        item.put( DESCRIPTION, AttributeValue.builder().s( description ).build() );
+        item.put( STATUS, AttributeValue.builder().s( Status.PENDING.name() ).build() );
+        item.put( DUE_DATE, AttributeValue.builder().s( dueDate ).build() );
+        item.put( CREATED_AT, AttributeValue.builder().s( LocalDateTime.now().toString() ).build() );
+        item.put( SORT_KEY, AttributeValue.builder().s( createdAtShards.partitionFor( id ) ).build() );
+        String dueMonth = DueMonthBuckets.bucketOf( dueDate );
+        if ( dueMonth != null ) item.put( DUE_MONTH, AttributeValue.builder().s( dueMonth ).build() );
+        return item;
+    }
+    
+    static GetItemRequest consistentGetItemRequest (String id) {
+        return getItemRequest( id ).toBuilder().consistentRead( true ).build();
+    }
+    
+    static GetItemRequest getItemRequest (String id) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put( ID, AttributeValue.builder().s( id ).build() );
         
-        if ( dueDate != null ) {
-            updates.put( DUE_DATE, AttributeValueUpdate.builder()
-                    .value( AttributeValue.builder().s( dueDate ).build() )
-                    .action( AttributeAction.PUT )
-                    .build() );
+        return GetItemRequest.builder()
+                .tableName( tableName )
+                .key( key )
+                .build();
+    }
+    
+    /**
+     * Returns the IDs of a multi-ID lookup without duplicates, in request order.
+     *
+     * @throws IllegalArgumentException If there are more than {@value #BATCH_GET_MAX_IDS}.
+     */
+    static List<String> distinctIds (List<String> ids) {
+        if ( ids.size() > BATCH_GET_MAX_IDS )
+            throw new IllegalArgumentException( "A lookup holds at most " + BATCH_GET_MAX_IDS + " IDs" );
+        
+        return ids.stream()
+                .filter( Objects::nonNull )
+                .distinct()
+                .collect( Collectors.toList() );
+    }
+    
+    /**
+     * Puts the cached items among the given IDs into {@code found} and returns the IDs left to read.
+     * The counter items are never read, so their IDs are reported as missing.
+     */
+    static List<String> findCached (Cache itemCache, List<String> ids, Map<String, TodoItem> found) {
+        List<String> misses = new ArrayList<>();
+        for ( String id : ids ) {
+            TodoItem cached = itemCache.get( id, TodoItem.class );
+            if ( cached != null ) found.put( id, cached );
+            else if ( !CounterShards.isCounterId( id ) ) misses.add( id );
         }
+        return misses;
+    }
+    
+    static List<Map<String, AttributeValue>> batchGetKeys (List<String> ids) {
+        return ids.stream()
+                .map( id -> Map.of( ID, AttributeValue.builder().s( id ).build() ) )
+                .collect( Collectors.toList() );
+    }
+    
+    static BatchGetItemRequest batchGetRequest (List<Map<String, AttributeValue>> keys) {
+        return batchGetRequest( keys, false );
+    }
+    
+    static BatchGetItemRequest batchGetRequest (List<Map<String, AttributeValue>> keys, boolean consistent) {
+        return BatchGetItemRequest.builder()
+                .requestItems( Map.of( tableName, KeysAndAttributes.builder().keys( keys ).consistentRead( consistent ).build() ) )
+                .build();
+    }
+    
+    static List<TodoItem> batchGetItems (BatchGetItemResponse response) {
+        if ( !response.hasResponses() ) return List.of();
         
-        updates.put( UPDATED_AT, AttributeValueUpdate.builder()
-                .value( AttributeValue.builder().s( LocalDateTime.now().toString() ).build() )
-                .action( AttributeAction.PUT )
-                .build() );
+        return response.responses().getOrDefault( tableName, List.of() ).stream()
+                .map( TodoRepository::mapToTodoItem )
+                .collect( Collectors.toList() );
+    }
+    
+    static List<Map<String, AttributeValue>> unprocessedKeys (BatchGetItemResponse response) {
+        KeysAndAttributes unprocessed = response.hasUnprocessedKeys() ? response.unprocessedKeys().get( tableName ) : null;
         
-        UpdateItemRequest request = UpdateItemRequest.builder()
+        return unprocessed == null || !unprocessed.hasKeys() ? List.of() : unprocessed.keys();
+    }
+    
+    /**
+     * Sorts the outcome of a multi-ID lookup into found, missing and unprocessed IDs, in request order.
+     */
+    static BatchGetResult toBatchGetResult (List<String> ids, Map<String, TodoItem> found, Set<String> unprocessed) {
+        List<TodoItem> items = new ArrayList<>();
+        List<String> missingIds = new ArrayList<>();
+        List<String> unprocessedIds = new ArrayList<>();
+        for ( String id : ids ) {
+            TodoItem item = found.get( id );
+            if ( item != null ) items.add( item );
+            else if ( unprocessed.contains( id ) ) unprocessedIds.add( id );
+            else missingIds.add( id );
+        }
+        return new BatchGetResult( items, missingIds, unprocessedIds );
+    }
+    
+    static QueryRequest.Builder findAllRequest (String partition, int limit) {
+        return QueryRequest.builder()
                 .tableName( tableName )
-                .key( key )
-                .attributeUpdates( updates )
+                .indexName( CREATED_AT_INDEX )
+                .keyConditionExpression( SORT_KEY_SORT_KEY )
+                .expressionAttributeValues( Map.of( ":sortKey", AttributeValue.builder().s( partition ).build() ) )
+                .limit( limit )
+                .scanIndexForward( true ); // or true for ascending
+    }
+    
+    static QueryRequest.Builder findByStatusRequest (String status, int limit) {
+        return QueryRequest.builder()
+                .tableName( tableName )
+                .indexName( STATUS_INDEX )
+                .keyConditionExpression( "#status = :status" )
+                .expressionAttributeNames( Map.of( "#status", STATUS ) )
+                .expressionAttributeValues( Map.of( ":status", AttributeValue.builder().s( status ).build() ) )
+                .limit( limit )
+                .scanIndexForward( false );
+    }
+    
+    static QueryRequest.Builder findByDueDateRequest (String dueDate, int limit) {
+        return QueryRequest.builder()
+                .tableName( tableName )
+                .indexName( DUE_DATE_INDEX )
+                .keyConditionExpression( "dueDate = :dueDate" )
+                .expressionAttributeValues( Map.of( ":dueDate", AttributeValue.builder().s( dueDate ).build() ) )
+                .limit( limit )
+                .scanIndexForward( false );
+    }
+    
+    static QueryRequest.Builder findByStatusAndDueDateRequest (String status, String dueDate, int limit) {
+        return QueryRequest.builder()
+                .tableName( tableName )
+                .indexName( STATUS_INDEX )
+                .keyConditionExpression( "#status = :status AND dueDate = :dueDate" )
+                .expressionAttributeNames( Map.of( "#status", STATUS ) )
+                .expressionAttributeValues( Map.of(
+                        ":status", AttributeValue.builder().s( status ).build(),
+                        ":dueDate", AttributeValue.builder().s( dueDate ).build()
+                ) )
+                .limit( limit )
+                .scanIndexForward( false );
+    }
+    
+    static QueryRequest.Builder findByStatusAndDueDateRangeRequest (String status, String from, String to, int limit) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put( ":status", AttributeValue.builder().s( status ).build() );
+        
+        return QueryRequest.builder()
+                .tableName( tableName )
+                .indexName( STATUS_INDEX )
+                .keyConditionExpression( "#status = :status AND " + dueDateRangeCondition( from, to, values ) )
+                .expressionAttributeNames( Map.of( "#status", STATUS ) )
+                .expressionAttributeValues( values )
+                .limit( limit )
+                .scanIndexForward( true );
+    }
+    
+    static QueryRequest.Builder findByDueMonthRequest (String dueMonth, String from, String to, int limit) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put( ":dueMonth", AttributeValue.builder().s( dueMonth ).build() );
+        
+        return QueryRequest.builder()
+                .tableName( tableName )
+                .indexName( DUE_MONTH_INDEX )
+                .keyConditionExpression( "dueMonth = :dueMonth AND " + dueDateRangeCondition( from, to, values ) )
+                .expressionAttributeValues( values )
+                .limit( limit )
+                .scanIndexForward( true );
+    }
+    
+    private static String dueDateRangeCondition (String from, String to, Map<String, AttributeValue> values) {
+        if ( from != null ) values.put( ":from", AttributeValue.builder().s( from ).build() );
+        if ( to != null ) values.put( ":to", AttributeValue.builder().s( to ).build() );
+        
+        if ( from != null && to != null ) return "dueDate BETWEEN :from AND :to";
+        if ( from != null ) return "dueDate >= :from";
+        if ( to != null ) return "dueDate <= :to";
+        throw new IllegalArgumentException( "A due-date range needs at least one end" );
+    }
+    
+    static QueryRequest withStartKey (QueryRequest.Builder requestBuilder, Map<String, AttributeValue> exclusiveStartKey) {
+        if ( exclusiveStartKey != null && !exclusiveStartKey.isEmpty() )
+            requestBuilder.exclusiveStartKey( exclusiveStartKey );
+        
+        return requestBuilder.build();
+    }
+    
+    /**
+     * Restricts a list query to the attributes of a {@link TodoSummary}, keeping any attribute
+     * names the query already defines.
+     */
+    static QueryRequest.Builder summaryProjection (QueryRequest.Builder requestBuilder) {
+        QueryRequest request = requestBuilder.build();
+        Map<String, String> names = new HashMap<>( request.expressionAttributeNames() );
+        names.put( "#status", STATUS );
+        
+        return request.toBuilder()
+                .projectionExpression( SUMMARY_PROJECTION )
+                .expressionAttributeNames( names );
+    }
+    
+    /**
+     * Builds the creation of an item, which fails rather than overwrite an existing one.
+     */
+    static PutItemRequest saveRequest (Map<String, AttributeValue> item) {
+        return PutItemRequest.builder()
+                .tableName( tableName )
+                .item( item )
+                .conditionExpression( "attribute_not_exists(id)" )
                 .build();
+    }
+    
+    /**
+     * Builds the deletion of an item, returning the item it removed. With {@code expectedVersion}, it only
+     * applies while the item exists at that version.
+     */
+    static DeleteItemRequest deleteRequest (String id, String expectedVersion) {
+        DeleteItemRequest.Builder request = DeleteItemRequest.builder()
+                .tableName( tableName )
+                .key( Map.of( ID, AttributeValue.builder().s( id ).build() ) )
+                .returnValues( ReturnValue.ALL_OLD );
+        if ( expectedVersion == null ) return request.build();
         
-        dynamoDbClient.updateItem( request );
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        return request
+                .conditionExpression( versionCondition( expectedVersion, names, values ) )
+                .expressionAttributeNames( names )
+                .expressionAttributeValues( values )
+                .build();
     }
     
     /**
-     * Updates the status of a to-do item identified by the given ID.
+     * Builds an update setting every supplied (non-null) field of an existing item, stamping it as updated now
+     * and returning the item as stored. With {@code expected}, it only applies while the item still has the
+     * status and due date of {@code expected}, the fields the counters depend on. With {@code expectedVersion},
+     * it also only applies while the item is at that version.
+     */
+    static UpdateItemRequest itemUpdate (String id, String title, String description, String status, String dueDate,
+                                         TodoItem expected, String expectedVersion) {
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        List<String> assignments = new ArrayList<>();
+        String removal = "";
+        
+        assign( TITLE, title, assignments, names, values );
+        assign( DESCRIPTION, description, assignments, names, values );
+        assign( STATUS, status, assignments, names, values );
+        assign( DUE_DATE, dueDate, assignments, names, values );
+        String dueMonth = DueMonthBuckets.bucketOf( dueDate );
+        if ( dueMonth != null ) {
+            assign( DUE_MONTH, dueMonth, assignments, names, values );
+        } else if ( dueDate != null ) {
+            // A due date without a month leaves the DueMonthIndex
+            names.put( "#" + DUE_MONTH, DUE_MONTH );
+            removal = " REMOVE #" + DUE_MONTH;
+        }
+        assign( UPDATED_AT, LocalDateTime.now().toString(), assignments, names, values );
+        
+        String condition = expected == null ? "attribute_exists(id)" : unchangedCondition( expected, names, values );
+        if ( expectedVersion != null ) condition += " AND " + versionCondition( expectedVersion, names, values );
+        
+        return UpdateItemRequest.builder()
+                .tableName( tableName )
+                .key( Map.of( ID, AttributeValue.builder().s( id ).build() ) )
+                .updateExpression( "SET " + String.join( ", ", assignments ) + removal )
+                .conditionExpression( condition )
+                .expressionAttributeNames( names )
+                .expressionAttributeValues( values )
+                .returnValues( ReturnValue.ALL_NEW )
+                .build();
+    }
+    
+    /**
+     * Builds an {@code ADD} of every counter in a delta to a counter item, creating it if needed.
+     * It returns the counters it changed, so the ones that reached zero can be removed.
+     */
+    static UpdateItemRequest countersUpdate (String counterId, TodoCounters delta) {
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        List<String> additions = new ArrayList<>();
+        
+        Map<String, Long> counters = new HashMap<>();
+        delta.byStatus().forEach( (status, count) -> counters.put( STATUS_COUNTER_PREFIX + status, count ) );
+        delta.openByDueDate().forEach( (dueDate, count) -> counters.put( OPEN_COUNTER_PREFIX + dueDate, count ) );
+        counters.forEach( (attribute, count) -> {
+            String placeholder = "c" + additions.size();
+            names.put( "#" + placeholder, attribute );
+            values.put( ":" + placeholder, AttributeValue.builder().n( Long.toString( count ) ).build() );
+            additions.add( "#" + placeholder + " :" + placeholder );
+        } );
+        
+        return UpdateItemRequest.builder()
+                .tableName( tableName )
+                .key( Map.of( ID, AttributeValue.builder().s( counterId ).build() ) )
+                .updateExpression( "ADD " + String.join( ", ", additions ) )
+                .expressionAttributeNames( names )
+                .expressionAttributeValues( values )
+                .returnValues( ReturnValue.UPDATED_NEW )
+                .build();
+    }
+    
+    /**
+     * Builds the removal of the counters a {@link #countersUpdate} brought to zero, applied only while they still
+     * are zero. This keeps a counter item down to the due dates that still have open items.
      *
-     * @param id        The ID of the to-do item to update.
-     * @param newStatus The new status to set for the to-do item.
+     * @return The removal, or empty if no counter reached zero.
      */
-    public void updateStatus (String id, String newStatus) {
-        Map<String, AttributeValue> key = Map.of( "id", AttributeValue.builder().s( id ).build() );
+    static Optional<UpdateItemRequest> zeroCountersRemoval (String counterId, UpdateItemResponse response) {
+        if ( !response.hasAttributes() ) return Optional.empty();
         
-        Map<String, AttributeValueUpdate> updates = new HashMap<>();
-        updates.put( STATUS, AttributeValueUpdate.builder()
-                .value( AttributeValue.builder().s( newStatus ).build() )
-                .action( AttributeAction.PUT )
-                .build() );
+        Map<String, String> names = new HashMap<>();
+        List<String> removals = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        response.attributes().forEach( (attribute, value) -> {
+            if ( value.n() == null || Long.parseLong( value.n() ) != 0 ) return;
+            
+            String placeholder = "#z" + removals.size();
+            names.put( placeholder, attribute );
+            removals.add( placeholder );
+            conditions.add( placeholder + " = :zero" );
+        } );
+        if ( removals.isEmpty() ) return Optional.empty();
         
-        updates.put( UPDATED_AT, AttributeValueUpdate.builder()
-                .value( AttributeValue.builder().s( LocalDateTime.now().toString() ).build() )
-                .action( AttributeAction.PUT )
+        return Optional.of( UpdateItemRequest.builder()
+                .tableName( tableName )
+                .key( Map.of( ID, AttributeValue.builder().s( counterId ).build() ) )
+                .updateExpression( "REMOVE " + String.join( ", ", removals ) )
+                .conditionExpression( String.join( " AND ", conditions ) )
+                .expressionAttributeNames( names )
+                .expressionAttributeValues( Map.of( ":zero", AttributeValue.builder().n( "0" ).build() ) )
                 .build() );
+    }
+    
+    /**
+     * Sums the counters held by a set of counter items.
+     */
+    static TodoCounters toTodoCounters (Collection<Map<String, AttributeValue>> counterItems) {
+        Map<String, Long> byStatus = new HashMap<>();
+        Map<String, Long> openByDueDate = new HashMap<>();
+        counterItems.forEach( item -> item.forEach( (attribute, value) -> {
+            if ( attribute.startsWith( STATUS_COUNTER_PREFIX ) )
+                byStatus.merge( attribute.substring( STATUS_COUNTER_PREFIX.length() ), Long.parseLong( value.n() ), Long::sum );
+            else if ( attribute.startsWith( OPEN_COUNTER_PREFIX ) )
+                openByDueDate.merge( attribute.substring( OPEN_COUNTER_PREFIX.length() ), Long.parseLong( value.n() ), Long::sum );
+        } ) );
+        return new TodoCounters( byStatus, openByDueDate );
+    }
+    
+    /**
+     * Converts an item update into the equivalent transaction step, which returns no values.
+     */
+    static Update toTransactUpdate (UpdateItemRequest update) {
+        return Update.builder()
+                .tableName( update.tableName() )
+                .key( update.key() )
+                .updateExpression( update.updateExpression() )
+                .conditionExpression( update.conditionExpression() )
+                .expressionAttributeNames( update.expressionAttributeNames() )
+                .expressionAttributeValues( update.expressionAttributeValues() )
+                .build();
+    }
+    
+    /**
+     * Returns whether a failed conditional write lost a race and should be retried from a fresh read: either the
+     * item changed (its condition failed), or a transaction collided with another one.
+     */
+    static boolean isLostRace (Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        
+        if ( cause instanceof ConditionalCheckFailedException ) return true;
+        if ( !( cause instanceof TransactionCanceledException canceled ) || !canceled.hasCancellationReasons() ) return false;
+        
+        return canceled.cancellationReasons().stream()
+                .anyMatch( reason -> "ConditionalCheckFailed".equals( reason.code() ) || "TransactionConflict".equals( reason.code() ) );
+    }
+    
+    private static TodoItem withStatus (TodoItem current, String status) {
+        return new TodoItem( current.getId(), current.getTitle(), current.getDescription(), current.getDueDate(), status,
+                current.getCreatedAt(), current.getUpdatedAt(), current.getSortKey() );
+    }
+    
+    private static void assign (String attribute, String value, List<String> assignments,
+                                Map<String, String> names, Map<String, AttributeValue> values) {
+        if ( value == null ) return;
+        
+        names.put( "#" + attribute, attribute );
+        values.put( ":" + attribute, AttributeValue.builder().s( value ).build() );
+        assignments.add( "#" + attribute + " = :" + attribute );
+    }
+    
+    /**
+     * Returns the condition that an item is at a version, as {@link TodoItem#version()} defines it.
+     */
+    private static String versionCondition (String expectedVersion, Map<String, String> names, Map<String, AttributeValue> values) {
+        names.put( "#" + UPDATED_AT, UPDATED_AT );
+        names.put( "#" + CREATED_AT, CREATED_AT );
+        values.put( ":expectedVersion", AttributeValue.builder().s( expectedVersion ).build() );
+        return "(#updatedAt = :expectedVersion OR (attribute_not_exists(#updatedAt) AND #createdAt = :expectedVersion))";
+    }
+    
+    private static String unchangedCondition (TodoItem current, Map<String, String> names, Map<String, AttributeValue> values) {
+        names.put( "#" + STATUS, STATUS );
+        names.put( "#" + DUE_DATE, DUE_DATE );
+        values.put( ":expectedStatus", AttributeValue.builder().s( current.getStatus() ).build() );
+        if ( current.getDueDate() == null ) return "#status = :expectedStatus AND attribute_not_exists(#dueDate)";
         
-        UpdateItemRequest request = UpdateItemRequest.builder()
+        values.put( ":expectedDueDate", AttributeValue.builder().s( current.getDueDate() ).build() );
+        return "#status = :expectedStatus AND #dueDate = :expectedDueDate";
+    }
+    
+    /**
+     * Builds the update moving an item from one CreatedAtIndex partition to another,
+     * provided it is still in the partition it was read from.
+     */
+    static UpdateItemRequest movePartitionRequest (String id, String fromPartition, String toPartition) {
+        return UpdateItemRequest.builder()
                 .tableName( tableName )
-                .key( key )
-                .attributeUpdates( updates )
+                .key( Map.of( ID, AttributeValue.builder().s( id ).build() ) )
+                .updateExpression( "SET sortKey = :to" )
+                .conditionExpression( SORT_KEY_SORT_KEY )
+                .expressionAttributeValues( Map.of(
+                        ":to", AttributeValue.builder().s( toPartition ).build(),
+                        ":sortKey", AttributeValue.builder().s( fromPartition ).build()
+                ) )
+                .build();
+    }
+    
+    /**
+     * Builds an update setting the due month of an item, applied only while it still has the due date it was read with.
+     */
+    static UpdateItemRequest dueMonthBackfillRequest (String id, String dueDate) {
+        return UpdateItemRequest.builder()
+                .tableName( tableName )
+                .key( Map.of( ID, AttributeValue.builder().s( id ).build() ) )
+                .updateExpression( "SET dueMonth = :dueMonth" )
+                .conditionExpression( "dueDate = :dueDate" )
+                .expressionAttributeValues( Map.of(
+                        ":dueMonth", AttributeValue.builder().s( DueMonthBuckets.bucketOf( dueDate ) ).build(),
+                        ":dueDate", AttributeValue.builder().s( dueDate ).build()
+                ) )
                 .build();
-        
-        dynamoDbClient.updateItem( request );
     }
     
     /**
@@ -287,7 +1105,7 @@ public class TodoRepository {
      * @param item The DynamoDB item to map.
      * @return The mapped {@link TodoItem} object.
      */
-    private TodoItem mapToTodoItem (Map<String, AttributeValue> item) {
+    static TodoItem mapToTodoItem (Map<String, AttributeValue> item) {
         return new TodoItem(
                 item.get( ID ).s(),
                 item.get( TITLE ).s(),
@@ -301,32 +1119,117 @@ public class TodoRepository {
     }
     
     /**
-     * Performs a DynamoDB query and maps the result to a {@link PaginatedResult} of {@link TodoItem}s.
+     * Maps a projected DynamoDB item to a {@link TodoSummary}.
      *
-     * @param exclusiveStartKey The last key from the previous query, or null to start from the beginning.
-     * @param requestBuilder    The query request builder.
-     * @return A paginated result containing the list of {@link TodoItem}s and the last key.
+     * @param item The DynamoDB item to map.
+     * @return The mapped {@link TodoSummary}.
      */
-    private PaginatedResult<TodoItem> getTodoItemPaginatedResult (Map<String, AttributeValue> exclusiveStartKey, QueryRequest.Builder requestBuilder) {
-        if ( exclusiveStartKey != null && !exclusiveStartKey.isEmpty() )
-            requestBuilder.exclusiveStartKey( exclusiveStartKey );
+    static TodoSummary mapToTodoSummary (Map<String, AttributeValue> item) {
+        return new TodoSummary(
+                item.get( ID ).s(),
+                item.containsKey( TITLE ) ? item.get( TITLE ).s() : null,
+                item.containsKey( STATUS ) ? item.get( STATUS ).s() : Status.PENDING.name(),
+                item.containsKey( DUE_DATE ) ? item.get( DUE_DATE ).s() : null
+        );
+    }
+    
+    static Optional<TodoItem> toTodoItem (GetItemResponse response) {
+        Map<String, AttributeValue> item = response.item();
         
-        QueryResponse response = dynamoDbClient.query( requestBuilder.build() );
+        if ( item == null || item.isEmpty() ) return Optional.empty();
         
-        List<TodoItem> todos = response.items().stream()
-                .map( this::mapToTodoItem )
+        return Optional.of( mapToTodoItem( item ) );
+    }
+    
+    /**
+     * Maps a list query response to a {@link PaginatedResult}, encoding its LastEvaluatedKey as the cursor.
+     */
+    static PaginatedResult<TodoSummary> toPaginatedResult (QueryResponse response) {
+        List<TodoSummary> todos = response.items().stream()
+                .map( TodoRepository::mapToTodoSummary )
                 .collect( Collectors.toList() );
         
-        // Handle encoding of LastEvaluatedKey
-        String lastKeyEncoded = null;
-        if ( response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty() ) {
-            Map<String, AttributeValue> lastEvaluatedKey = response.lastEvaluatedKey();
-            String keyString = lastEvaluatedKey.entrySet().stream()
-                    .map( entry -> entry.getKey() + "=" + entry.getValue().s() )
-                    .collect( Collectors.joining( "," ) );
-            lastKeyEncoded = Base64.getEncoder().encodeToString( keyString.getBytes() );
+        return new PaginatedResult<>( todos, response.hasLastEvaluatedKey() ? CursorCodec.encode( response.lastEvaluatedKey() ) : null );
+    }
+    
+    /**
+     * Queries every CreatedAtIndex shard and merges them into one page ordered by createdAt.
+     * The returned cursor carries one position per shard.
+     *
+     * @param createdAtShards   The shard layout.
+     * @param limit             The page size.
+     * @param exclusiveStartKey The composite key from the previous page, or null/empty for the first page.
+     * @param client            Issues a single query.
+     * @return A future completing with the merged page.
+     */
+    static CompletableFuture<PaginatedResult<TodoSummary>> findAllSharded (CreatedAtShards createdAtShards, int limit,
+                                                                         Map<String, AttributeValue> exclusiveStartKey,
+                                                                         Function<QueryRequest, CompletableFuture<QueryResponse>> client) {
+        Map<String, QueryRequest.Builder> streams = new LinkedHashMap<>();
+        for ( String partition : createdAtShards.partitions() ) {
+            streams.put( partition, summaryProjection( findAllRequest( partition, limit ) ) );
+        }
+        
+        return ScatterGatherQuery.query( streams, exclusiveStartKey, BY_CREATED_AT, CREATED_AT_INDEX_KEY, limit, client )
+                .thenApply( TodoRepository::toPaginatedResult );
+    }
+    
+    /**
+     * Queries the StatusIndex once per status and merges the streams by due date, latest first.
+     */
+    static CompletableFuture<PaginatedResult<TodoSummary>> findByStatuses (List<String> statuses, String dueDate, int limit,
+                                                                         Map<String, AttributeValue> exclusiveStartKey,
+                                                                         Function<QueryRequest, CompletableFuture<QueryResponse>> client) {
+        Map<String, QueryRequest.Builder> streams = new LinkedHashMap<>();
+        for ( String status : statuses ) {
+            streams.put( status, summaryProjection( dueDate == null
+                    ? findByStatusRequest( status, limit )
+                    : findByStatusAndDueDateRequest( status, dueDate, limit ) ) );
+        }
+        
+        return ScatterGatherQuery.query( streams, exclusiveStartKey, BY_DUE_DATE_DESCENDING, STATUS_INDEX_KEY, limit, client )
+                .thenApply( TodoRepository::toPaginatedResult );
+    }
+    
+    /**
+     * Queries a due-date range, one stream per month bucket or per status, and merges the streams by due date.
+     * A single stream is queried directly and keeps a plain cursor.
+     */
+    static CompletableFuture<PaginatedResult<TodoSummary>> findByDueDateRange (DueMonthBuckets dueMonthBuckets, List<String> statuses,
+                                                                             String from, String to, int limit,
+                                                                             Map<String, AttributeValue> exclusiveStartKey,
+                                                                             Function<QueryRequest, CompletableFuture<QueryResponse>> client) {
+        Map<String, QueryRequest.Builder> streams = new LinkedHashMap<>();
+        List<String> keyAttributes;
+        
+        if ( statuses.isEmpty() ) {
+            DueMonthBuckets.Range range = dueMonthBuckets.range( from, to );
+            for ( String month : range.months() ) {
+                // The month is part of the merged cursor, so it is read along with the summary
+                streams.put( month, summaryProjection( findByDueMonthRequest( month, range.from(), range.to(), limit ) )
+                        .projectionExpression( SUMMARY_PROJECTION + ", " + DUE_MONTH ) );
+            }
+            keyAttributes = DUE_MONTH_INDEX_KEY;
+        } else {
+            for ( String status : statuses ) {
+                streams.put( status, summaryProjection( findByStatusAndDueDateRangeRequest( status, from, to, limit ) ) );
+            }
+            keyAttributes = STATUS_INDEX_KEY;
         }
         
-        return new PaginatedResult<>( todos, lastKeyEncoded );
+        if ( streams.isEmpty() )
+            return CompletableFuture.completedFuture( new PaginatedResult<>( List.of(), null ) );
+        if ( streams.size() == 1 )
+            return client.apply( withStartKey( streams.values().iterator().next(), exclusiveStartKey ) )
+                    .thenApply( TodoRepository::toPaginatedResult );
+        
+        return ScatterGatherQuery.query( streams, exclusiveStartKey, BY_DUE_DATE, keyAttributes, limit, client )
+                .thenApply( TodoRepository::toPaginatedResult );
+    }
+    
+    private static PaginatedResult<TodoSummary> toPaginatedResult (ScatterGatherQuery.MergedPage page) {
+        return new PaginatedResult<>(
+                page.items().stream().map( TodoRepository::mapToTodoSummary ).collect( Collectors.toList() ),
+                CursorCodec.encode( page.lastEvaluatedKey() ) );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,339 @@
+package com.aws.taskly_todo.repository;
+
+import com.aws.taskly_todo.model.TodoItem;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted index over the title and description of every to-do item, answering ranked
+ * full-text searches without touching DynamoDB.
+ * <p>
+ * Text is folded to lower-case ASCII where possible and split on anything that is not a letter or a digit.
+ * Every query term matches as a prefix, all of them must match, and hits are ranked with BM25, title terms
+ * counting three times. The stores keep it current on every write that changes text; writes made by other
+ * instances are picked up by {@link #rebuild}.
+ * <p>
+ * Each item gets a sequential document number and each term a posting list of (document gap, weight)
+ * pairs packed as var-ints, usually two or three bytes per posting. A changed item is re-added under a new
+ * number and its old one is only marked deleted, so postings of deleted documents accumulate until the next
+ * rebuild, which starts from a fresh segment.
+ */
+@Component
+public class TodoSearchIndex {
+    static final int TITLE_WEIGHT = 3;
+    static final int MAX_QUERY_TERMS = 8;
+    // Terms a query prefix expands to at most, so a one-letter prefix does not read the whole index
+    static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int MAX_TERM_LENGTH = 32;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Pattern SEPARATORS = Pattern.compile( "[^\\p{L}\\p{N}]+" );
+    private static final Pattern MARKS = Pattern.compile( "\\p{M}+" );
+    
+    private volatile Segment segment = new Segment();
+    // Writes made while a rebuild is reading the store, replayed onto the new segment before it is published
+    private List<Consumer<Segment>> replay;
+    
+    /**
+     * Indexes an item, replacing what was indexed for its ID before.
+     *
+     * @param item The item as stored.
+     */
+    public synchronized void put (TodoItem item) {
+        segment.put( item );
+        if ( replay != null ) replay.add( next -> next.put( item ) );
+    }
+    
+    /**
+     * Removes an item from the index.
+     *
+     * @param id The ID of the removed item.
+     */
+    public synchronized void remove (String id) {
+        segment.remove( id );
+        if ( replay != null ) replay.add( next -> next.remove( id ) );
+    }
+    
+    /**
+     * Replaces the index with one built from the given items. Searches keep using the current
+     * segment until the new one is complete; writes made in the meantime are applied to both. The
+     * new segment is published under the same lock that replays them, so no write falls in between.
+     *
+     * @param items Every item in the store, read lazily so that writes made after the rebuild started are replayed.
+     */
+    public void rebuild (Stream<TodoItem> items) {
+        synchronized ( this ) {
+            if ( replay != null ) throw new IllegalStateException( "A rebuild is already running" );
+            replay = new ArrayList<>();
+        }
+        
+        Segment next = new Segment();
+        boolean built = false;
+        try {
+            items.forEach( next::put );
+            built = true;
+        } finally {
+            synchronized ( this ) {
+                if ( built ) {
+                    replay.forEach( write -> write.accept( next ) );
+                    segment = next;
+                }
+                replay = null;
+            }
+        }
+    }
+    
+    /**
+     * Returns the IDs of the best matching items.
+     *
+     * @param query The search text. Only its first {@value #MAX_QUERY_TERMS} terms are used.
+     * @param limit The maximum number of IDs to return.
+     * @return The IDs, best match first. Empty if the query has no terms.
+     */
+    public List<String> search (String query, int limit) {
+        List<String> terms = tokenize( query ).distinct().limit( MAX_QUERY_TERMS ).toList();
+        if ( terms.isEmpty() || limit <= 0 ) return List.of();
+        
+        return segment.search( terms, limit );
+    }
+    
+    public Stats stats () {
+        return segment.stats();
+    }
+    
+    static Stream<String> tokenize (String text) {
+        if ( text == null || text.isBlank() ) return Stream.empty();
+        
+        String folded = MARKS.matcher( Normalizer.normalize( text, Normalizer.Form.NFKD ) ).replaceAll( "" ).toLowerCase( Locale.ROOT );
+        return SEPARATORS.splitAsStream( folded )
+                .filter( token -> token.length() >= MIN_TERM_LENGTH )
+                .map( token -> token.length() > MAX_TERM_LENGTH ? token.substring( 0, MAX_TERM_LENGTH ) : token );
+    }
+    
+    /**
+     * Size of the index, for metrics.
+     *
+     * @param documents     Items currently indexed.
+     * @param deleted       Document numbers of replaced or removed items still referenced by postings.
+     * @param terms         Distinct terms.
+     * @param postingsBytes Bytes used by the packed posting lists.
+     */
+    public record Stats(int documents, int deleted, int terms, long postingsBytes) {
+    }
+    
+    /**
+     * One generation of the index. Writers are serialised by the enclosing index; the lock lets
+     * searches run concurrently with each other but not with a write.
+     */
+    private static final class Segment {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, Integer> documentOf = new HashMap<>();
+        private final TreeMap<String, Postings> postings = new TreeMap<>();
+        private String[] ids = new String[1024];
+        // Term count per document, 0 once deleted
+        private int[] lengths = new int[1024];
+        private int nextDocument;
+        private int liveDocuments;
+        private long totalLength;
+        private long postingsBytes;
+        
+        private void put (TodoItem item) {
+            Map<String, Integer> weights = new HashMap<>();
+            tokenize( item.getTitle() ).forEach( term -> weights.merge( term, TITLE_WEIGHT, Integer::sum ) );
+            tokenize( item.getDescription() ).forEach( term -> weights.merge( term, 1, Integer::sum ) );
+            int length = weights.values().stream().mapToInt( Integer::intValue ).sum();
+            
+            lock.writeLock().lock();
+            try {
+                delete( item.getId() );
+                if ( length == 0 ) return;
+                
+                int document = nextDocument++;
+                if ( document == ids.length ) {
+                    ids = Arrays.copyOf( ids, ids.length * 2 );
+                    lengths = Arrays.copyOf( lengths, lengths.length * 2 );
+                }
+                ids[document] = item.getId();
+                lengths[document] = length;
+                documentOf.put( item.getId(), document );
+                liveDocuments++;
+                totalLength += length;
+                
+                weights.forEach( (term, weight) -> {
+                    Postings list = postings.computeIfAbsent( term, key -> new Postings() );
+                    long before = list.size;
+                    list.add( document, weight );
+                    postingsBytes += list.size - before;
+                } );
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        private void remove (String id) {
+            lock.writeLock().lock();
+            try {
+                delete( id );
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        private void delete (String id) {
+            Integer document = documentOf.remove( id );
+            if ( document == null ) return;
+            
+            totalLength -= lengths[document];
+            lengths[document] = 0;
+            ids[document] = null;
+            liveDocuments--;
+        }
+        
+        private List<String> search (List<String> terms, int limit) {
+            lock.readLock().lock();
+            try {
+                if ( liveDocuments == 0 ) return List.of();
+                
+                double averageLength = (double) totalLength / liveDocuments;
+                int allTerms = ( 1 << terms.size() ) - 1;
+                Map<Integer, Hit> hits = new HashMap<>();
+                
+                for ( int i = 0; i < terms.size(); i++ ) {
+                    int bit = 1 << i;
+                    String prefix = terms.get( i );
+                    int expansions = 0;
+                    for ( Map.Entry<String, Postings> match : postings.subMap( prefix, true, prefix + Character.MAX_VALUE, false ).entrySet() ) {
+                        if ( expansions++ == MAX_PREFIX_EXPANSIONS ) break;
+                        
+                        // A whole-word match ranks above a word that merely starts with the term
+                        double boost = match.getKey().length() == prefix.length() ? 1.0 : 0.6;
+                        score( match.getValue(), boost, averageLength, bit, hits );
+                    }
+                }
+                
+                PriorityQueue<Hit> best = new PriorityQueue<>( Comparator.comparingDouble( Hit::score ).thenComparingInt( Hit::document ) );
+                for ( Hit hit : hits.values() ) {
+                    if ( hit.matched != allTerms ) continue;
+                    
+                    best.add( hit );
+                    if ( best.size() > limit ) best.poll();
+                }
+                
+                String[] ranked = new String[best.size()];
+                for ( int i = ranked.length - 1; i >= 0; i-- ) {
+                    ranked[i] = ids[best.poll().document];
+                }
+                return List.of( ranked );
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        private void score (Postings list, double boost, double averageLength, int bit, Map<Integer, Hit> hits) {
+            double idf = Math.log( 1 + ( liveDocuments - list.documents + 0.5 ) / ( list.documents + 0.5 ) );
+            if ( idf <= 0 ) idf = 0.01;
+            
+            Postings.Reader reader = list.reader();
+            while ( reader.next() ) {
+                int length = lengths[reader.document];
+                if ( length == 0 ) continue;
+                
+                double weight = reader.weight;
+                double score = boost * idf * weight * ( K1 + 1 ) / ( weight + K1 * ( 1 - B + B * length / averageLength ) );
+                Hit hit = hits.computeIfAbsent( reader.document, Hit::new );
+                hit.score += score;
+                hit.matched |= bit;
+            }
+        }
+        
+        private Stats stats () {
+            lock.readLock().lock();
+            try {
+                return new Stats( liveDocuments, nextDocument - liveDocuments, postings.size(), postingsBytes );
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+    
+    private static final class Hit {
+        private final int document;
+        private double score;
+        private int matched;
+        
+        private Hit (int document) {
+            this.document = document;
+        }
+        
+        private int document () {
+            return document;
+        }
+        
+        private double score () {
+            return score;
+        }
+    }
+    
+    /**
+     * A posting list: ascending document numbers stored as gaps, each followed by the term's weight
+     * in that document, all as var-ints.
+     */
+    private static final class Postings {
+        private byte[] data = new byte[4];
+        private int size;
+        private int lastDocument;
+        private int documents;
+        
+        private void add (int document, int weight) {
+            if ( size + 10 > data.length ) data = Arrays.copyOf( data, Math.max( data.length * 2, size + 10 ) );
+            
+            writeVarInt( document - lastDocument );
+            writeVarInt( weight );
+            lastDocument = document;
+            documents++;
+        }
+        
+        private void writeVarInt (int value) {
+            while ( ( value & ~0x7F ) != 0 ) {
+                data[size++] = (byte) ( ( value & 0x7F ) | 0x80 );
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+        
+        private Reader reader () {
+            return new Reader();
+        }
+        
+        private final class Reader {
+            private int position;
+            private int document;
+            private int weight;
+            
+            private boolean next () {
+                if ( position >= size ) return false;
+                
+                document += readVarInt();
+                weight = readVarInt();
+                return true;
+            }
+            
+            private int readVarInt () {
+                int value = 0;
+                for ( int shift = 0; ; shift += 7 ) {
+                    byte b = data[position++];
+                    value |= ( b & 0x7F ) << shift;
+                    if ( b >= 0 ) return value;
+                }
+            }
+        }
+    }
+}
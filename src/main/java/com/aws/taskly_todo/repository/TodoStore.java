@@ -0,0 +1,230 @@
+package com.aws.taskly_todo.repository;
+
+import com.aws.taskly_todo.model.BatchGetResult;
+import com.aws.taskly_todo.model.BatchSaveResult;
+import com.aws.taskly_todo.model.PaginatedResult;
+import com.aws.taskly_todo.model.Status;
+import com.aws.taskly_todo.model.TodoCounters;
+import com.aws.taskly_todo.model.TodoDraft;
+import com.aws.taskly_todo.model.TodoItem;
+import com.aws.taskly_todo.model.TodoSummary;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Storage of to-do items, as used by the services.
+ * <p>
+ * {@link TodoRepository} stores items in DynamoDB and is the default. {@link InMemoryTodoStore} keeps
+ * them in process with the same index orderings and is selected by the {@code inmemory} profile.
+ * Pagination is expressed in DynamoDB terms for both: a page returns an encoded LastEvaluatedKey,
+ * which the caller decodes and passes back as the exclusive start key of the next page.
+ * <p>
+ * Both keep {@link TodoCounters} up to date with every write, including the batch and transactional bulk
+ * writes. The counters are split into shards, and each item is counted in the shard {@link #counterShard}
+ * picks for it, so reconciliation can correct each shard on its own.
+ */
+public interface TodoStore {
+    int BATCH_WRITE_SIZE = 25;
+    int TRANSACT_WRITE_MAX_ITEMS = 100;
+    int BATCH_GET_SIZE = 100;
+    int BATCH_GET_MAX_IDS = 1000;
+    
+    /**
+     * Saves a new to-do item with the given title, description and due date.
+     *
+     * @param title       The title of the to-do item.
+     * @param description The description of the to-do item.
+     * @param dueDate     The due date of the to-do item.
+     * @return The saved to-do item.
+     */
+    TodoItem save (String title, String description, String dueDate);
+    
+    /**
+     * Saves up to {@value #BATCH_WRITE_SIZE} new to-do items in one call.
+     *
+     * @param drafts The items to create, at most {@value #BATCH_WRITE_SIZE}.
+     * @return The created items, the IDs left unprocessed and the capacity consumed.
+     */
+    BatchSaveResult saveBatch (List<TodoDraft> drafts);
+    
+    /**
+     * Returns a page of all to-do items ordered by creation time.
+     *
+     * @param limit             The maximum number of items to return.
+     * @param exclusiveStartKey The key from the previous page, or null/empty for the first page.
+     * @return The page and the key to continue from.
+     */
+    PaginatedResult<TodoSummary> findAll (int limit, Map<String, AttributeValue> exclusiveStartKey);
+    
+    /**
+     * Returns a page of to-do items in any of several statuses, latest due date first.
+     *
+     * @param statuses          The statuses to include, at least one.
+     * @param dueDate           The due date to restrict to, or null for any.
+     * @param limit             The maximum number of items to return.
+     * @param exclusiveStartKey The key from the previous page, or null/empty for the first page.
+     * @return The page and the key to continue from.
+     */
+    PaginatedResult<TodoSummary> findByStatuses (List<String> statuses, String dueDate, int limit,
+                                                Map<String, AttributeValue> exclusiveStartKey);
+    
+    /**
+     * Returns a page of to-do items due within a range, earliest first.
+     *
+     * @param statuses          The statuses to include, or empty for all.
+     * @param from              The first due date, inclusive, or null for no lower bound.
+     * @param to                The last due date, inclusive, or null for no upper bound. At least one end is required.
+     * @param limit             The maximum number of items to return.
+     * @param exclusiveStartKey The key from the previous page, or null/empty for the first page.
+     * @return The page and the key to continue from.
+     */
+    PaginatedResult<TodoSummary> findByDueDateRange (List<String> statuses, String from, String to, int limit,
+                                                    Map<String, AttributeValue> exclusiveStartKey);
+    
+    /**
+     * Retrieves a to-do item by its ID.
+     *
+     * @param id The ID of the to-do item to retrieve.
+     * @return An optional containing the to-do item if found, or empty if not.
+     */
+    Optional<TodoItem> findById (String id);
+    
+    /**
+     * Retrieves up to {@value #BATCH_GET_MAX_IDS} to-do items by their IDs.
+     *
+     * @param ids The IDs of the to-do items to retrieve. Duplicates are looked up once.
+     * @return The items found in request order, the IDs that do not exist and the IDs that could not be read.
+     */
+    BatchGetResult findByIds (List<String> ids);
+    
+    /**
+     * Returns a page of to-do items with the given status, latest due date first.
+     *
+     * @param status            The status to filter by.
+     * @param limit             The maximum number of items to return.
+     * @param exclusiveStartKey The key from the previous page, or null/empty for the first page.
+     * @return The page and the key to continue from.
+     */
+    PaginatedResult<TodoSummary> findByStatus (String status, int limit, Map<String, AttributeValue> exclusiveStartKey);
+    
+    /**
+     * Returns a page of to-do items due on the given date.
+     *
+     * @param dueDate           The due date to filter by.
+     * @param limit             The maximum number of items to return.
+     * @param exclusiveStartKey The key from the previous page, or null/empty for the first page.
+     * @return The page and the key to continue from.
+     */
+    PaginatedResult<TodoSummary> findByDueDate (String dueDate, int limit, Map<String, AttributeValue> exclusiveStartKey);
+    
+    /**
+     * Returns a page of to-do items with the given status that are due on the given date.
+     *
+     * @param status            The status to filter by.
+     * @param dueDate           The due date to filter by.
+     * @param limit             The maximum number of items to return.
+     * @param exclusiveStartKey The key from the previous page, or null/empty for the first page.
+     * @return The page and the key to continue from.
+     */
+    PaginatedResult<TodoSummary> findByStatusAndDueDate (String status, String dueDate, int limit, Map<String, AttributeValue> exclusiveStartKey);
+    
+    /**
+     * Lazily streams every to-do item matching the filters, in the same order as the paginated queries.
+     * The stream must be closed.
+     *
+     * @param status  The status filter, or null.
+     * @param dueDate The due date filter, or null.
+     * @return A lazy stream of matching to-do items.
+     */
+    Stream<TodoItem> streamAll (String status, String dueDate);
+    
+    /**
+     * Deletes a to-do item by its ID.
+     *
+     * @param id              The ID of the to-do item to delete.
+     * @param expectedVersion The {@link TodoItem#version()} the item must still have, or null to delete unconditionally.
+     * @throws ConditionalCheckFailedException If an expected version is given and the item no longer has it.
+     */
+    void deleteById (String id, String expectedVersion);
+    
+    /**
+     * Updates a to-do item. Null fields are left unchanged.
+     *
+     * @param id              The ID of the to-do item to update.
+     * @param title           The new title of the to-do item.
+     * @param description     The new description of the to-do item.
+     * @param status          The new status of the to-do item.
+     * @param dueDate         The new due date of the to-do item.
+     * @param expectedVersion The {@link TodoItem#version()} the item must still have, or null for no condition.
+     * @return The item as stored after the update, or empty if no item has the given ID.
+     * @throws ConditionalCheckFailedException If an expected version is given and the item no longer has it.
+     */
+    Optional<TodoItem> updateTodo (String id, String title, String description, Status status, String dueDate, String expectedVersion);
+    
+    /**
+     * Updates the status of a to-do item identified by the given ID.
+     *
+     * @param id              The ID of the to-do item to update.
+     * @param newStatus       The new status to set for the to-do item.
+     * @param expectedVersion The {@link TodoItem#version()} the item must still have, or null for no condition.
+     * @return The item as stored after the update, or empty if no item has the given ID.
+     * @throws ConditionalCheckFailedException If an expected version is given and the item no longer has it.
+     */
+    Optional<TodoItem> updateStatus (String id, String newStatus, String expectedVersion);
+    
+    /**
+     * Sets the status of an existing to-do item.
+     *
+     * @param id     The ID of the to-do item to update.
+     * @param status The new status.
+     * @return true if the item was updated, false if it does not exist.
+     */
+    boolean updateStatusIfExists (String id, Status status);
+    
+    /**
+     * Sets the status of up to {@value #TRANSACT_WRITE_MAX_ITEMS} existing to-do items, all or nothing.
+     *
+     * @param ids    The IDs of the to-do items to update.
+     * @param status The new status.
+     * @return The IDs that do not exist. If any are returned, nothing was written.
+     */
+    Set<String> transactUpdateStatus (List<String> ids, Status status);
+    
+    /**
+     * Reads the aggregate counters, summed over their shards.
+     *
+     * @return The counters as currently stored.
+     */
+    default TodoCounters readCounters () {
+        return readCounterShards().stream().reduce( TodoCounters.EMPTY, TodoCounters::plus );
+    }
+    
+    /**
+     * Reads the counters of each shard.
+     *
+     * @return The counters as currently stored, in shard order.
+     */
+    List<TodoCounters> readCounterShards ();
+    
+    /**
+     * Returns the counter shard an item is counted in.
+     *
+     * @param id The ID of the to-do item.
+     * @return The shard, an index into {@link #readCounterShards}.
+     */
+    int counterShard (String id);
+    
+    /**
+     * Adds a signed delta to the counters of one shard.
+     *
+     * @param shard The shard to add to.
+     * @param delta The amounts to add.
+     */
+    void addCounters (int shard, TodoCounters delta);
+}
@@ -0,0 +1,134 @@
+package com.aws.taskly_todo.service;
+
+import com.aws.taskly_todo.model.TodoFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Signed cursors of the list page.
+ * <p>
+ * A token is the encoded start key of its page followed by an HMAC of that key and of the filter it was
+ * issued for, keyed with {@code taskly.cursors.secret}. Any instance sharing the secret can resolve it, it
+ * survives restarts, and it cannot be altered or replayed under another filter: such a token is rejected
+ * instead of leading back to the first page. The same page of the same filter always gets the same token.
+ * <p>
+ * Only the way back is kept in process: each token remembers the token of the page before it, in a bounded
+ * cache with idle expiry. Once that entry is gone, for instance on another instance, Previous leads to the
+ * first page while Next keeps working.
+ */
+@Slf4j
+@Component
+public class CursorStore {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SECRET_BYTES = 32;
+    // Truncated HMAC, as in RFC 2104 section 5; 128 bits are plenty against forging a cursor
+    private static final int SIGNATURE_BYTES = 16;
+    private static final char SEPARATOR = '.';
+    
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+    private final Cache<String, String> previousTokens;
+    
+    public CursorStore (
+            @Value( "${taskly.cursors.secret:}" ) String secret,
+            @Value( "${taskly.cursors.max-size:10000}" ) long maxSize,
+            @Value( "${taskly.cursors.ttl:30m}" ) Duration ttl,
+            MeterRegistry meterRegistry
+    ) {
+        this.key = new SecretKeySpec( secret.isBlank() ? randomSecret() : secret.getBytes( StandardCharsets.UTF_8 ), ALGORITHM );
+        this.macs = ThreadLocal.withInitial( this::newMac );
+        this.previousTokens = Caffeine.newBuilder()
+                .maximumSize( maxSize )
+                .expireAfterAccess( ttl )
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor( meterRegistry, previousTokens, "todoCursors" );
+    }
+    
+    /**
+     * Signs the cursor of a page and remembers the page before it.
+     *
+     * @param filter   The filter the page was listed with.
+     * @param lastKey  The encoded start key of the page.
+     * @param previous The token of the page before it, or null if that is the first page.
+     * @return The token identifying the page.
+     */
+    public String issue (TodoFilter filter, String lastKey, String previous) {
+        String token = lastKey + SEPARATOR + Base64.getUrlEncoder().withoutPadding().encodeToString( sign( filter, lastKey ) );
+        if ( previous != null ) previousTokens.put( token, previous );
+        return token;
+    }
+    
+    /**
+     * Verifies a token and returns the cursor behind it.
+     *
+     * @param filter The filter of the request, which must be the one the token was issued for.
+     * @param token  The token, or null for the first page.
+     * @return The cursor, or empty for the first page.
+     * @throws IllegalArgumentException If the token was not issued for this filter or has been altered.
+     */
+    public Optional<Cursor> resolve (TodoFilter filter, String token) {
+        if ( token == null || token.isBlank() ) return Optional.empty();
+        
+        int separator = token.lastIndexOf( SEPARATOR );
+        if ( separator <= 0 ) throw new IllegalArgumentException( "Malformed cursor" );
+        
+        String lastKey = token.substring( 0, separator );
+        byte[] signature;
+        try {
+            signature = Base64.getUrlDecoder().decode( token.substring( separator + 1 ) );
+        } catch ( IllegalArgumentException e ) {
+            throw new IllegalArgumentException( "Malformed cursor" );
+        }
+        if ( !MessageDigest.isEqual( sign( filter, lastKey ), signature ) )
+            throw new IllegalArgumentException( "Cursor not issued for this filter" );
+        
+        return Optional.of( new Cursor( lastKey, previousTokens.getIfPresent( token ) ) );
+    }
+    
+    private byte[] sign (TodoFilter filter, String lastKey) {
+        String signed = String.join( "\n", String.join( ",", filter.statuses() ), String.valueOf( filter.dueDate() ),
+                String.valueOf( filter.dueFrom() ), String.valueOf( filter.dueTo() ), String.valueOf( filter.overdue() ), lastKey );
+        return Arrays.copyOf( macs.get().doFinal( signed.getBytes( StandardCharsets.UTF_8 ) ), SIGNATURE_BYTES );
+    }
+    
+    private Mac newMac () {
+        try {
+            Mac mac = Mac.getInstance( ALGORITHM );
+            mac.init( key );
+            return mac;
+        } catch ( GeneralSecurityException e ) {
+            throw new IllegalStateException( e );
+        }
+    }
+    
+    private static byte[] randomSecret () {
+        log.warn( "taskly.cursors.secret is not set: list page cursors only work on this instance until it restarts" );
+        byte[] secret = new byte[ SECRET_BYTES ];
+        new SecureRandom().nextBytes( secret );
+        return secret;
+    }
+    
+    /**
+     * @param lastKey  The encoded start key of the page.
+     * @param previous The token of the previous page, or null if it is the first page or no longer known.
+     */
+    public record Cursor(String lastKey, String previous) {
+    }
+}
@@ -0,0 +1,168 @@
+package com.aws.taskly_todo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical reads into one call. The first caller for a key makes the call; callers
+ * arriving while it is in flight wait for its result, or its failure, instead of making their own.
+ * <p>
+ * A key is only shared while its call is in flight, so nothing is cached and a read started after a write
+ * never sees an older result, as long as the key changes with every write. A waiter gives up on the shared
+ * call after {@code taskly.single-flight.max-wait} and makes its own, so one slow call cannot hold up
+ * every reader of a key for longer than that.
+ * <p>
+ * Published as {@code taskly.singleflight.calls}, tagged with the read and the caller's role: {@code leader}
+ * (made the call), {@code follower} (shared one) or {@code timed-out} (shared one, then made its own).
+ */
+@Component
+public class SingleFlight {
+    private final Map<FlightKey, CompletableFuture<?>> flights = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final long maxWaitNanos;
+    private final MeterRegistry meterRegistry;
+    
+    public SingleFlight (@Value( "${taskly.single-flight.max-wait:1s}" ) Duration maxWait, MeterRegistry meterRegistry) {
+        this.maxWaitNanos = maxWait.toNanos();
+        this.meterRegistry = meterRegistry;
+        Gauge.builder( "taskly.singleflight.active", flights, Map::size )
+                .description( "Reads currently shared by concurrent callers" )
+                .register( meterRegistry );
+    }
+    
+    /**
+     * Makes a blocking read, or waits for an identical one in flight.
+     *
+     * @param read The kind of read, for metrics.
+     * @param key  Identifies identical reads; must have value semantics.
+     * @param call Makes the read.
+     * @return The result of the shared or own call.
+     */
+    public <T> T get (String read, Object key, Supplier<T> call) {
+        return get( read, key, call, call );
+    }
+    
+    /**
+     * Makes a blocking read, or waits for an identical one in flight, with a different read for a waiter
+     * that gives up. Used where the shared read waits on something the waiter must not wait on again,
+     * such as a cache that merges loads itself.
+     *
+     * @param read    The kind of read, for metrics.
+     * @param key     Identifies identical reads; must have value semantics.
+     * @param call    Makes the read.
+     * @param ownCall Makes the read for a waiter that gave up on the shared call.
+     * @return The result of the shared or own call.
+     */
+    @SuppressWarnings( "unchecked" )
+    public <T> T get (String read, Object key, Supplier<T> call, Supplier<T> ownCall) {
+        FlightKey flightKey = new FlightKey( read, key );
+        CompletableFuture<T> started = new CompletableFuture<>();
+        CompletableFuture<T> inFlight = (CompletableFuture<T>) flights.putIfAbsent( flightKey, started );
+        
+        if ( inFlight == null ) {
+            count( read, "leader" );
+            try {
+                T result = call.get();
+                started.complete( result );
+                return result;
+            } catch ( RuntimeException | Error e ) {
+                started.completeExceptionally( e );
+                throw e;
+            } finally {
+                flights.remove( flightKey, started );
+            }
+        }
+        
+        count( read, "follower" );
+        try {
+            return inFlight.get( maxWaitNanos, TimeUnit.NANOSECONDS );
+        } catch ( TimeoutException e ) {
+            count( read, "timed-out" );
+            return ownCall.get();
+        } catch ( ExecutionException e ) {
+            if ( e.getCause() instanceof RuntimeException cause ) throw cause;
+            throw new RuntimeException( e.getCause() );
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( "Interrupted while waiting for a shared read" );
+        }
+    }
+    
+    /**
+     * Asynchronous variant of {@link #get}.
+     *
+     * @param read The kind of read, for metrics.
+     * @param key  Identifies identical reads; must have value semantics.
+     * @param call Starts the read.
+     * @return A future completing with the result of the shared or own call.
+     */
+    public <T> CompletableFuture<T> getAsync (String read, Object key, Supplier<CompletableFuture<T>> call) {
+        return getAsync( read, key, call, call );
+    }
+    
+    /**
+     * Asynchronous variant of {@link #get(String, Object, Supplier, Supplier)}.
+     *
+     * @param read    The kind of read, for metrics.
+     * @param key     Identifies identical reads; must have value semantics.
+     * @param call    Starts the read.
+     * @param ownCall Starts the read for a waiter that gave up on the shared call.
+     * @return A future completing with the result of the shared or own call.
+     */
+    @SuppressWarnings( "unchecked" )
+    public <T> CompletableFuture<T> getAsync (String read, Object key, Supplier<CompletableFuture<T>> call,
+                                              Supplier<CompletableFuture<T>> ownCall) {
+        FlightKey flightKey = new FlightKey( read, key );
+        CompletableFuture<T> started = new CompletableFuture<>();
+        CompletableFuture<T> inFlight = (CompletableFuture<T>) flights.putIfAbsent( flightKey, started );
+        
+        if ( inFlight == null ) {
+            count( read, "leader" );
+            try {
+                call.get().whenComplete( (result, e) -> {
+                    flights.remove( flightKey, started );
+                    if ( e != null ) started.completeExceptionally( e );
+                    else started.complete( result );
+                } );
+            } catch ( RuntimeException e ) {
+                flights.remove( flightKey, started );
+                started.completeExceptionally( e );
+            }
+            return started;
+        }
+        
+        count( read, "follower" );
+        // A copy, so the timeout of this waiter does not fail the shared call for the others
+        return inFlight.copy()
+                .orTimeout( maxWaitNanos, TimeUnit.NANOSECONDS )
+                .exceptionallyCompose( e -> {
+                    if ( !( e instanceof TimeoutException ) ) return CompletableFuture.failedFuture( e );
+                    
+                    count( read, "timed-out" );
+                    return ownCall.get();
+                } );
+    }
+    
+    private void count (String read, String role) {
+        counters.computeIfAbsent( read + ':' + role, name -> Counter.builder( "taskly.singleflight.calls" )
+                .description( "Reads by whether they made a call or shared one in flight" )
+                .tag( "read", read )
+                .tag( "role", role )
+                .register( meterRegistry ) ).increment();
+    }
+    
+    private record FlightKey(String read, Object key) {
+    }
+}
@@ -0,0 +1,240 @@
+package com.aws.taskly_todo.service;
+
+import com.aws.taskly_todo.model.Status;
+import com.aws.taskly_todo.model.TodoItem;
+import com.aws.taskly_todo.repository.TodoStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Write-behind buffer for status changes. Enabled with {@code taskly.status-buffer.enabled=true}.
+ * <p>
+ * A status change is held for {@code taskly.status-buffer.window} before it is written, and a newer
+ * change of the same item replaces it, so clicking an item through PENDING, ONGOING and COMPLETED
+ * costs one write instead of three. Due changes are flushed in batches of {@code taskly.status-buffer.batch-size},
+ * with at most {@code taskly.status-buffer.max-parallel} writes in flight. A change is only dropped from the
+ * buffer once it has been written; a failed write is retried at the next flush.
+ * <p>
+ * At most {@code taskly.status-buffer.max-pending} items are buffered. Once full, a change of an item not
+ * yet buffered is written straight through by the caller, which slows bursts down to the store's pace.
+ * On shutdown, everything still buffered is written before the store goes away.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty( name = "taskly.status-buffer.enabled", havingValue = "true" )
+public class StatusWriteBuffer {
+    private final TodoStore todoStore;
+    private final TodoPageCache todoPageCache;
+    private final ExecutorService dynamoDbTaskExecutor;
+    private final long windowNanos;
+    private final int maxPending;
+    private final int batchSize;
+    private final int maxParallel;
+    private final Duration shutdownTimeout;
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    // Flush writes that have started, by item ID, so a discard can wait for them
+    private final Map<String, CompletableFuture<Void>> writing = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+    private final Counter written;
+    private final Counter writtenThrough;
+    private final Counter failed;
+    
+    public StatusWriteBuffer (
+            TodoStore todoStore,
+            TodoPageCache todoPageCache,
+            @Qualifier( "dynamoDbTaskExecutor" ) ExecutorService dynamoDbTaskExecutor,
+            @Value( "${taskly.status-buffer.window:2s}" ) Duration window,
+            @Value( "${taskly.status-buffer.max-pending:10000}" ) int maxPending,
+            @Value( "${taskly.status-buffer.batch-size:25}" ) int batchSize,
+            @Value( "${taskly.status-buffer.max-parallel:8}" ) int maxParallel,
+            @Value( "${taskly.status-buffer.shutdown-timeout:20s}" ) Duration shutdownTimeout,
+            MeterRegistry meterRegistry
+    ) {
+        this.todoStore = todoStore;
+        this.todoPageCache = todoPageCache;
+        this.dynamoDbTaskExecutor = dynamoDbTaskExecutor;
+        this.windowNanos = window.toNanos();
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+        this.maxParallel = maxParallel;
+        this.shutdownTimeout = shutdownTimeout;
+        this.coalesced = writes( meterRegistry, "coalesced" );
+        this.written = writes( meterRegistry, "written" );
+        this.writtenThrough = writes( meterRegistry, "written-through" );
+        this.failed = writes( meterRegistry, "failed" );
+        Gauge.builder( "taskly.status.buffer.pending", pending, Map::size )
+                .description( "Status changes waiting to be written" )
+                .register( meterRegistry );
+    }
+    
+    /**
+     * Buffers a status change.
+     *
+     * @param current The item as currently seen, including any change still buffered.
+     * @param status  The new status.
+     * @return The item with the new status, as it will be written.
+     */
+    public TodoItem submit (TodoItem current, Status status) {
+        String changedAt = LocalDateTime.now().toString();
+        TodoItem changed = withStatus( current, status, changedAt );
+        Pending next = new Pending( status, changedAt, System.nanoTime() );
+        
+        Pending previous = pending.computeIfPresent( current.getId(), (id, queued) -> new Pending( status, changedAt, queued.queuedAtNanos() ) );
+        if ( previous != null ) {
+            coalesced.increment();
+            return changed;
+        }
+        if ( pending.size() >= maxPending ) {
+            writtenThrough.increment();
+            return todoStore.updateStatus( current.getId(), status.name(), null )
+                    .orElseThrow( () -> new RuntimeException( "Todo item not found" ) );
+        }
+        if ( pending.putIfAbsent( current.getId(), next ) != null ) return submit( current, status );
+        return changed;
+    }
+    
+    /**
+     * Applies a buffered status change to an item read from the store. The item is stamped with the time the
+     * change was submitted, so every read of it until the flush has the same version, and the same ETag.
+     *
+     * @param item The item as stored.
+     * @return The item as it will be once the buffer is flushed.
+     */
+    public TodoItem overlay (TodoItem item) {
+        Pending change = pending.get( item.getId() );
+        return change == null ? item : withStatus( item, change.status(), change.changedAt() );
+    }
+    
+    /**
+     * Drops a buffered change, because the item was deleted or its status was set by another write.
+     * If a flush is writing the change right now, waits for that write to land, so the caller's own
+     * write comes after it and is not overwritten by the older status.
+     *
+     * @param id The ID of the item.
+     */
+    public void discard (String id) {
+        pending.remove( id );
+        CompletableFuture<Void> inFlight = writing.get( id );
+        if ( inFlight != null ) inFlight.join();
+    }
+    
+    /**
+     * Writes the changes that have been buffered for at least the window.
+     */
+    @Scheduled( fixedDelayString = "${taskly.status-buffer.flush-interval:500ms}" )
+    public void flushDue () {
+        flush( false );
+    }
+    
+    /**
+     * Writes every buffered change before the store shuts down.
+     */
+    @PreDestroy
+    public void flushAll () {
+        CompletableFuture<Integer> flushed = CompletableFuture.supplyAsync( () -> flush( true ) );
+        try {
+            log.info( "Status buffer flushed on shutdown: {} changes written", flushed.get( shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS ) );
+        } catch ( TimeoutException e ) {
+            log.error( "Status buffer not flushed within {}", shutdownTimeout );
+        } catch ( Exception e ) {
+            log.error( "Status buffer flush failed on shutdown", e );
+        }
+        if ( !pending.isEmpty() ) log.error( "{} buffered status changes could not be written", pending.size() );
+    }
+    
+    /**
+     * Writes the changes buffered for at least the window, or all of them, in batches. Flushes never overlap,
+     * so an item's changes are written in order.
+     *
+     * @return The number of changes written.
+     */
+    private synchronized int flush (boolean all) {
+        long queuedBefore = System.nanoTime() - windowNanos;
+        List<Map.Entry<String, Pending>> due = new ArrayList<>();
+        pending.forEach( (id, change) -> {
+            if ( all || change.queuedAtNanos() - queuedBefore <= 0 ) due.add( Map.entry( id, change ) );
+        } );
+        
+        int flushed = 0;
+        for ( int start = 0; start < due.size(); start += batchSize ) {
+            flushed += writeBatch( due.subList( start, Math.min( start + batchSize, due.size() ) ) );
+        }
+        if ( flushed > 0 ) todoPageCache.invalidate();
+        return flushed;
+    }
+    
+    private int writeBatch (List<Map.Entry<String, Pending>> batch) {
+        Semaphore inFlight = new Semaphore( maxParallel );
+        List<CompletableFuture<Boolean>> writes = new ArrayList<>( batch.size() );
+        
+        for ( Map.Entry<String, Pending> change : batch ) {
+            inFlight.acquireUninterruptibly();
+            writes.add( CompletableFuture.supplyAsync( () -> write( change.getKey(), change.getValue() ), dynamoDbTaskExecutor )
+                    .whenComplete( (result, e) -> inFlight.release() ) );
+        }
+        
+        return (int) writes.stream().filter( CompletableFuture::join ).count();
+    }
+    
+    private boolean write (String id, Pending change) {
+        // Claimed under the item's map entry: a discard either comes first and the change is not
+        // written, or comes after and finds the write to wait for
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Pending claimed = pending.computeIfPresent( id, (key, current) -> {
+            if ( current.equals( change ) ) writing.put( id, done );
+            return current;
+        } );
+        // Discarded, or replaced by a newer change that the next flush writes
+        if ( !change.equals( claimed ) ) return false;
+        
+        try {
+            todoStore.updateStatus( id, change.status().name(), null );
+            // A newer change that arrived meanwhile stays buffered
+            pending.remove( id, change );
+            written.increment();
+            return true;
+        } catch ( Exception e ) {
+            failed.increment();
+            log.warn( "Buffered status change of {} to {} failed, retrying at the next flush", id, change.status(), e );
+            return false;
+        } finally {
+            writing.remove( id, done );
+            done.complete( null );
+        }
+    }
+    
+    private static TodoItem withStatus (TodoItem item, Status status, String changedAt) {
+        return new TodoItem( item.getId(), item.getTitle(), item.getDescription(), item.getDueDate(),
+                status.name(), item.getCreatedAt(), changedAt, item.getSortKey() );
+    }
+    
+    private static Counter writes (MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder( "taskly.status.buffer.changes" )
+                .description( "Status changes handled by the write-behind buffer" )
+                .tag( "outcome", outcome )
+                .register( meterRegistry );
+    }
+    
+    private record Pending(Status status, String changedAt, long queuedAtNanos) {
+    }
+}
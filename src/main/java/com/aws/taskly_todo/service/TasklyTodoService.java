@@ -1,90 +1,330 @@
 package com.aws.taskly_todo.service;
 
+import com.aws.taskly_todo.model.BatchGetResult;
 import com.aws.taskly_todo.model.PaginatedResult;
 import com.aws.taskly_todo.model.Status;
+import com.aws.taskly_todo.model.TodoFilter;
 import com.aws.taskly_todo.model.TodoItem;
-import com.aws.taskly_todo.repository.TodoRepository;
+import com.aws.taskly_todo.model.TodoSummary;
+import com.aws.taskly_todo.repository.AsyncTodoRepository;
+import com.aws.taskly_todo.repository.DueMonthBuckets;
+import com.aws.taskly_todo.repository.TodoStore;
+import com.aws.taskly_todo.utils.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 
-import java.util.Base64;
-import java.util.Collections;
-import java.util.HashMap;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 public class TasklyTodoService {
-    private final TodoRepository todoRepository;
+    private final TodoStore todoStore;
+    private final TodoPageCache todoPageCache;
+    private final Optional<AsyncTodoRepository> asyncTodoRepository;
+    private final Optional<StatusWriteBuffer> statusWriteBuffer;
+    private final SingleFlight singleFlight;
+    private final DueMonthBuckets dueMonthBuckets;
     
-    public PaginatedResult<TodoItem> getTodos (String status, String dueDate, int limit, String lastKeyEncoded) {
-        Map<String, AttributeValue> exclusiveStartKey = decodeLastKey( lastKeyEncoded );
+    /**
+     * Lists a page of to-do items.
+     *
+     * @throws IllegalArgumentException If the filter is a range over all statuses that the month buckets cannot cover.
+     */
+    public PaginatedResult<TodoSummary> getTodos (TodoFilter filter, int limit, String lastKeyEncoded) {
+        checkRange( filter );
         int pageSize = ( limit <= 0 ) ? 10 : limit;
+        Supplier<PaginatedResult<TodoSummary>> query = () -> queryTodos( filter, pageSize, lastKeyEncoded );
+        // Shared around the cache lookup, so concurrent readers of a page loading wait here, not in the cache;
+        // one that gives up queries on its own rather than waiting for the cached load again
+        return singleFlight.get( "page", new PageRead( todoPageCache.generation(), filter, pageSize, lastKeyEncoded ),
+                () -> todoPageCache.get( filter, pageSize, lastKeyEncoded, query ), query );
+    }
+    
+    private PaginatedResult<TodoSummary> queryTodos (TodoFilter filter, int pageSize, String lastKeyEncoded) {
+        Map<String, AttributeValue> exclusiveStartKey = CursorCodec.decode( lastKeyEncoded );
+        String status = filter.statuses().isEmpty() ? null : filter.statuses().get( 0 );
+        String dueDate = filter.dueDate();
         
-        if ( status != null && !status.isBlank() && dueDate != null && !dueDate.isBlank() ) {
-            return todoRepository.findByStatusAndDueDate( status, dueDate, pageSize, exclusiveStartKey );
+        if ( filter.isRange() ) {
+            String dueTo = filter.rangeTo( LocalDate.now() );
+            if ( matchesNothing( filter, dueTo ) ) return new PaginatedResult<>( List.of(), null );
+            
+            return todoStore.findByDueDateRange( filter.rangeStatuses(), filter.dueFrom(), dueTo, pageSize, exclusiveStartKey );
+        } else if ( filter.statuses().size() > 1 ) {
+            return todoStore.findByStatuses( filter.statuses(), dueDate, pageSize, exclusiveStartKey );
+        } else if ( status != null && !status.isBlank() && dueDate != null && !dueDate.isBlank() ) {
+            return todoStore.findByStatusAndDueDate( status, dueDate, pageSize, exclusiveStartKey );
         } else if ( status != null && !status.isBlank() && ( dueDate == null || dueDate.isBlank() ) ) {
-            return todoRepository.findByStatus( status, pageSize, exclusiveStartKey );
+            return todoStore.findByStatus( status, pageSize, exclusiveStartKey );
         } else if ( dueDate != null && !dueDate.isBlank() ) {
-            return todoRepository.findByDueDate( dueDate, pageSize, exclusiveStartKey );
+            return todoStore.findByDueDate( dueDate, pageSize, exclusiveStartKey );
         } else {
-            return todoRepository.findAll( pageSize, exclusiveStartKey );
+            return todoStore.findAll( pageSize, exclusiveStartKey );
         }
     }
     
     public TodoItem getTodoItem (String id) {
-        return todoRepository.findById( id ).orElseThrow( () -> new RuntimeException( "Todo item not found" ) );
+        return findTodoItem( id ).map( this::withPendingStatus ).orElseThrow( () -> new RuntimeException( "Todo item not found" ) );
     }
     
-    public void createTodo (String title, String description, String dueDate) {
+    public TodoItem createTodo (String title, String description, String dueDate) {
         try {
-            todoRepository.save( title, description, dueDate );
+            TodoItem created = todoStore.save( title, description, dueDate );
+            todoPageCache.invalidate();
+            return created;
         } catch ( Exception e ) {
             throw new RuntimeException( "Failed to create todo item" );
         }
     }
     
     public void deleteTodo (String id) {
+        deleteTodo( id, null );
+    }
+    
+    /**
+     * Deletes a to-do item if it is still at the expected version.
+     *
+     * @throws ConditionalCheckFailedException If an expected version is given and the item is not at it.
+     */
+    public void deleteTodo (String id, String expectedVersion) {
         try {
-            todoRepository.deleteById( id );
+            statusWriteBuffer.ifPresent( buffer -> buffer.discard( id ) );
+            todoStore.deleteById( id, expectedVersion );
+            todoPageCache.invalidate();
+        } catch ( ConditionalCheckFailedException e ) {
+            throw e;
         } catch ( Exception e ) {
             throw new RuntimeException( "Failed to delete todo item" );
         }
     }
     
-    public void updateTodo (String id, String title, String description, String dueDate, Status status) {
+    public TodoItem updateTodo (String id, String title, String description, String dueDate, Status status) {
+        return updateTodo( id, title, description, dueDate, status, null );
+    }
+    
+    /**
+     * Updates a to-do item if it is still at the expected version.
+     *
+     * @throws ConditionalCheckFailedException If an expected version is given and the item is not at it.
+     */
+    public TodoItem updateTodo (String id, String title, String description, String dueDate, Status status, String expectedVersion) {
+        Optional<TodoItem> updated;
         try {
-            todoRepository.updateTodo( id, title, description, status, dueDate );
+            if ( status != null ) statusWriteBuffer.ifPresent( buffer -> buffer.discard( id ) );
+            updated = todoStore.updateTodo( id, title, description, status, dueDate, expectedVersion );
+            todoPageCache.invalidate();
+        } catch ( ConditionalCheckFailedException e ) {
+            throw e;
         } catch ( Exception e ) {
             throw new RuntimeException( "Failed to update todo item" );
         }
+        return updated.map( this::withPendingStatus ).orElseThrow( () -> new RuntimeException( "Todo item not found" ) );
+    }
+    
+    public TodoItem updateStatus (String id, String status) {
+        return updateStatus( id, status, null );
     }
     
-    public void updateStatus (String id, String status) {
+    /**
+     * Updates the status of a to-do item if it is still at the expected version. A conditional change is
+     * written through: it replaces any buffered change, since the buffer cannot hold a condition.
+     *
+     * @throws ConditionalCheckFailedException If an expected version is given and the item is not at it.
+     */
+    public TodoItem updateStatus (String id, String status, String expectedVersion) {
+        if ( statusWriteBuffer.isPresent() ) {
+            if ( expectedVersion == null ) return statusWriteBuffer.get().submit( getTodoItem( id ), Status.valueOf( status ) );
+            statusWriteBuffer.get().discard( id );
+        }
+        
+        Optional<TodoItem> updated;
         try {
-            todoRepository.updateStatus( id, status );
+            updated = todoStore.updateStatus( id, status, expectedVersion );
+            todoPageCache.invalidate();
+        } catch ( ConditionalCheckFailedException e ) {
+            throw e;
         } catch ( Exception e ) {
             throw new RuntimeException( "Failed to update status" );
         }
+        return updated.orElseThrow( () -> new RuntimeException( "Todo item not found" ) );
     }
     
-    private Map<String, AttributeValue> decodeLastKey (String encodedKey) {
-        if ( encodedKey == null || encodedKey.isEmpty() ) return Collections.emptyMap();
+    // Async variants used by the controller. With the "async" profile they run on AsyncTodoRepository;
+    // otherwise they delegate to the synchronous methods above and return completed futures.
+    
+    public CompletableFuture<PaginatedResult<TodoSummary>> getTodosAsync (TodoFilter filter, int limit, String lastKeyEncoded) {
+        if ( asyncTodoRepository.isEmpty() ) return CompletableFuture.completedFuture( getTodos( filter, limit, lastKeyEncoded ) );
         
-        try {
-            byte[] bytes = Base64.getDecoder().decode( encodedKey );
-            String keyString = new String( bytes );
-            Map<String, AttributeValue> keyMap = new HashMap<>();
-            
-            for ( String entry : keyString.split( "," ) ) {
-                String[] kv = entry.split( "=" );
-                keyMap.put( kv[ 0 ], AttributeValue.builder().s( kv[ 1 ] ).build() );
-            }
+        checkRange( filter );
+        int pageSize = ( limit <= 0 ) ? 10 : limit;
+        Supplier<CompletableFuture<PaginatedResult<TodoSummary>>> query = () -> queryTodosAsync( asyncTodoRepository.get(), filter, pageSize, lastKeyEncoded );
+        return singleFlight.getAsync( "page", new PageRead( todoPageCache.generation(), filter, pageSize, lastKeyEncoded ),
+                () -> todoPageCache.getAsync( filter, pageSize, lastKeyEncoded, query ), query );
+    }
+    
+    public CompletableFuture<TodoItem> getTodoItemAsync (String id) {
+        return findTodoItemAsync( id )
+                .thenApply( todoItem -> todoItem.orElseThrow( () -> new RuntimeException( "Todo item not found" ) ) );
+    }
+    
+    public CompletableFuture<Optional<TodoItem>> findTodoItemAsync (String id) {
+        return findStoredTodoItemAsync( id ).thenApply( todoItem -> todoItem.map( this::withPendingStatus ) );
+    }
+    
+    /**
+     * Reads a to-do item together with its stored version, which a conditional write expects. The item
+     * includes any buffered status change; the version does not, as the change has not been written yet.
+     */
+    public CompletableFuture<Optional<Versioned>> findVersionedTodoItemAsync (String id) {
+        return findStoredTodoItemAsync( id )
+                .thenApply( todoItem -> todoItem.map( stored -> new Versioned( withPendingStatus( stored ), stored.version() ) ) );
+    }
+    
+    public CompletableFuture<BatchGetResult> getTodoItemsAsync (List<String> ids) {
+        CompletableFuture<BatchGetResult> result = asyncTodoRepository.isEmpty()
+                ? CompletableFuture.completedFuture( todoStore.findByIds( ids ) )
+                : asyncTodoRepository.get().findByIds( ids );
+        
+        return result.thenApply( found -> new BatchGetResult(
+                found.items().stream().map( this::withPendingStatus ).toList(), found.missingIds(), found.unprocessedIds() ) );
+    }
+    
+    public CompletableFuture<TodoItem> createTodoAsync (String title, String description, String dueDate) {
+        if ( asyncTodoRepository.isEmpty() ) return CompletableFuture.completedFuture( createTodo( title, description, dueDate ) );
+        
+        return orFail( asyncTodoRepository.get().save( title, description, dueDate )
+                .thenApply( this::invalidatePages ), "Failed to create todo item" );
+    }
+    
+    public CompletableFuture<Void> deleteTodoAsync (String id) {
+        return deleteTodoAsync( id, null );
+    }
+    
+    public CompletableFuture<Void> deleteTodoAsync (String id, String expectedVersion) {
+        if ( asyncTodoRepository.isEmpty() ) {
+            deleteTodo( id, expectedVersion );
+            return CompletableFuture.completedFuture( null );
+        }
+        
+        statusWriteBuffer.ifPresent( buffer -> buffer.discard( id ) );
+        return orFail( asyncTodoRepository.get().deleteById( id, expectedVersion )
+                .thenRun( todoPageCache::invalidate ), "Failed to delete todo item" );
+    }
+    
+    public CompletableFuture<TodoItem> updateTodoAsync (String id, String title, String description, String dueDate, Status status) {
+        return updateTodoAsync( id, title, description, dueDate, status, null );
+    }
+    
+    public CompletableFuture<TodoItem> updateTodoAsync (String id, String title, String description, String dueDate, Status status,
+                                                        String expectedVersion) {
+        if ( asyncTodoRepository.isEmpty() )
+            return CompletableFuture.completedFuture( updateTodo( id, title, description, dueDate, status, expectedVersion ) );
+        
+        if ( status != null ) statusWriteBuffer.ifPresent( buffer -> buffer.discard( id ) );
+        return orFail( asyncTodoRepository.get().updateTodo( id, title, description, status, dueDate, expectedVersion )
+                .thenApply( this::invalidatePages ), "Failed to update todo item" )
+                .thenApply( updated -> updated.map( this::withPendingStatus ).orElseThrow( () -> new RuntimeException( "Todo item not found" ) ) );
+    }
+    
+    public CompletableFuture<TodoItem> updateStatusAsync (String id, String status) {
+        return updateStatusAsync( id, status, null );
+    }
+    
+    public CompletableFuture<TodoItem> updateStatusAsync (String id, String status, String expectedVersion) {
+        if ( asyncTodoRepository.isEmpty() || ( statusWriteBuffer.isPresent() && expectedVersion == null ) )
+            return CompletableFuture.completedFuture( updateStatus( id, status, expectedVersion ) );
+        
+        statusWriteBuffer.ifPresent( buffer -> buffer.discard( id ) );
+        return orFail( asyncTodoRepository.get().updateStatus( id, status, expectedVersion )
+                .thenApply( this::invalidatePages ), "Failed to update status" )
+                .thenApply( updated -> updated.orElseThrow( () -> new RuntimeException( "Todo item not found" ) ) );
+    }
+    
+    private CompletableFuture<PaginatedResult<TodoSummary>> queryTodosAsync (AsyncTodoRepository repository, TodoFilter filter,
+                                                                          int pageSize, String lastKeyEncoded) {
+        Map<String, AttributeValue> exclusiveStartKey = CursorCodec.decode( lastKeyEncoded );
+        String status = filter.statuses().isEmpty() ? null : filter.statuses().get( 0 );
+        String dueDate = filter.dueDate();
+        
+        if ( filter.isRange() ) {
+            String dueTo = filter.rangeTo( LocalDate.now() );
+            if ( matchesNothing( filter, dueTo ) ) return CompletableFuture.completedFuture( new PaginatedResult<>( List.of(), null ) );
             
-            return keyMap;
-        } catch ( Exception e ) {
-            return Collections.emptyMap();
+            return repository.findByDueDateRange( filter.rangeStatuses(), filter.dueFrom(), dueTo, pageSize, exclusiveStartKey );
+        } else if ( filter.statuses().size() > 1 ) {
+            return repository.findByStatuses( filter.statuses(), dueDate, pageSize, exclusiveStartKey );
+        } else if ( status != null && !status.isBlank() && dueDate != null && !dueDate.isBlank() ) {
+            return repository.findByStatusAndDueDate( status, dueDate, pageSize, exclusiveStartKey );
+        } else if ( status != null && !status.isBlank() ) {
+            return repository.findByStatus( status, pageSize, exclusiveStartKey );
+        } else if ( dueDate != null && !dueDate.isBlank() ) {
+            return repository.findByDueDate( dueDate, pageSize, exclusiveStartKey );
+        } else {
+            return repository.findAll( pageSize, exclusiveStartKey );
         }
     }
+    
+    private CompletableFuture<Optional<TodoItem>> findStoredTodoItemAsync (String id) {
+        if ( asyncTodoRepository.isEmpty() ) return CompletableFuture.completedFuture( findTodoItem( id ) );
+        
+        return singleFlight.getAsync( "item", new ItemRead( todoPageCache.generation(), id ), () -> asyncTodoRepository.get().findById( id ) );
+    }
+    
+    private Optional<TodoItem> findTodoItem (String id) {
+        return singleFlight.get( "item", new ItemRead( todoPageCache.generation(), id ), () -> todoStore.findById( id ) );
+    }
+    
+    // A range over all statuses is read from the month buckets; one they cannot cover is rejected up front,
+    // before it reaches the page cache, instead of failing inside the query
+    private void checkRange (TodoFilter filter) {
+        if ( !filter.isRange() || !filter.rangeStatuses().isEmpty() ) return;
+        
+        String dueTo = filter.rangeTo( LocalDate.now() );
+        if ( !matchesNothing( filter, dueTo ) ) dueMonthBuckets.range( filter.dueFrom(), dueTo );
+    }
+    
+    // Overdue items in closed statuses only, or a range ending before it starts
+    private static boolean matchesNothing (TodoFilter filter, String dueTo) {
+        return filter.isEmpty() || ( filter.dueFrom() != null && dueTo != null && filter.dueFrom().compareTo( dueTo ) > 0 );
+    }
+    
+    // Reads see a status change that is still waiting in the write-behind buffer
+    private TodoItem withPendingStatus (TodoItem todoItem) {
+        return statusWriteBuffer.map( buffer -> buffer.overlay( todoItem ) ).orElse( todoItem );
+    }
+    
+    private <T> T invalidatePages (T written) {
+        todoPageCache.invalidate();
+        return written;
+    }
+    
+    // A failed If-Match condition is passed on as is, so the caller can answer 412
+    private static <T> CompletableFuture<T> orFail (CompletableFuture<T> future, String message) {
+        return future.exceptionally( e -> {
+            Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+            if ( cause instanceof ConditionalCheckFailedException failed ) throw failed;
+            throw new RuntimeException( message );
+        } );
+    }
+    
+    // Concurrent reads are only shared within one write generation, so a read started after a write sees it
+    private record PageRead(long generation, TodoFilter filter, int limit, String lastKey) {
+    }
+    
+    private record ItemRead(long generation, String id) {
+    }
+    
+    /**
+     * A to-do item as read, with the version a conditional write of it expects.
+     */
+    public record Versioned(TodoItem item, String version) {
+    }
 }
\ No newline at end of file
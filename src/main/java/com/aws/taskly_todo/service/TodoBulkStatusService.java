@@ -0,0 +1,126 @@
+package com.aws.taskly_todo.service;
+
+import com.aws.taskly_todo.model.BulkStatusResult;
+import com.aws.taskly_todo.model.Status;
+import com.aws.taskly_todo.repository.TodoStore;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Moves many to-do items to one status at once.
+ * <p>
+ * By default every item is updated individually, with at most {@code taskly.bulk-status.max-parallel}
+ * updates in flight. In atomic mode the IDs are split into {@code TransactWriteItems} chunks of
+ * {@value TodoStore#TRANSACT_WRITE_MAX_ITEMS}, each of which is applied all-or-nothing.
+ * <p>
+ * A status change still buffered for an item is dropped before the item is written, so a later flush
+ * cannot put the old status back.
+ */
+@Service
+public class TodoBulkStatusService {
+    private final TodoStore todoStore;
+    private final TodoPageCache todoPageCache;
+    private final Optional<StatusWriteBuffer> statusWriteBuffer;
+    private final ExecutorService dynamoDbTaskExecutor;
+    private final int maxParallel;
+    
+    public TodoBulkStatusService (TodoStore todoStore, TodoPageCache todoPageCache,
+                                  Optional<StatusWriteBuffer> statusWriteBuffer,
+                                  @Qualifier( "dynamoDbTaskExecutor" ) ExecutorService dynamoDbTaskExecutor,
+                                  @Value( "${taskly.bulk-status.max-parallel:8}" ) int maxParallel) {
+        this.todoStore = todoStore;
+        this.todoPageCache = todoPageCache;
+        this.statusWriteBuffer = statusWriteBuffer;
+        this.dynamoDbTaskExecutor = dynamoDbTaskExecutor;
+        this.maxParallel = maxParallel;
+    }
+    
+    /**
+     * Sets the status of every given to-do item.
+     *
+     * @param ids    The IDs of the to-do items. Blank and duplicate IDs are ignored.
+     * @param status The target status.
+     * @param atomic Whether to use all-or-nothing transactions per chunk.
+     * @return One summary of the whole operation.
+     */
+    public BulkStatusResult updateStatuses (Collection<String> ids, Status status, boolean atomic) {
+        long started = System.nanoTime();
+        List<String> distinctIds = ids.stream()
+                .filter( id -> id != null && !id.isBlank() )
+                .distinct()
+                .toList();
+        
+        AtomicInteger updated = new AtomicInteger();
+        Queue<String> missing = new ConcurrentLinkedQueue<>();
+        Queue<String> failed = new ConcurrentLinkedQueue<>();
+        Semaphore inFlight = new Semaphore( maxParallel );
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        
+        try {
+            if ( atomic ) {
+                for ( int from = 0; from < distinctIds.size(); from += TodoStore.TRANSACT_WRITE_MAX_ITEMS ) {
+                    List<String> chunk = distinctIds.subList( from, Math.min( from + TodoStore.TRANSACT_WRITE_MAX_ITEMS, distinctIds.size() ) );
+                    tasks.add( submit( inFlight, () -> {
+                        try {
+                            statusWriteBuffer.ifPresent( buffer -> chunk.forEach( buffer::discard ) );
+                            Set<String> chunkMissing = todoStore.transactUpdateStatus( chunk, status );
+                            if ( chunkMissing.isEmpty() ) {
+                                updated.addAndGet( chunk.size() );
+                            } else {
+                                missing.addAll( chunkMissing );
+                                chunk.stream().filter( id -> !chunkMissing.contains( id ) ).forEach( failed::add );
+                            }
+                        } catch ( Exception e ) {
+                            failed.addAll( chunk );
+                        }
+                    } ) );
+                }
+            } else {
+                for ( String id : distinctIds ) {
+                    tasks.add( submit( inFlight, () -> {
+                        try {
+                            statusWriteBuffer.ifPresent( buffer -> buffer.discard( id ) );
+                            if ( todoStore.updateStatusIfExists( id, status ) ) {
+                                updated.incrementAndGet();
+                            } else {
+                                missing.add( id );
+                            }
+                        } catch ( Exception e ) {
+                            failed.add( id );
+                        }
+                    } ) );
+                }
+            }
+        } finally {
+            CompletableFuture.allOf( tasks.toArray( CompletableFuture[]::new ) ).join();
+            todoPageCache.invalidate();
+        }
+        
+        return new BulkStatusResult( status, atomic, distinctIds.size(), updated.get(),
+                List.copyOf( missing ), List.copyOf( failed ), ( System.nanoTime() - started ) / 1_000_000 );
+    }
+    
+    private CompletableFuture<Void> submit (Semaphore inFlight, Runnable task) {
+        inFlight.acquireUninterruptibly();
+        return CompletableFuture.runAsync( () -> {
+            try {
+                task.run();
+            } finally {
+                inFlight.release();
+            }
+        }, dynamoDbTaskExecutor );
+    }
+}
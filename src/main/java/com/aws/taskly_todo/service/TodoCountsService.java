@@ -0,0 +1,143 @@
+package com.aws.taskly_todo.service;
+
+import com.aws.taskly_todo.model.TodoCounters;
+import com.aws.taskly_todo.model.TodoCounts;
+import com.aws.taskly_todo.model.TodoItem;
+import com.aws.taskly_todo.repository.AsyncTodoRepository;
+import com.aws.taskly_todo.repository.TodoStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Serves the per-status and overdue counts from the incrementally maintained {@link TodoCounters},
+ * and periodically reconciles those counters with the items.
+ * <p>
+ * Reads share one snapshot of the counter shards for {@code taskly.counters.max-age}, so list pages and
+ * polling dashboards cost at most one read per window. Reconciliation counts every item, which is
+ * O(table), and only runs every {@code taskly.counters.reconcile-interval}. It adds the difference to each
+ * counter shard rather than overwriting it. A write in flight while it counts may or may not have been seen,
+ * so it compares the count with the shard as read both before and after, and only adds the part of the
+ * difference both agree on. Counters that did not move are corrected exactly even on a busy table; the rest
+ * is left to the next round.
+ */
+@Slf4j
+@Service
+public class TodoCountsService {
+    private final TodoStore todoStore;
+    private final Optional<AsyncTodoRepository> asyncTodoRepository;
+    private final long maxAgeNanos;
+    private final Counter inSync;
+    private final Counter corrected;
+    private final Counter skipped;
+    private volatile Snapshot snapshot;
+    
+    public TodoCountsService (
+            TodoStore todoStore,
+            Optional<AsyncTodoRepository> asyncTodoRepository,
+            @Value( "${taskly.counters.max-age:5s}" ) Duration maxAge,
+            MeterRegistry meterRegistry
+    ) {
+        this.todoStore = todoStore;
+        this.asyncTodoRepository = asyncTodoRepository;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.inSync = reconciliations( meterRegistry, "in-sync" );
+        this.corrected = reconciliations( meterRegistry, "corrected" );
+        this.skipped = reconciliations( meterRegistry, "skipped" );
+    }
+    
+    /**
+     * Returns the current counts, with overdue items counted as of today.
+     *
+     * @return The counts, at most {@code taskly.counters.max-age} old.
+     */
+    public TodoCounts counts () {
+        Snapshot current = snapshot;
+        if ( isStale( current ) ) current = refresh( todoStore.readCounters() );
+        return TodoCounts.of( current.counters(), LocalDate.now() );
+    }
+    
+    /**
+     * Returns the current counts without blocking when the snapshot has to be refreshed. With the
+     * {@code async} profile the counters are read on {@link AsyncTodoRepository}; otherwise this
+     * delegates to {@link #counts()} and returns a completed future.
+     *
+     * @return A future completing with the counts, at most {@code taskly.counters.max-age} old.
+     */
+    public CompletableFuture<TodoCounts> countsAsync () {
+        if ( !isStale( snapshot ) || asyncTodoRepository.isEmpty() ) return CompletableFuture.completedFuture( counts() );
+        
+        return asyncTodoRepository.get().readCounters()
+                .thenApply( counters -> TodoCounts.of( refresh( counters ).counters(), LocalDate.now() ) );
+    }
+    
+    /**
+     * Recounts all items per counter shard and corrects each shard by the difference both of its reads agree on.
+     */
+    @Scheduled( fixedDelayString = "${taskly.counters.reconcile-interval:10m}", initialDelayString = "${taskly.counters.reconcile-interval:10m}" )
+    public void reconcile () {
+        List<TodoCounters> before = todoStore.readCounterShards();
+        Map<Integer, TodoCounters> actual;
+        try ( Stream<TodoItem> items = todoStore.streamAll( null, null ) ) {
+            actual = items.collect( Collectors.groupingBy( item -> todoStore.counterShard( item.getId() ), TodoCounters.counting() ) );
+        }
+        List<TodoCounters> after = todoStore.readCounterShards();
+        
+        boolean changed = false;
+        boolean inDoubt = false;
+        for ( int shard = 0; shard < after.size(); shard++ ) {
+            TodoCounters counted = actual.getOrDefault( shard, TodoCounters.EMPTY );
+            TodoCounters driftAfter = counted.minus( after.get( shard ) );
+            TodoCounters drift = counted.minus( before.get( shard ) ).commonPart( driftAfter );
+            
+            if ( !drift.equals( driftAfter ) ) inDoubt = true;
+            if ( drift.isEmpty() ) continue;
+            
+            todoStore.addCounters( shard, drift );
+            changed = true;
+            log.warn( "Counter reconciliation corrected drift on shard {}: {}", shard, drift );
+        }
+        
+        if ( changed ) {
+            snapshot = null;
+            corrected.increment();
+        } else if ( inDoubt ) {
+            skipped.increment();
+            log.debug( "Counter reconciliation skipped, counters changed while counting" );
+        } else {
+            inSync.increment();
+        }
+    }
+    
+    private boolean isStale (Snapshot current) {
+        return current == null || System.nanoTime() - current.readAtNanos() > maxAgeNanos;
+    }
+    
+    private Snapshot refresh (TodoCounters counters) {
+        Snapshot current = new Snapshot( counters, System.nanoTime() );
+        snapshot = current;
+        return current;
+    }
+    
+    private static Counter reconciliations (MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder( "taskly.counters.reconciliations" )
+                .description( "Runs of the counter reconciliation job" )
+                .tag( "outcome", outcome )
+                .register( meterRegistry );
+    }
+    
+    private record Snapshot(TodoCounters counters, long readAtNanos) {
+    }
+}
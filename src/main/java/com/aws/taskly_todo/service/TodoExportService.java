@@ -0,0 +1,104 @@
+package com.aws.taskly_todo.service;
+
+import com.aws.taskly_todo.model.TodoFileFormat;
+import com.aws.taskly_todo.model.TodoItem;
+import com.aws.taskly_todo.repository.TodoStore;
+import com.aws.taskly_todo.utils.CsvUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes to-do items straight from the repository stream to an output stream,
+ * so memory use does not grow with the size of the table.
+ */
+@Service
+@RequiredArgsConstructor
+public class TodoExportService {
+    private static final String[] COLUMNS = { "id", "title", "description", "status", "dueDate", "createdAt", "updatedAt" };
+    private static final int FLUSH_EVERY_ROWS = 500;
+    
+    private final TodoStore todoStore;
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * Exports every to-do item matching the same filters as {@link TasklyTodoService#getTodos}.
+     *
+     * @param status  The status filter, or null.
+     * @param dueDate The due date filter, or null.
+     * @param format  The output format.
+     * @param output  The stream to write to. It is flushed but not closed.
+     * @return The number of exported items.
+     */
+    public long export (String status, String dueDate, TodoFileFormat format, OutputStream output) throws IOException {
+        try ( Stream<TodoItem> todos = todoStore.streamAll( status, dueDate ) ) {
+            return format == TodoFileFormat.CSV
+                    ? writeCsv( todos.iterator(), output )
+                    : writeNdjson( todos.iterator(), output );
+        }
+    }
+    
+    private long writeCsv (Iterator<TodoItem> todos, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter( new OutputStreamWriter( output, StandardCharsets.UTF_8 ) );
+        writer.write( String.join( ",", COLUMNS ) );
+        writer.write( '\n' );
+        
+        long rows = 0;
+        while ( todos.hasNext() ) {
+            TodoItem todo = todos.next();
+            writer.write( CsvUtils.escape( todo.getId() ) );
+            writer.write( ',' );
+            writer.write( CsvUtils.escape( todo.getTitle() ) );
+            writer.write( ',' );
+            writer.write( CsvUtils.escape( todo.getDescription() ) );
+            writer.write( ',' );
+            writer.write( CsvUtils.escape( todo.getStatus() ) );
+            writer.write( ',' );
+            writer.write( CsvUtils.escape( todo.getDueDate() ) );
+            writer.write( ',' );
+            writer.write( CsvUtils.escape( todo.getCreatedAt() ) );
+            writer.write( ',' );
+            writer.write( CsvUtils.escape( todo.getUpdatedAt() ) );
+            writer.write( '\n' );
+            
+            if ( ++rows % FLUSH_EVERY_ROWS == 0 ) writer.flush();
+        }
+        writer.flush();
+        return rows;
+    }
+    
+    private long writeNdjson (Iterator<TodoItem> todos, OutputStream output) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator( output );
+        generator.disable( JsonGenerator.Feature.AUTO_CLOSE_TARGET );
+        generator.setRootValueSeparator( null ); // lines are separated explicitly below
+        
+        long rows = 0;
+        while ( todos.hasNext() ) {
+            TodoItem todo = todos.next();
+            generator.writeStartObject();
+            generator.writeStringField( "id", todo.getId() );
+            generator.writeStringField( "title", todo.getTitle() );
+            generator.writeStringField( "description", todo.getDescription() );
+            generator.writeStringField( "status", todo.getStatus() );
+            generator.writeStringField( "dueDate", todo.getDueDate() );
+            generator.writeStringField( "createdAt", todo.getCreatedAt() );
+            generator.writeStringField( "updatedAt", todo.getUpdatedAt() );
+            generator.writeEndObject();
+            generator.writeRaw( '\n' );
+            
+            if ( ++rows % FLUSH_EVERY_ROWS == 0 ) generator.flush();
+        }
+        generator.flush();
+        return rows;
+    }
+}
@@ -0,0 +1,212 @@
+package com.aws.taskly_todo.service;
+
+import com.aws.taskly_todo.model.BatchSaveResult;
+import com.aws.taskly_todo.model.ImportReport;
+import com.aws.taskly_todo.model.TodoDraft;
+import com.aws.taskly_todo.model.TodoFileFormat;
+import com.aws.taskly_todo.model.TodoItem;
+import com.aws.taskly_todo.repository.TodoStore;
+import com.aws.taskly_todo.utils.CsvUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Streams CSV or NDJSON input into DynamoDB with {@code BatchWriteItem}.
+ * <p>
+ * The input is parsed one row at a time and written in batches of {@value TodoStore#BATCH_WRITE_SIZE}.
+ * At most {@code taskly.import.max-in-flight-batches} batches run concurrently; parsing blocks
+ * until a slot frees up, so rows waiting to be written stay bounded. The report holds one result per row,
+ * though, so memory still grows with the number of rows.
+ */
+@Service
+public class TodoImportService {
+    private static final List<String> CSV_HEADER = List.of( "title", "description", "duedate" );
+    
+    private final TodoStore todoStore;
+    private final TodoPageCache todoPageCache;
+    private final ExecutorService dynamoDbTaskExecutor;
+    private final ObjectMapper objectMapper;
+    private final int maxInFlightBatches;
+    
+    public TodoImportService (TodoStore todoStore, TodoPageCache todoPageCache,
+                              @Qualifier( "dynamoDbTaskExecutor" ) ExecutorService dynamoDbTaskExecutor,
+                              ObjectMapper objectMapper, @Value( "${taskly.import.max-in-flight-batches:4}" ) int maxInFlightBatches) {
+        this.todoStore = todoStore;
+        this.todoPageCache = todoPageCache;
+        this.dynamoDbTaskExecutor = dynamoDbTaskExecutor;
+        this.objectMapper = objectMapper;
+        this.maxInFlightBatches = maxInFlightBatches;
+    }
+    
+    /**
+     * Imports every row of the input.
+     * CSV input has the columns {@code title,description,dueDate}; a matching header row is skipped.
+     * NDJSON input has one object per line with the same fields.
+     *
+     * @param input  The request body.
+     * @param format The format of the body.
+     * @return The per-row results together with throughput and consumed capacity.
+     */
+    public ImportReport importTodos (InputStream input, TodoFileFormat format) throws IOException {
+        long started = System.nanoTime();
+        Queue<ImportReport.RowResult> results = new ConcurrentLinkedQueue<>();
+        DoubleAdder consumedCapacity = new DoubleAdder();
+        Semaphore inFlight = new Semaphore( maxInFlightBatches );
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        List<Long> batchRows = new ArrayList<>( TodoStore.BATCH_WRITE_SIZE );
+        List<TodoDraft> batch = new ArrayList<>( TodoStore.BATCH_WRITE_SIZE );
+        long rows = 0;
+        
+        try ( BufferedReader reader = new BufferedReader( new InputStreamReader( input, StandardCharsets.UTF_8 ) ) ) {
+            RowReader rowReader = format == TodoFileFormat.CSV ? new CsvRowReader( reader ) : new NdjsonRowReader( reader );
+            
+            for ( ParsedRow parsed = rowReader.next(); parsed != null; parsed = rowReader.next() ) {
+                long row = ++rows;
+                String error = parsed.error() != null ? parsed.error() : validate( parsed.draft() );
+                if ( error != null ) {
+                    results.add( new ImportReport.RowResult( row, null, error ) );
+                    continue;
+                }
+                
+                batchRows.add( row );
+                batch.add( parsed.draft() );
+                if ( batch.size() == TodoStore.BATCH_WRITE_SIZE ) {
+                    // Only batches still running are kept to wait for at the end
+                    batches.removeIf( CompletableFuture::isDone );
+                    batches.add( submit( batch, batchRows, inFlight, results, consumedCapacity ) );
+                    batch = new ArrayList<>( TodoStore.BATCH_WRITE_SIZE );
+                    batchRows = new ArrayList<>( TodoStore.BATCH_WRITE_SIZE );
+                }
+            }
+            if ( !batch.isEmpty() ) batches.add( submit( batch, batchRows, inFlight, results, consumedCapacity ) );
+        } finally {
+            CompletableFuture.allOf( batches.toArray( CompletableFuture[]::new ) ).join();
+            todoPageCache.invalidate();
+        }
+        
+        List<ImportReport.RowResult> ordered = new ArrayList<>( results );
+        ordered.sort( Comparator.comparingLong( ImportReport.RowResult::row ) );
+        long imported = ordered.stream().filter( result -> result.error() == null ).count();
+        long elapsedMillis = Math.max( 1, ( System.nanoTime() - started ) / 1_000_000 );
+        
+        return new ImportReport( rows, imported, rows - imported, elapsedMillis,
+                imported * 1000.0 / elapsedMillis, consumedCapacity.sum(), ordered );
+    }
+    
+    private CompletableFuture<Void> submit (List<TodoDraft> batch, List<Long> batchRows, Semaphore inFlight,
+                                            Queue<ImportReport.RowResult> results, DoubleAdder consumedCapacity) {
+        inFlight.acquireUninterruptibly();
+        return CompletableFuture.runAsync( () -> {
+            try {
+                BatchSaveResult saved = todoStore.saveBatch( batch );
+                consumedCapacity.add( saved.consumedCapacity() );
+                
+                for ( int i = 0; i < batch.size(); i++ ) {
+                    TodoItem item = saved.items().get( i );
+                    results.add( saved.unprocessedIds().contains( item.getId() )
+                            ? new ImportReport.RowResult( batchRows.get( i ), null, "Unprocessed after retries" )
+                            : new ImportReport.RowResult( batchRows.get( i ), item.getId(), null ) );
+                }
+            } catch ( Exception e ) {
+                batchRows.forEach( row -> results.add( new ImportReport.RowResult( row, null, "Batch write failed: " + e.getMessage() ) ) );
+            } finally {
+                inFlight.release();
+            }
+        }, dynamoDbTaskExecutor );
+    }
+    
+    private static String validate (TodoDraft draft) {
+        if ( draft.title() == null || draft.title().isBlank() ) return "Missing title";
+        if ( draft.dueDate() == null || draft.dueDate().isBlank() ) return "Missing dueDate";
+        
+        try {
+            LocalDate.parse( draft.dueDate() );
+            return null;
+        } catch ( DateTimeParseException e ) {
+            return "Invalid dueDate, expected yyyy-MM-dd";
+        }
+    }
+    
+    private record ParsedRow(TodoDraft draft, String error) {
+    }
+    
+    private interface RowReader {
+        /**
+         * @return The next data row, or null at the end of the input.
+         */
+        ParsedRow next () throws IOException;
+    }
+    
+    private static final class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private boolean first = true;
+        
+        CsvRowReader (BufferedReader reader) {
+            this.reader = reader;
+        }
+        
+        @Override
+        public ParsedRow next () throws IOException {
+            List<String> fields;
+            do {
+                fields = CsvUtils.readRecord( reader );
+                if ( fields == null ) return null;
+                if ( first && fields.stream().map( field -> field.trim().toLowerCase() ).toList().equals( CSV_HEADER ) ) {
+                    fields = List.of( "" );
+                }
+                first = false;
+            } while ( fields.size() == 1 && fields.get( 0 ).isBlank() );
+            
+            if ( fields.size() != 3 ) return new ParsedRow( null, "Expected 3 columns but found " + fields.size() );
+            return new ParsedRow( new TodoDraft( fields.get( 0 ).trim(), fields.get( 1 ), fields.get( 2 ).trim() ), null );
+        }
+    }
+    
+    private final class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        
+        NdjsonRowReader (BufferedReader reader) {
+            this.reader = reader;
+        }
+        
+        @Override
+        public ParsedRow next () throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if ( line == null ) return null;
+            } while ( line.isBlank() );
+            
+            try {
+                JsonNode node = objectMapper.readTree( line );
+                return new ParsedRow( new TodoDraft(
+                        node.path( "title" ).asText( null ),
+                        node.path( "description" ).asText( null ),
+                        node.path( "dueDate" ).asText( null ) ), null );
+            } catch ( JsonProcessingException e ) {
+                return new ParsedRow( null, "Invalid JSON: " + e.getOriginalMessage() );
+            }
+        }
+    }
+}
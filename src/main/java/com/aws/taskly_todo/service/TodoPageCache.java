@@ -0,0 +1,124 @@
+package com.aws.taskly_todo.service;
+
+import com.aws.taskly_todo.model.PaginatedResult;
+import com.aws.taskly_todo.model.TodoFilter;
+import com.aws.taskly_todo.model.TodoSummary;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of list pages returned by {@link TasklyTodoService#getTodos}.
+ * <p>
+ * Every entry is keyed by the current write generation together with the filter and cursor.
+ * A write bumps the generation, so pages cached before it are never served again and simply
+ * age out. Pages are also dropped after the configured staleness window.
+ */
+@Component
+public class TodoPageCache {
+    private final AtomicLong generation = new AtomicLong();
+    private final AsyncCache<PageKey, PaginatedResult<TodoSummary>> pages;
+    
+    public TodoPageCache (
+            @Value( "${taskly.cache.pages.max-size:500}" ) long maxSize,
+            @Value( "${taskly.cache.pages.ttl:5s}" ) Duration ttl,
+            MeterRegistry meterRegistry
+    ) {
+        this.pages = Caffeine.newBuilder()
+                .maximumSize( maxSize )
+                .expireAfterWrite( ttl )
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor( meterRegistry, pages.synchronous(), "todoPages" );
+    }
+    
+    /**
+     * Returns the cached page for the given filter and cursor, loading it on a miss. The load runs on the
+     * calling thread outside the cache, so a slow query never holds a lock of the cache's map; concurrent
+     * callers of the same page wait for its future instead.
+     *
+     * @param filter  The list filters.
+     * @param limit   The page size.
+     * @param lastKey The encoded cursor of the page, or null for the first page.
+     * @param loader  Loads the page from the repository on a miss.
+     * @return The cached or freshly loaded page.
+     */
+    public PaginatedResult<TodoSummary> get (TodoFilter filter, int limit, String lastKey,
+                                          Supplier<PaginatedResult<TodoSummary>> loader) {
+        return join( getAsync( filter, limit, lastKey, () -> CompletableFuture.completedFuture( loader.get() ) ) );
+    }
+    
+    /**
+     * Asynchronous variant of {@link #get}. A failed load is not cached.
+     *
+     * @param filter  The list filters.
+     * @param limit   The page size.
+     * @param lastKey The encoded cursor of the page, or null for the first page.
+     * @param loader  Starts loading the page from the repository on a miss.
+     * @return A future completing with the cached or freshly loaded page.
+     */
+    public CompletableFuture<PaginatedResult<TodoSummary>> getAsync (TodoFilter filter, int limit, String lastKey,
+                                                                  Supplier<CompletableFuture<PaginatedResult<TodoSummary>>> loader) {
+        PageKey key = new PageKey( generation.get(), filter, limit, blankToNull( lastKey ) );
+        CompletableFuture<PaginatedResult<TodoSummary>> loading = new CompletableFuture<>();
+        CompletableFuture<PaginatedResult<TodoSummary>> cached = pages.asMap().putIfAbsent( key, loading );
+        if ( cached != null ) return cached;
+        
+        // Loaded only once the placeholder is in, outside the map's compute, so no lock is held meanwhile
+        CompletableFuture<PaginatedResult<TodoSummary>> loaded;
+        try {
+            loaded = loader.get();
+        } catch ( RuntimeException e ) {
+            loaded = CompletableFuture.failedFuture( e );
+        }
+        loaded.whenComplete( (page, e) -> {
+            if ( e == null ) {
+                loading.complete( page );
+            } else {
+                pages.asMap().remove( key, loading );
+                loading.completeExceptionally( e );
+            }
+        } );
+        return loading;
+    }
+    
+    /**
+     * Returns the current write generation, which changes with every write going through the service.
+     */
+    public long generation () {
+        return generation.get();
+    }
+    
+    /**
+     * Invalidates all cached pages. Called after every write going through the service.
+     */
+    public void invalidate () {
+        generation.incrementAndGet();
+    }
+    
+    // Fails like the loader did, not wrapped, whether this caller loaded the page or waited for it
+    private static <T> T join (CompletableFuture<T> page) {
+        try {
+            return page.join();
+        } catch ( CompletionException e ) {
+            if ( e.getCause() instanceof RuntimeException cause ) throw cause;
+            throw e;
+        }
+    }
+    
+    private static String blankToNull (String value) {
+        return ( value == null || value.isBlank() ) ? null : value;
+    }
+    
+    private record PageKey(long generation, TodoFilter filter, int limit, String lastKey) {
+    }
+}
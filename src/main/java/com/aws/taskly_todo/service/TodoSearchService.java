@@ -0,0 +1,97 @@
+package com.aws.taskly_todo.service;
+
+import com.aws.taskly_todo.model.TodoItem;
+import com.aws.taskly_todo.model.TodoSummary;
+import com.aws.taskly_todo.repository.TodoSearchIndex;
+import com.aws.taskly_todo.repository.TodoStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+/**
+ * Full-text search over the {@link TodoSearchIndex}.
+ * <p>
+ * The index is built from the store right after startup and rebuilt every {@code taskly.search.rebuild-interval},
+ * which picks up writes made by other instances and drops the postings of replaced items. Until the first
+ * build completes, searches only see items written since startup. Hits are resolved to their current
+ * state through the item cache, so items deleted elsewhere since the last rebuild are left out.
+ */
+@Slf4j
+@Service
+public class TodoSearchService {
+    private final TodoStore todoStore;
+    private final TodoSearchIndex searchIndex;
+    private final TasklyTodoService tasklyTodoService;
+    private final int maxResults;
+    private final Timer rebuilds;
+    
+    public TodoSearchService (
+            TodoStore todoStore,
+            TodoSearchIndex searchIndex,
+            TasklyTodoService tasklyTodoService,
+            @Value( "${taskly.search.max-results:50}" ) int maxResults,
+            MeterRegistry meterRegistry
+    ) {
+        this.todoStore = todoStore;
+        this.searchIndex = searchIndex;
+        this.tasklyTodoService = tasklyTodoService;
+        this.maxResults = maxResults;
+        this.rebuilds = Timer.builder( "taskly.search.rebuild" )
+                .description( "Time taken to rebuild the search index from the store" )
+                .register( meterRegistry );
+        gauge( meterRegistry, "taskly.search.documents", "Items in the search index", TodoSearchIndex.Stats::documents );
+        gauge( meterRegistry, "taskly.search.deleted", "Replaced or removed items still in posting lists", TodoSearchIndex.Stats::deleted );
+        gauge( meterRegistry, "taskly.search.terms", "Distinct terms in the search index", TodoSearchIndex.Stats::terms );
+        gauge( meterRegistry, "taskly.search.postings.bytes", "Bytes used by the packed posting lists", TodoSearchIndex.Stats::postingsBytes );
+    }
+    
+    /**
+     * Searches titles and descriptions.
+     *
+     * @param query The search text. Every term matches as a prefix and all terms must match.
+     * @param limit The maximum number of results, capped at {@code taskly.search.max-results}.
+     * @return A future completing with the matching items, best match first.
+     */
+    public CompletableFuture<List<TodoSummary>> search (String query, int limit) {
+        List<CompletableFuture<Optional<TodoItem>>> hits = searchIndex.search( query, Math.min( limit, maxResults ) ).stream()
+                .map( tasklyTodoService::findTodoItemAsync )
+                .toList();
+        
+        return CompletableFuture.allOf( hits.toArray( CompletableFuture[]::new ) )
+                .thenApply( done -> hits.stream()
+                        .map( CompletableFuture::join )
+                        .flatMap( Optional::stream )
+                        .map( item -> new TodoSummary( item.getId(), item.getTitle(), item.getStatus(), item.getDueDate() ) )
+                        .toList() );
+    }
+    
+    /**
+     * Rebuilds the index from every item in the store.
+     */
+    @Scheduled( fixedDelayString = "${taskly.search.rebuild-interval:1h}" )
+    public void rebuild () {
+        long started = System.nanoTime();
+        try ( Stream<TodoItem> items = todoStore.streamAll( null, null ) ) {
+            searchIndex.rebuild( items );
+        }
+        rebuilds.record( System.nanoTime() - started, TimeUnit.NANOSECONDS );
+        log.info( "Search index rebuilt: {}", searchIndex.stats() );
+    }
+    
+    private void gauge (MeterRegistry meterRegistry, String name, String description, ToDoubleFunction<TodoSearchIndex.Stats> value) {
+        Gauge.builder( name, searchIndex, index -> value.applyAsDouble( index.stats() ) )
+                .description( description )
+                .register( meterRegistry );
+    }
+}
@@ -0,0 +1,68 @@
+package com.aws.taskly_todo.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CsvUtils {
+    /**
+     * Reads the next RFC 4180 record from the reader. Quoted fields may contain commas,
+     * escaped quotes ({@code ""}) and line breaks.
+     *
+     * @param reader The reader to consume.
+     * @return The fields of the record, or null at the end of the input.
+     */
+    public static List<String> readRecord(BufferedReader reader) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean sawAny = false;
+        int c;
+        
+        while ((c = reader.read()) != -1) {
+            sawAny = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        
+        if (!sawAny) return null;
+        fields.add(field.toString());
+        return fields;
+    }
+    
+    /**
+     * Formats a single CSV field, quoting it when it contains a comma, quote or line break.
+     *
+     * @param value The value to format. Null is written as an empty field.
+     * @return The CSV-safe field.
+     */
+    public static String escape(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
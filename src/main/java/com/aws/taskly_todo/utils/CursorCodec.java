@@ -0,0 +1,94 @@
+package com.aws.taskly_todo.utils;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CursorCodec {
+    private static final int VERSION = 1;
+    private static final byte STRING = 'S';
+    private static final byte NUMBER = 'N';
+    private static final int CUSTOM_NAME = 0xFF;
+    
+    // Key attributes of the table and its indexes, written as a single byte instead of their name.
+    private static final List<String> KNOWN_NAMES = List.of("id", "createdAt", "sortKey", "status", "dueDate");
+    
+    /**
+     * Encodes a LastEvaluatedKey as a compact, URL-safe cursor. Layout: a version byte, the number of
+     * attributes, then per attribute its name (one byte for well-known key names), a type byte and the value.
+     *
+     * @param key The key to encode. Only string and number attributes are supported, as in any DynamoDB key.
+     * @return The encoded cursor, or null if there is no key.
+     */
+    public static String encode(Map<String, AttributeValue> key) {
+        if (key == null || key.isEmpty()) return null;
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeShort(key.size());
+            for (Map.Entry<String, AttributeValue> entry : key.entrySet()) {
+                int known = KNOWN_NAMES.indexOf(entry.getKey());
+                if (known >= 0) {
+                    out.writeByte(known);
+                } else {
+                    out.writeByte(CUSTOM_NAME);
+                    out.writeUTF(entry.getKey());
+                }
+                
+                AttributeValue value = entry.getValue();
+                if (value.s() != null) {
+                    out.writeByte(STRING);
+                    out.writeUTF(value.s());
+                } else if (value.n() != null) {
+                    out.writeByte(NUMBER);
+                    out.writeUTF(value.n());
+                } else {
+                    throw new IllegalArgumentException("Unsupported key attribute type for " + entry.getKey());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+    
+    /**
+     * Decodes a cursor produced by {@link #encode}.
+     *
+     * @param cursor The encoded cursor. Can be null or blank.
+     * @return The ExclusiveStartKey, or an empty map for a missing or malformed cursor.
+     */
+    public static Map<String, AttributeValue> decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return Collections.emptyMap();
+        
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readUnsignedByte() != VERSION) return Collections.emptyMap();
+            
+            int size = in.readUnsignedShort();
+            Map<String, AttributeValue> key = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                int name = in.readUnsignedByte();
+                String attribute = name == CUSTOM_NAME ? in.readUTF() : KNOWN_NAMES.get(name);
+                byte type = in.readByte();
+                String value = in.readUTF();
+                key.put(attribute, type == NUMBER
+                        ? AttributeValue.builder().n(value).build()
+                        : AttributeValue.builder().s(value).build());
+            }
+            return key;
+        } catch (IOException | RuntimeException e) {
+            return Collections.emptyMap();
+        }
+    }
+}
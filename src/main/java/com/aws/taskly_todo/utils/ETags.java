@@ -0,0 +1,72 @@
+package com.aws.taskly_todo.utils;
+
+import com.aws.taskly_todo.model.PaginatedResult;
+import com.aws.taskly_todo.model.TodoItem;
+import com.aws.taskly_todo.model.TodoSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+public class ETags {
+    
+    /**
+     * Returns the strong ETag of a to-do item. Every write sets updatedAt, so {@link TodoItem#version()},
+     * the timestamp of the last write (or of the creation, for items never updated), identifies it.
+     *
+     * @param item The to-do item.
+     * @return The quoted ETag.
+     */
+    public static String of(TodoItem item) {
+        return quote(digest(item.getId() + '\n' + item.version()));
+    }
+    
+    /**
+     * Returns the strong ETag of a page: a digest of every field that is serialised for its items,
+     * plus the cursor of the next page.
+     *
+     * @param page The page.
+     * @return The quoted ETag.
+     */
+    public static String of(PaginatedResult<TodoSummary> page) {
+        StringBuilder signature = new StringBuilder(page.items().size() * 96);
+        for (TodoSummary item : page.items()) {
+            signature.append(item.id()).append('\n')
+                    .append(item.title()).append('\n')
+                    .append(item.status()).append('\n')
+                    .append(item.dueDate()).append('\n');
+        }
+        signature.append(page.lastEvaluatedKey());
+        return quote(digest(signature.toString()));
+    }
+    
+    /**
+     * Evaluates an If-Match header against the current ETag of a resource.
+     *
+     * @param ifMatch The header value, a list of ETags or "*". Null if the header is absent.
+     * @param etag    The current ETag of the resource.
+     * @return Whether the request may proceed.
+     */
+    public static boolean matches(String ifMatch, String etag) {
+        if (ifMatch == null) return true;
+        
+        return Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidate -> candidate.equals("*") || candidate.equals(etag));
+    }
+    
+    private static String digest(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static String quote(String value) {
+        return '"' + value + '"';
+    }
+}
@@ -0,0 +1,74 @@
+#!/usr/bin/env bash
+# Time-to-first-request of the plain image (Dockerfile) against the fast-startup image (Dockerfile.fast).
+#
+# Both images run with the inmemory profile, so no AWS access is needed and only startup is measured.
+# Each run starts a fresh container and polls GET / until it answers 200; the time from `docker run`
+# to that response is the time-to-first-request. Spring's own "Started ... in" figure is recorded next to it.
+#
+#   src/startup/startup-benchmark.sh                 # 10 runs per image
+#   RUNS=20 SKIP_BUILD=1 src/startup/startup-benchmark.sh
+set -euo pipefail
+
+RUNS=${RUNS:-10}
+PORT=${PORT:-18082}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+OUTPUT=${OUTPUT:-target/startup}
+PLAIN_IMAGE=taskly-todo:plain
+FAST_IMAGE=taskly-todo:fast-inmemory
+
+cd "$(dirname "$0")/../.."
+mkdir -p "$OUTPUT"
+
+if [[ -z "${SKIP_BUILD:-}" ]]; then
+    docker build -q -t "$PLAIN_IMAGE" -f Dockerfile .
+    docker build -q -t "$FAST_IMAGE" -f Dockerfile.fast --build-arg PROFILES=inmemory .
+fi
+
+# Milliseconds since the epoch; needs GNU date (coreutils on macOS: gdate)
+now_ms() {
+    date +%s%3N
+}
+
+# Prints "<time-to-first-request ms> <Spring startup ms>" for one fresh container
+measure() {
+    local image=$1 container started deadline spring
+    started=$(now_ms)
+    container=$(docker run -d -p "$PORT:8082" -e SPRING_PROFILES_ACTIVE=inmemory "$image")
+    deadline=$(( started + TIMEOUT_SECONDS * 1000 ))
+
+    until curl -sf -o /dev/null "http://localhost:$PORT/"; do
+        if (( $(now_ms) > deadline )); then
+            docker logs "$container" >&2
+            docker rm -f "$container" > /dev/null
+            echo "No response from $image within ${TIMEOUT_SECONDS}s" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    local first=$(( $(now_ms) - started ))
+
+    spring=$(docker logs "$container" 2>&1 | sed -n 's/.*Started .* in \([0-9.]*\) seconds.*/\1/p' | head -1)
+    docker rm -f "$container" > /dev/null
+    echo "$first $(awk -v s="${spring:-0}" 'BEGIN { printf "%d", s * 1000 }')"
+}
+
+summary="$OUTPUT/summary.csv"
+echo "image,run,first_request_ms,spring_started_ms" > "$summary"
+
+for image in "$PLAIN_IMAGE" "$FAST_IMAGE"; do
+    # One unmeasured run, so both images start with a warm page cache
+    measure "$image" > /dev/null
+    for run in $(seq 1 "$RUNS"); do
+        result=$(measure "$image")
+        echo "$image,$run,${result% *},${result#* }" >> "$summary"
+    done
+done
+
+printf '%-28s %8s %8s %8s %14s\n' image min median max spring-median
+for image in "$PLAIN_IMAGE" "$FAST_IMAGE"; do
+    mapfile -t first < <(grep "^$image," "$summary" | cut -d, -f3 | sort -n)
+    mapfile -t spring < <(grep "^$image," "$summary" | cut -d, -f4 | sort -n)
+    middle=$(( (${#first[@]} - 1) / 2 ))
+    printf '%-28s %6dms %6dms %6dms %12dms\n' "$image" "${first[0]}" "${first[$middle]}" "${first[-1]}" "${spring[$middle]}"
+done
+echo "Runs written to $summary"
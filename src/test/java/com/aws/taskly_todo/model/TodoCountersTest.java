@@ -0,0 +1,97 @@
+package com.aws.taskly_todo.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoCountersTest {
+    
+    @Test
+    void deltaMovesAnItemBetweenCounters() {
+        TodoItem pending = item("1", "PENDING", "2025-07-01");
+        TodoItem completed = item("1", "COMPLETED", "2025-07-01");
+        
+        assertEquals(new TodoCounters(Map.of("PENDING", 1L), Map.of("2025-07-01", 1L)), TodoCounters.delta(null, pending));
+        assertEquals(new TodoCounters(Map.of("PENDING", -1L, "COMPLETED", 1L), Map.of("2025-07-01", -1L)),
+                TodoCounters.delta(pending, completed));
+        assertEquals(new TodoCounters(Map.of("COMPLETED", -1L), Map.of()), TodoCounters.delta(completed, null));
+    }
+    
+    @Test
+    void deltaOfAnUncountedChangeIsEmpty() {
+        TodoItem before = item("1", "ONGOING", "2025-07-01");
+        TodoItem after = item("1", "ONGOING", "2025-07-01");
+        after.setTitle("Renamed");
+        
+        assertTrue(TodoCounters.delta(before, after).isEmpty());
+        assertEquals(TodoCounters.EMPTY, TodoCounters.delta(before, after));
+    }
+    
+    @Test
+    void plusAndMinusDropZeroEntries() {
+        TodoCounters counters = new TodoCounters(Map.of("PENDING", 2L, "ONGOING", 1L), Map.of("2025-07-01", 3L));
+        TodoCounters delta = new TodoCounters(Map.of("PENDING", -2L), Map.of("2025-07-01", -3L, "2025-07-02", 1L));
+        
+        assertEquals(new TodoCounters(Map.of("ONGOING", 1L), Map.of("2025-07-02", 1L)), counters.plus(delta));
+        assertEquals(counters, counters.plus(delta).minus(delta));
+        assertEquals(TodoCounters.EMPTY, counters.minus(counters));
+    }
+    
+    @Test
+    void commonPartKeepsWhatBothEstimatesAgreeOn() {
+        TodoCounters one = new TodoCounters(Map.of("PENDING", 3L, "ONGOING", -2L, "COMPLETED", 1L), Map.of("2025-07-01", 4L));
+        TodoCounters other = new TodoCounters(Map.of("PENDING", 1L, "ONGOING", -5L, "COMPLETED", -1L), Map.of());
+        
+        TodoCounters expected = new TodoCounters(Map.of("PENDING", 1L, "ONGOING", -2L), Map.of());
+        assertEquals(expected, one.commonPart(other));
+        assertEquals(expected, other.commonPart(one));
+        assertEquals(one, one.commonPart(one));
+    }
+    
+    @Test
+    void countsOnlyOpenItemsByDueDate() {
+        TodoCounters counters = TodoCounters.of(Stream.of(
+                item("1", "PENDING", "2025-07-01"),
+                item("2", "ONGOING", "2025-07-01"),
+                item("3", "COMPLETED", "2025-06-01"),
+                item("4", "PENDING", null),
+                item("5", "PENDING", "2025-07-03")));
+        
+        assertEquals(3, counters.count(Status.PENDING));
+        assertEquals(1, counters.count(Status.ONGOING));
+        assertEquals(1, counters.count(Status.COMPLETED));
+        assertEquals(Map.of("2025-07-01", 2L, "2025-07-03", 1L), counters.openByDueDate());
+        assertEquals(0, counters.overdue(LocalDate.parse("2025-07-01")));
+        assertEquals(2, counters.overdue(LocalDate.parse("2025-07-02")));
+        assertEquals(3, counters.overdue(LocalDate.parse("2025-08-01")));
+    }
+    
+    @Test
+    void countingMatchesTheSumOfDeltasAndWorksPerGroup() {
+        List<TodoItem> items = IntStream.range(0, 1_000)
+                .mapToObj(i -> item(String.valueOf(i), Status.values()[i % 3].name(), "2025-07-" + (10 + i % 20)))
+                .toList();
+        
+        TodoCounters fromDeltas = items.stream()
+                .map(item -> TodoCounters.delta(null, item))
+                .reduce(TodoCounters.EMPTY, TodoCounters::plus);
+        assertEquals(fromDeltas, TodoCounters.of(items.stream()));
+        assertEquals(fromDeltas, TodoCounters.of(items.parallelStream()));
+        
+        Map<Integer, TodoCounters> byShard = items.stream()
+                .collect(Collectors.groupingBy(item -> Integer.parseInt(item.getId()) % 4, TodoCounters.counting()));
+        assertEquals(fromDeltas, byShard.values().stream().reduce(TodoCounters.EMPTY, TodoCounters::plus));
+        assertEquals(4, byShard.size());
+    }
+    
+    private static TodoItem item(String id, String status, String dueDate) {
+        return new TodoItem(id, "Title " + id, null, dueDate, status, null, null, null);
+    }
+}
@@ -0,0 +1,98 @@
+package com.aws.taskly_todo.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveRateLimiterTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos( 1 );
+    private static final long MILLISECOND = TimeUnit.MILLISECONDS.toNanos( 1 );
+    
+    @Test
+    void aBurstUpToTheBucketIsFree () throws InterruptedException {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter( 1, 10, 0.5, 0.1, 1 );
+        
+        for ( int i = 0; i < 10; i++ ) {
+            assertEquals( 0, limiter.acquire( 1, 0 ) );
+        }
+        assertEquals( -1, limiter.acquire( 1, 0 ) );
+    }
+    
+    @Test
+    void anEmptyBucketMakesCallersWaitInTurn () throws InterruptedException {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter( 1, 1_000, 0.5, 0.1, 0.01 );
+        assertEquals( 0, limiter.acquire( 10, 0 ) );
+        
+        long first = limiter.acquire( 1, SECOND );
+        long second = limiter.acquire( 4, SECOND );
+        
+        assertTrue( first > 0 && first <= MILLISECOND, "waited " + first );
+        assertTrue( second > 2 * MILLISECOND && second <= 4 * MILLISECOND, "waited " + second );
+    }
+    
+    @Test
+    void aRefusedReservationTakesNothing () throws InterruptedException {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter( 1, 1_000, 0.5, 0.1, 0.01 );
+        assertEquals( 0, limiter.acquire( 10, 0 ) );
+        
+        assertEquals( -1, limiter.acquire( 10, MILLISECOND ) );
+        TimeUnit.MILLISECONDS.sleep( 20 );
+        assertEquals( 0, limiter.acquire( 10, 0 ) );
+    }
+    
+    @Test
+    void reservingReturnsTheWaitInsteadOfSleeping () throws InterruptedException {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter( 1, 10, 0.5, 0.1, 1 );
+        assertEquals( 0, limiter.acquire( 10, 0 ) );
+        
+        long started = System.nanoTime();
+        long wait = limiter.reserve( 5, SECOND );
+        
+        assertTrue( System.nanoTime() - started < 100 * MILLISECOND );
+        assertTrue( wait > 400 * MILLISECOND && wait <= 500 * MILLISECOND, "waits " + wait );
+        // The reservation is kept, so the next caller queues behind it
+        assertEquals( -1, limiter.reserve( 6, SECOND ) );
+    }
+    
+    @Test
+    void aBatchLargerThanTheBucketCostsAFullBucket () throws InterruptedException {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter( 1, 10, 0.5, 0.1, 1 );
+        
+        assertEquals( 0, limiter.acquire( 25, 0 ) );
+        assertEquals( -1, limiter.acquire( 1, 0 ) );
+    }
+    
+    @Test
+    void throttlesLowerTheRateOncePerBurstDownToTheMinimum () throws InterruptedException {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter( 20, 100, 0.5, 0.1, 1 );
+        
+        limiter.throttled();
+        limiter.throttled();
+        assertEquals( 50, limiter.rate(), 0.001 );
+        
+        TimeUnit.MILLISECONDS.sleep( 250 );
+        limiter.throttled();
+        assertEquals( 25, limiter.rate(), 0.001 );
+        
+        TimeUnit.MILLISECONDS.sleep( 250 );
+        limiter.throttled();
+        assertEquals( 20, limiter.rate(), 0.001 );
+    }
+    
+    @Test
+    void successesGrowTheRateBackUpToTheMaximum () throws InterruptedException {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter( 1, 100, 0.5, 1.0, 1 );
+        limiter.throttled();
+        
+        TimeUnit.MILLISECONDS.sleep( 100 );
+        limiter.succeeded();
+        double grown = limiter.rate();
+        assertTrue( grown > 54 && grown < 100, "rate " + grown );
+        
+        TimeUnit.MILLISECONDS.sleep( 1_100 );
+        limiter.succeeded();
+        assertEquals( 100, limiter.rate(), 0.001 );
+    }
+}
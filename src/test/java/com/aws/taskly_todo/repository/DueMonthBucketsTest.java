@@ -0,0 +1,43 @@
+package com.aws.taskly_todo.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DueMonthBucketsTest {
+    private final DueMonthBuckets buckets = new DueMonthBuckets( 3 );
+    
+    @Test
+    void readsEveryMonthTheRangeTouches () {
+        DueMonthBuckets.Range range = buckets.range( "2025-11-15", "2026-01-02" );
+        
+        assertEquals( List.of( "2025-11", "2025-12", "2026-01" ), range.months() );
+        assertEquals( "2025-11-15", range.from() );
+        assertEquals( "2026-01-02", range.to() );
+    }
+    
+    @Test
+    void rejectsRangesWiderThanTheBucketLimit () {
+        assertThrows( IllegalArgumentException.class, () -> buckets.range( "2025-11-30", "2026-02-01" ) );
+    }
+    
+    @Test
+    void rejectsOpenEndedRanges () {
+        assertThrows( IllegalArgumentException.class, () -> buckets.range( "2025-11-15", null ) );
+        assertThrows( IllegalArgumentException.class, () -> buckets.range( null, "2025-11-15" ) );
+    }
+    
+    @Test
+    void readsNothingForARangeEndingBeforeItStarts () {
+        assertEquals( List.of(), buckets.range( "2026-01-02", "2025-11-15" ).months() );
+    }
+    
+    @Test
+    void bucketsByMonthOfTheDueDate () {
+        assertEquals( "2025-07", DueMonthBuckets.bucketOf( "2025-07-31" ) );
+        assertNull( DueMonthBuckets.bucketOf( "31.07.2025" ) );
+        assertNull( DueMonthBuckets.bucketOf( null ) );
+    }
+}
@@ -0,0 +1,137 @@
+package com.aws.taskly_todo.repository;
+
+import com.aws.taskly_todo.model.BatchGetResult;
+import com.aws.taskly_todo.model.PaginatedResult;
+import com.aws.taskly_todo.model.TodoItem;
+import com.aws.taskly_todo.model.TodoSummary;
+import com.aws.taskly_todo.utils.CursorCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryTodoStoreTest {
+    private final InMemoryTodoStore store = new InMemoryTodoStore( new CreatedAtShards( 1, true ), new DueMonthBuckets( 12 ), new TodoSearchIndex() );
+    
+    @Test
+    void pagesThroughEveryItemOnce () {
+        Set<String> saved = Set.of( save( "2025-07-01" ), save( "2025-07-02" ), save( "2025-07-03" ), save( "2025-07-04" ), save( "2025-07-05" ) );
+        
+        List<Integer> pageSizes = new ArrayList<>();
+        List<String> ids = readAll( cursor -> store.findAll( 2, CursorCodec.decode( cursor ) ), pageSizes );
+        
+        assertEquals( saved, Set.copyOf( ids ) );
+        assertEquals( 5, ids.size() );
+        assertEquals( List.of( 2, 2, 1 ), pageSizes );
+    }
+    
+    @Test
+    void aFullLastPageHasNoCursor () {
+        save( "2025-07-01" );
+        save( "2025-07-02" );
+        
+        assertNull( store.findAll( 2, null ).lastEvaluatedKey() );
+    }
+    
+    @Test
+    void itemsFilteredOutAfterThePageDoNotLinkToAnEmptyPage () {
+        save( "2025-07-01" );
+        save( "2025-07-02" );
+        String completed = save( "2025-07-03" );
+        store.updateStatus( completed, "COMPLETED", null );
+        
+        PaginatedResult<TodoSummary> page = store.findByDueDateRange( List.of( "PENDING" ), "2025-07-01", "2025-07-31", 2, null );
+        
+        assertEquals( 2, page.items().size() );
+        assertNull( page.lastEvaluatedKey() );
+    }
+    
+    @Test
+    void filteredRangesPageThroughTheMatchingItems () {
+        List<String> pending = new ArrayList<>();
+        for ( int day = 10; day < 20; day++ ) {
+            String id = save( "2025-07-" + day );
+            if ( day % 2 == 0 ) pending.add( id );
+            else store.updateStatus( id, "ONGOING", null );
+        }
+        
+        List<Integer> pageSizes = new ArrayList<>();
+        List<String> ids = readAll( cursor -> store.findByDueDateRange( List.of( "PENDING" ), "2025-07-01", "2025-07-31", 2, CursorCodec.decode( cursor ) ), pageSizes );
+        
+        // Earliest due first
+        assertEquals( pending, ids );
+        assertEquals( List.of( 2, 2, 1 ), pageSizes );
+    }
+    
+    @Test
+    void mergedStatusesPageThroughEveryMatchingItemOnce () {
+        Set<String> open = Set.of( save( "2025-07-01" ), save( "2025-07-02" ), save( "2025-07-03" ) );
+        open.stream().limit( 2 ).forEach( id -> store.updateStatus( id, "ONGOING", null ) );
+        String completed = save( "2025-07-04" );
+        store.updateStatus( completed, "COMPLETED", null );
+        
+        List<Integer> pageSizes = new ArrayList<>();
+        List<String> ids = readAll( cursor -> store.findByStatuses( List.of( "PENDING", "ONGOING" ), null, 2, CursorCodec.decode( cursor ) ), pageSizes );
+        
+        assertEquals( open, Set.copyOf( ids ) );
+        assertEquals( List.of( 2, 1 ), pageSizes );
+    }
+    
+    @Test
+    void deletingAnItemBetweenPagesSkipsOnlyThatItem () {
+        for ( int day = 1; day <= 4; day++ ) {
+            save( "2025-07-0" + day );
+        }
+        
+        PaginatedResult<TodoSummary> first = store.findAll( 2, null );
+        List<String> rest = store.findAll( 2, CursorCodec.decode( first.lastEvaluatedKey() ) ).items().stream().map( TodoSummary::id ).toList();
+        store.deleteById( rest.get( 0 ), null );
+        PaginatedResult<TodoSummary> second = store.findAll( 2, CursorCodec.decode( first.lastEvaluatedKey() ) );
+        
+        assertEquals( List.of( rest.get( 1 ) ), second.items().stream().map( TodoSummary::id ).toList() );
+        assertNull( second.lastEvaluatedKey() );
+    }
+    
+    @Test
+    void batchLookupKeepsRequestOrderAndReportsMissingIds () {
+        String first = save( "2025-07-01" );
+        String second = save( "2025-07-02" );
+        
+        BatchGetResult result = store.findByIds( Arrays.asList( second, "missing", first, second, null ) );
+        
+        assertEquals( List.of( second, first ), result.items().stream().map( TodoItem::getId ).toList() );
+        assertEquals( List.of( "missing" ), result.missingIds() );
+        assertEquals( List.of(), result.unprocessedIds() );
+    }
+    
+    @Test
+    void batchLookupRejectsTooManyIds () {
+        List<String> ids = IntStream.rangeClosed( 0, TodoStore.BATCH_GET_MAX_IDS ).mapToObj( String::valueOf ).toList();
+        
+        assertThrows( IllegalArgumentException.class, () -> store.findByIds( ids ) );
+        assertEquals( TodoStore.BATCH_GET_MAX_IDS, store.findByIds( ids.subList( 1, ids.size() ) ).missingIds().size() );
+    }
+    
+    private String save (String dueDate) {
+        TodoItem item = store.save( "Due " + dueDate, null, dueDate );
+        return item.getId();
+    }
+    
+    private static List<String> readAll (Function<String, PaginatedResult<TodoSummary>> read, List<Integer> pageSizes) {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginatedResult<TodoSummary> page = read.apply( cursor );
+            page.items().forEach( item -> ids.add( item.id() ) );
+            pageSizes.add( page.items().size() );
+            cursor = page.lastEvaluatedKey();
+        } while ( cursor != null );
+        return ids;
+    }
+}
@@ -0,0 +1,116 @@
+package com.aws.taskly_todo.repository;
+
+import com.aws.taskly_todo.utils.CursorCodec;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScatterGatherQueryTest {
+    private static final Comparator<Map<String, AttributeValue>> BY_ID = Comparator.comparing( item -> item.get( "id" ).s() );
+    
+    // Every stream is a sorted list of items, served like a query on a table named after the stream
+    private final Map<String, List<Map<String, AttributeValue>>> data = new LinkedHashMap<>();
+    private final Map<String, Integer> reads = new HashMap<>();
+    
+    @Test
+    void pagesThroughEveryStreamInOrderWithEncodedCursors () {
+        data.put( "a", items( IntStream.range( 0, 30 ).filter( i -> i % 3 == 0 ) ) );
+        data.put( "b", items( IntStream.range( 0, 30 ).filter( i -> i % 3 == 1 ) ) );
+        data.put( "c", items( IntStream.of( 2, 5 ) ) );
+        
+        List<String> ids = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            ScatterGatherQuery.MergedPage page = query( CursorCodec.decode( cursor ), 5 );
+            page.items().forEach( item -> ids.add( item.get( "id" ).s() ) );
+            pageSizes.add( page.items().size() );
+            cursor = CursorCodec.encode( page.lastEvaluatedKey() );
+        } while ( cursor != null );
+        
+        List<String> expected = data.values().stream().flatMap( List::stream )
+                .sorted( BY_ID ).map( item -> item.get( "id" ).s() ).toList();
+        assertEquals( expected, ids );
+        assertEquals( List.of( 5, 5, 5, 5, 2 ), pageSizes );
+    }
+    
+    @Test
+    void streamsThatEndedAreNotQueriedAgain () {
+        data.put( "a", items( IntStream.range( 0, 20 ).map( i -> 2 * i ) ) );
+        data.put( "b", items( IntStream.of( 3 ) ) );
+        
+        ScatterGatherQuery.MergedPage first = query( null, 5 );
+        ScatterGatherQuery.MergedPage second = query( first.lastEvaluatedKey(), 5 );
+        
+        assertEquals( List.of( "00", "02", "03", "04", "06" ), idsOf( first ) );
+        assertEquals( List.of( "08", "10", "12", "14", "16" ), idsOf( second ) );
+        assertEquals( Map.of( "a", 2, "b", 1 ), reads );
+        assertNotNull( second.lastEvaluatedKey() );
+    }
+    
+    @Test
+    void emptyStreamsMakeAnEmptyLastPage () {
+        data.put( "a", List.of() );
+        data.put( "b", List.of() );
+        
+        ScatterGatherQuery.MergedPage page = query( null, 5 );
+        
+        assertEquals( List.of(), page.items() );
+        assertNull( page.lastEvaluatedKey() );
+    }
+    
+    @Test
+    void mergesSortedIteratorsLazily () {
+        List<Iterator<Integer>> sources = List.of(
+                List.of( 1, 4, 7 ).iterator(),
+                List.<Integer>of().iterator(),
+                List.of( 2, 5 ).iterator(),
+                List.of( 3, 6, 8, 9 ).iterator() );
+        
+        List<Integer> merged = new ArrayList<>();
+        ScatterGatherQuery.mergeSorted( sources, Comparator.<Integer>naturalOrder() ).forEachRemaining( merged::add );
+        
+        assertEquals( List.of( 1, 2, 3, 4, 5, 6, 7, 8, 9 ), merged );
+    }
+    
+    private ScatterGatherQuery.MergedPage query (Map<String, AttributeValue> key, int limit) {
+        Map<String, QueryRequest.Builder> streams = new LinkedHashMap<>();
+        data.keySet().forEach( name -> streams.put( name, QueryRequest.builder().tableName( name ) ) );
+        return ScatterGatherQuery.query( streams, key, BY_ID, List.of( "id" ), limit, this::serve ).join();
+    }
+    
+    private CompletableFuture<QueryResponse> serve (QueryRequest request) {
+        reads.merge( request.tableName(), 1, Integer::sum );
+        AttributeValue start = request.exclusiveStartKey().get( "id" );
+        List<Map<String, AttributeValue>> after = data.get( request.tableName() ).stream()
+                .filter( item -> start == null || item.get( "id" ).s().compareTo( start.s() ) > 0 )
+                .toList();
+        
+        List<Map<String, AttributeValue>> page = after.subList( 0, Math.min( request.limit(), after.size() ) );
+        QueryResponse.Builder response = QueryResponse.builder().items( page );
+        if ( page.size() < after.size() ) response.lastEvaluatedKey( Map.of( "id", page.get( page.size() - 1 ).get( "id" ) ) );
+        return CompletableFuture.completedFuture( response.build() );
+    }
+    
+    private static List<String> idsOf (ScatterGatherQuery.MergedPage page) {
+        return page.items().stream().map( item -> item.get( "id" ).s() ).collect( Collectors.toList() );
+    }
+    
+    private static List<Map<String, AttributeValue>> items (IntStream ids) {
+        return ids.mapToObj( id -> Map.of( "id", AttributeValue.builder().s( String.format( "%02d", id ) ).build() ) ).toList();
+    }
+}
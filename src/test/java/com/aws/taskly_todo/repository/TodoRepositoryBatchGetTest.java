@@ -0,0 +1,169 @@
+package com.aws.taskly_todo.repository;
+
+import com.aws.taskly_todo.configs.CacheConfig;
+import com.aws.taskly_todo.model.BatchGetResult;
+import com.aws.taskly_todo.model.TodoItem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoRepositoryBatchGetTest {
+    private final CreatedAtShards createdAtShards = new CreatedAtShards( 1, true );
+    private final ExecutorService executor = Executors.newFixedThreadPool( 4 );
+    private final StubClient client = new StubClient();
+    private final TodoRepository repository = new TodoRepository( client, createdAtShards, executor, new DueMonthBuckets( 12 ),
+            new TodoSearchIndex(), new CounterShards( 8 ), new ConcurrentMapCacheManager( CacheConfig.TODO_ITEMS_CACHE ) );
+    
+    @AfterEach
+    void shutDown () {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void readsInChunksOf100AndKeepsRequestOrder () {
+        List<String> ids = new ArrayList<>();
+        for ( int i = 0; i < 240; i++ ) {
+            ids.add( store( "Item " + i ) );
+        }
+        for ( int i = 0; i < 10; i++ ) {
+            ids.add( "missing-" + i );
+        }
+        Collections.shuffle( ids );
+        List<String> requested = new ArrayList<>( ids );
+        // Duplicates are read once
+        requested.addAll( ids.subList( 0, 20 ) );
+        
+        BatchGetResult result = repository.findByIds( requested );
+        
+        List<Integer> chunkSizes = client.requests.stream().map( List::size ).sorted().toList();
+        assertEquals( List.of( 50, 100, 100 ), chunkSizes );
+        assertEquals( ids.stream().filter( id -> !id.startsWith( "missing-" ) ).toList(), idsOf( result ) );
+        assertEquals( ids.stream().filter( id -> id.startsWith( "missing-" ) ).toList(), result.missingIds() );
+        assertEquals( List.of(), result.unprocessedIds() );
+    }
+    
+    @Test
+    void retriesUnprocessedKeysUntilTheyAreRead () {
+        List<String> ids = List.of( store( "Pay rent" ), store( "Call the bank" ), store( "Water plants" ) );
+        // The first read leaves every key but one unprocessed
+        client.unprocessed = id -> client.requests.size() == 1 && !id.equals( ids.get( 1 ) );
+        
+        BatchGetResult result = repository.findByIds( ids );
+        
+        assertEquals( ids, idsOf( result ) );
+        assertEquals( List.of( 3, 2 ), client.requests.stream().map( List::size ).toList() );
+        assertEquals( List.of(), result.unprocessedIds() );
+    }
+    
+    @Test
+    void keysStillUnprocessedAfterTheLastAttemptAreReported () {
+        String read = store( "Pay rent" );
+        String throttled = store( "Call the bank" );
+        client.unprocessed = throttled::equals;
+        
+        BatchGetResult result = repository.findByIds( List.of( throttled, "missing", read ) );
+        
+        assertEquals( List.of( read ), idsOf( result ) );
+        assertEquals( List.of( "missing" ), result.missingIds() );
+        assertEquals( List.of( throttled ), result.unprocessedIds() );
+        assertEquals( TodoRepository.RETRY_MAX_ATTEMPTS, client.requests.size() );
+    }
+    
+    @Test
+    void aFailedChunkIsReportedAsUnprocessed () {
+        List<String> ids = new ArrayList<>();
+        for ( int i = 0; i < 150; i++ ) {
+            ids.add( store( "Item " + i ) );
+        }
+        Set<String> firstChunk = Set.copyOf( ids.subList( 0, TodoStore.BATCH_GET_SIZE ) );
+        client.failing = firstChunk::containsAll;
+        
+        BatchGetResult result = repository.findByIds( ids );
+        
+        assertEquals( ids.subList( TodoStore.BATCH_GET_SIZE, ids.size() ), idsOf( result ) );
+        assertEquals( ids.subList( 0, TodoStore.BATCH_GET_SIZE ), result.unprocessedIds() );
+        assertEquals( List.of(), result.missingIds() );
+    }
+    
+    @Test
+    void itemsReadOnceAreServedFromTheItemCache () {
+        List<String> ids = List.of( store( "Pay rent" ), store( "Call the bank" ) );
+        
+        repository.findByIds( ids );
+        BatchGetResult result = repository.findByIds( ids );
+        
+        assertEquals( ids, idsOf( result ) );
+        assertEquals( 1, client.requests.size() );
+    }
+    
+    private String store (String title) {
+        Map<String, AttributeValue> item = TodoRepository.newItem( title, null, "2025-07-01", createdAtShards );
+        String id = item.get( TodoRepository.ID ).s();
+        client.table.put( id, item );
+        return id;
+    }
+    
+    private static List<String> idsOf (BatchGetResult result) {
+        return result.items().stream().map( TodoItem::getId ).toList();
+    }
+    
+    // Serves BatchGetItem from a map, recording the IDs of every request, leaving the matching IDs unprocessed
+    // and failing the requests whose IDs match
+    private static class StubClient implements DynamoDbClient {
+        private final Map<String, Map<String, AttributeValue>> table = new ConcurrentHashMap<>();
+        private final List<List<String>> requests = new CopyOnWriteArrayList<>();
+        private volatile Predicate<String> unprocessed = id -> false;
+        private volatile Predicate<List<String>> failing = ids -> false;
+        
+        @Override
+        public BatchGetItemResponse batchGetItem (BatchGetItemRequest request) {
+            List<String> ids = request.requestItems().get( TodoRepository.tableName ).keys().stream()
+                    .map( key -> key.get( TodoRepository.ID ).s() )
+                    .toList();
+            requests.add( ids );
+            if ( failing.test( ids ) ) throw DynamoDbException.builder().message( "Service unavailable" ).build();
+            
+            Map<Boolean, List<String>> deferred = ids.stream().collect( Collectors.partitioningBy( unprocessed ) );
+            List<Map<String, AttributeValue>> items = deferred.get( false ).stream()
+                    .map( table::get )
+                    .filter( Objects::nonNull )
+                    .toList();
+            BatchGetItemResponse.Builder response = BatchGetItemResponse.builder().responses( Map.of( TodoRepository.tableName, items ) );
+            if ( !deferred.get( true ).isEmpty() ) {
+                KeysAndAttributes keys = KeysAndAttributes.builder().keys( TodoRepository.batchGetKeys( deferred.get( true ) ) ).build();
+                response.unprocessedKeys( Map.of( TodoRepository.tableName, keys ) );
+            }
+            return response.build();
+        }
+        
+        @Override
+        public String serviceName () {
+            return SERVICE_NAME;
+        }
+        
+        @Override
+        public void close () {
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.aws.taskly_todo.repository;
+
+import com.aws.taskly_todo.model.TodoItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoSearchIndexTest {
+    
+    @Test
+    void titleMatchesRankAboveDescriptionMatches () {
+        TodoSearchIndex index = new TodoSearchIndex();
+        index.put( item( "described", "Monday tasks", "Send the quarterly report" ) );
+        index.put( item( "titled", "Quarterly report", "Due on Monday" ) );
+        
+        assertEquals( List.of( "titled", "described" ), index.search( "report", 10 ) );
+    }
+    
+    @Test
+    void wholeWordsRankAbovePrefixes () {
+        TodoSearchIndex index = new TodoSearchIndex();
+        index.put( item( "planning", "Planning session" ) );
+        index.put( item( "plan", "Plan session" ) );
+        
+        assertEquals( List.of( "plan", "planning" ), index.search( "plan", 10 ) );
+        assertEquals( List.of( "planning" ), index.search( "planni", 10 ) );
+    }
+    
+    @Test
+    void everyTermMustMatchAsAPrefix () {
+        TodoSearchIndex index = new TodoSearchIndex();
+        index.put( item( "milk", "Buy milk" ) );
+        index.put( item( "bread", "Buy bread" ) );
+        
+        assertEquals( List.of( "milk" ), index.search( "buy mil", 10 ) );
+        assertEquals( List.of(), index.search( "buy cheese", 10 ) );
+        assertEquals( 2, index.search( "BU", 10 ).size() );
+    }
+    
+    @Test
+    void foldsCaseAndAccents () {
+        TodoSearchIndex index = new TodoSearchIndex();
+        index.put( item( "cafe", "Café Müller" ) );
+        
+        assertEquals( List.of( "cafe" ), index.search( "CAFE muller", 10 ) );
+    }
+    
+    @Test
+    void ignoresEmptyQueriesAndHonoursTheLimit () {
+        TodoSearchIndex index = new TodoSearchIndex();
+        for ( int i = 0; i < 5; i++ ) {
+            index.put( item( "item-" + i, "Weekly review " + i ) );
+        }
+        
+        assertEquals( 3, index.search( "review", 3 ).size() );
+        assertEquals( List.of(), index.search( " - ", 10 ) );
+        assertEquals( List.of(), index.search( "review", 0 ) );
+    }
+    
+    @Test
+    void replacedAndRemovedItemsNoLongerMatch () {
+        TodoSearchIndex index = new TodoSearchIndex();
+        index.put( item( "a", "Call the plumber" ) );
+        index.put( item( "b", "Call the bank" ) );
+        
+        index.put( item( "a", "Email the plumber" ) );
+        index.remove( "b" );
+        
+        assertEquals( List.of( "a" ), index.search( "plumber", 10 ) );
+        assertEquals( List.of(), index.search( "call", 10 ) );
+        assertEquals( new TodoSearchIndex.Stats( 1, 2, index.stats().terms(), index.stats().postingsBytes() ), index.stats() );
+        
+        // A rebuild drops the postings of replaced and removed items
+        index.rebuild( Stream.of( item( "a", "Email the plumber" ) ) );
+        assertEquals( 0, index.stats().deleted() );
+        assertEquals( List.of( "a" ), index.search( "email", 10 ) );
+    }
+    
+    @Test
+    void writesMadeDuringRebuildReachTheNewSegment () {
+        TodoSearchIndex index = new TodoSearchIndex();
+        index.put( item( "banana", "Buy bananas" ) );
+        
+        // The store is read first; the writes land while the rebuild is still indexing what it read
+        Stream<TodoItem> read = Stream.of( item( "apple", "Buy apples" ), item( "banana", "Buy bananas" ) );
+        AtomicBoolean written = new AtomicBoolean();
+        index.rebuild( read.peek( item -> {
+            if ( written.compareAndSet( false, true ) ) {
+                index.put( item( "cherry", "Buy cherries" ) );
+                index.remove( "banana" );
+            }
+        } ) );
+        
+        assertEquals( List.of( "apple" ), index.search( "apples", 10 ) );
+        assertEquals( List.of( "cherry" ), index.search( "cherries", 10 ) );
+        assertEquals( List.of(), index.search( "bananas", 10 ) );
+        assertEquals( 2, index.stats().documents() );
+    }
+    
+    @Test
+    void concurrentWritesAreNotLostAcrossRebuilds () throws InterruptedException {
+        TodoSearchIndex index = new TodoSearchIndex();
+        Map<String, TodoItem> store = new ConcurrentHashMap<>();
+        int writes = 20_000;
+        
+        Thread writer = new Thread( () -> {
+            for ( int i = 0; i < writes; i++ ) {
+                TodoItem item = item( "item-" + i, "Task number" + i );
+                store.put( item.getId(), item );
+                index.put( item );
+            }
+        } );
+        writer.start();
+        while ( writer.isAlive() ) {
+            // Like a scan, the store is only read once the rebuild has started
+            index.rebuild( Stream.of( store ).flatMap( items -> List.copyOf( items.values() ).stream() ) );
+        }
+        writer.join();
+        
+        assertEquals( writes, index.stats().documents() );
+        assertEquals( List.of( "item-" + ( writes - 1 ) ), index.search( "number" + ( writes - 1 ), 10 ) );
+    }
+    
+    @Test
+    void failedRebuildKeepsTheCurrentSegment () {
+        TodoSearchIndex index = new TodoSearchIndex();
+        index.put( item( "apple", "Buy apples" ) );
+        
+        Stream<TodoItem> failing = Stream.of( item( "cherry", "Buy cherries" ) ).peek( item -> {
+            throw new IllegalStateException( "read failed" );
+        } );
+        assertThrows( IllegalStateException.class, () -> index.rebuild( failing ) );
+        
+        assertEquals( List.of( "apple" ), index.search( "apples", 10 ) );
+        index.rebuild( Stream.of( item( "cherry", "Buy cherries" ) ) );
+        assertEquals( List.of( "cherry" ), index.search( "cherries", 10 ) );
+    }
+    
+    private static TodoItem item (String id, String title) {
+        return item( id, title, null );
+    }
+    
+    private static TodoItem item (String id, String title, String description) {
+        return new TodoItem( id, title, description, null, "PENDING", null, null, null );
+    }
+}
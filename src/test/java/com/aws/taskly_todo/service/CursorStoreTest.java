@@ -0,0 +1,68 @@
+package com.aws.taskly_todo.service;
+
+import com.aws.taskly_todo.model.TodoFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorStoreTest {
+    private static final TodoFilter PENDING = new TodoFilter( List.of( "PENDING" ), null, null, null, false );
+    private static final TodoFilter DONE = new TodoFilter( List.of( "COMPLETED" ), null, null, null, false );
+    private static final String KEY = "AQADAAdzaWQtMQ";
+    
+    @Test
+    void resolvesTheKeyAndTheWayBack () {
+        CursorStore store = store( "secret" );
+        String first = store.issue( PENDING, KEY, null );
+        String second = store.issue( PENDING, KEY + "x", first );
+        
+        assertEquals( Optional.of( new CursorStore.Cursor( KEY, null ) ), store.resolve( PENDING, first ) );
+        assertEquals( Optional.of( new CursorStore.Cursor( KEY + "x", first ) ), store.resolve( PENDING, second ) );
+        assertEquals( Optional.empty(), store.resolve( PENDING, null ) );
+    }
+    
+    @Test
+    void issuesTheSameTokenForTheSamePage () {
+        CursorStore store = store( "secret" );
+        
+        assertEquals( store.issue( PENDING, KEY, null ), store.issue( PENDING, KEY, null ) );
+    }
+    
+    @Test
+    void tokensWorkOnAnotherInstanceWithTheSameSecret () {
+        String token = store( "secret" ).issue( PENDING, KEY, "previous" );
+        
+        // The way back is per instance; the page itself is not
+        assertEquals( Optional.of( new CursorStore.Cursor( KEY, null ) ), store( "secret" ).resolve( PENDING, token ) );
+        assertThrows( IllegalArgumentException.class, () -> store( "other" ).resolve( PENDING, token ) );
+    }
+    
+    @Test
+    void rejectsATokenOfAnotherFilter () {
+        CursorStore store = store( "secret" );
+        String token = store.issue( PENDING, KEY, null );
+        
+        assertThrows( IllegalArgumentException.class, () -> store.resolve( DONE, token ) );
+    }
+    
+    @Test
+    void rejectsAlteredAndMalformedTokens () {
+        CursorStore store = store( "secret" );
+        String token = store.issue( PENDING, KEY, null );
+        String signature = token.substring( token.indexOf( '.' ) );
+        
+        assertThrows( IllegalArgumentException.class, () -> store.resolve( PENDING, "AQADAAdzaWQtMg" + signature ) );
+        assertThrows( IllegalArgumentException.class, () -> store.resolve( PENDING, KEY ) );
+        assertThrows( IllegalArgumentException.class, () -> store.resolve( PENDING, KEY + ".not*base64" ) );
+        assertThrows( IllegalArgumentException.class, () -> store.resolve( PENDING, signature ) );
+    }
+    
+    private static CursorStore store (String secret) {
+        return new CursorStore( secret, 100, Duration.ofMinutes( 1 ), new SimpleMeterRegistry() );
+    }
+}
@@ -0,0 +1,197 @@
+package com.aws.taskly_todo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Test
+    void concurrentCallersShareOneCall () throws Exception {
+        SingleFlight singleFlight = new SingleFlight( Duration.ofSeconds( 10 ), meterRegistry );
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch( 1 );
+        CountDownLatch release = new CountDownLatch( 1 );
+        
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync( () -> singleFlight.get( "item", "a", () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await( release );
+            return "shared";
+        } ) );
+        assertTrue( started.await( 5, TimeUnit.SECONDS ) );
+        
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync( () -> singleFlight.get( "item", "a", () -> {
+            calls.incrementAndGet();
+            return "own";
+        } ) );
+        awaitCount( "follower", 1 );
+        release.countDown();
+        
+        assertEquals( "shared", leader.get( 5, TimeUnit.SECONDS ) );
+        assertEquals( "shared", follower.get( 5, TimeUnit.SECONDS ) );
+        assertEquals( 1, calls.get() );
+    }
+    
+    @Test
+    void concurrentAsyncCallersShareOneCall () {
+        SingleFlight singleFlight = new SingleFlight( Duration.ofSeconds( 10 ), meterRegistry );
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> call = new CompletableFuture<>();
+        
+        CompletableFuture<String> leader = singleFlight.getAsync( "item", "a", () -> {
+            calls.incrementAndGet();
+            return call;
+        } );
+        CompletableFuture<String> follower = singleFlight.getAsync( "item", "a", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture( "own" );
+        } );
+        call.complete( "shared" );
+        
+        assertEquals( "shared", leader.join() );
+        assertEquals( "shared", follower.join() );
+        assertEquals( 1, calls.get() );
+    }
+    
+    @Test
+    void differentKeysAndLaterCallsAreNotShared () {
+        SingleFlight singleFlight = new SingleFlight( Duration.ofSeconds( 10 ), meterRegistry );
+        
+        assertEquals( "a", singleFlight.get( "item", "a", () -> "a" ) );
+        assertEquals( "again", singleFlight.get( "item", "a", () -> "again" ) );
+        assertEquals( "b", singleFlight.getAsync( "item", "b", () -> CompletableFuture.completedFuture( "b" ) ).join() );
+        assertEquals( "page", singleFlight.getAsync( "page", "b", () -> CompletableFuture.completedFuture( "page" ) ).join() );
+        assertEquals( 3.0, count( "leader" ) );
+    }
+    
+    @Test
+    void followerFallsBackToItsOwnCallAfterTheMaxWait () throws Exception {
+        SingleFlight singleFlight = new SingleFlight( Duration.ofMillis( 50 ), meterRegistry );
+        CountDownLatch started = new CountDownLatch( 1 );
+        CountDownLatch release = new CountDownLatch( 1 );
+        
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync( () -> singleFlight.get( "item", "a", () -> {
+            started.countDown();
+            await( release );
+            return "shared";
+        } ) );
+        assertTrue( started.await( 5, TimeUnit.SECONDS ) );
+        
+        assertEquals( "own", singleFlight.get( "item", "a", () -> "own" ) );
+        assertEquals( 1.0, count( "timed-out" ) );
+        assertFalse( leader.isDone() );
+        
+        release.countDown();
+        assertEquals( "shared", leader.get( 5, TimeUnit.SECONDS ) );
+    }
+    
+    @Test
+    void asyncFollowerFallsBackWithoutFailingTheSharedCall () {
+        SingleFlight singleFlight = new SingleFlight( Duration.ofMillis( 50 ), meterRegistry );
+        CompletableFuture<String> call = new CompletableFuture<>();
+        
+        CompletableFuture<String> leader = singleFlight.getAsync( "item", "a", () -> call );
+        CompletableFuture<String> follower = singleFlight.getAsync( "item", "a", () -> CompletableFuture.completedFuture( "own" ) );
+        
+        assertEquals( "own", follower.join() );
+        assertEquals( 1.0, count( "timed-out" ) );
+        assertFalse( leader.isDone() );
+        
+        call.complete( "shared" );
+        assertEquals( "shared", leader.join() );
+    }
+    
+    @Test
+    void followerThatGivesUpMakesItsOwnCallInstead () throws Exception {
+        SingleFlight singleFlight = new SingleFlight( Duration.ofMillis( 50 ), meterRegistry );
+        CountDownLatch started = new CountDownLatch( 1 );
+        CountDownLatch release = new CountDownLatch( 1 );
+        
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync( () -> singleFlight.get( "page", "a", () -> {
+            started.countDown();
+            await( release );
+            return "cached";
+        }, () -> "direct" ) );
+        assertTrue( started.await( 5, TimeUnit.SECONDS ) );
+        
+        assertEquals( "direct", singleFlight.get( "page", "a", () -> {
+            throw new AssertionError( "waited on the shared call again" );
+        }, () -> "direct" ) );
+        assertEquals( "direct", singleFlight.getAsync( "page", "a",
+                () -> CompletableFuture.failedFuture( new AssertionError( "waited on the shared call again" ) ),
+                () -> CompletableFuture.completedFuture( "direct" ) ).join() );
+        
+        release.countDown();
+        assertEquals( "cached", leader.get( 5, TimeUnit.SECONDS ) );
+    }
+    
+    @Test
+    void failureOfTheSharedCallReachesTheWaiters () throws Exception {
+        SingleFlight singleFlight = new SingleFlight( Duration.ofSeconds( 10 ), meterRegistry );
+        IllegalStateException failure = new IllegalStateException( "read failed" );
+        CountDownLatch started = new CountDownLatch( 1 );
+        CountDownLatch release = new CountDownLatch( 1 );
+        
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync( () -> singleFlight.get( "item", "a", () -> {
+            started.countDown();
+            await( release );
+            throw failure;
+        } ) );
+        assertTrue( started.await( 5, TimeUnit.SECONDS ) );
+        
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync( () -> singleFlight.get( "item", "a", () -> "own" ) );
+        awaitCount( "follower", 1 );
+        release.countDown();
+        
+        assertSame( failure, assertThrows( ExecutionException.class, () -> leader.get( 5, TimeUnit.SECONDS ) ).getCause() );
+        assertSame( failure, assertThrows( ExecutionException.class, () -> follower.get( 5, TimeUnit.SECONDS ) ).getCause() );
+    }
+    
+    @Test
+    void failureOfTheSharedAsyncCallReachesTheWaiters () {
+        SingleFlight singleFlight = new SingleFlight( Duration.ofSeconds( 10 ), meterRegistry );
+        IllegalStateException failure = new IllegalStateException( "read failed" );
+        CompletableFuture<String> call = new CompletableFuture<>();
+        
+        CompletableFuture<String> leader = singleFlight.getAsync( "item", "a", () -> call );
+        CompletableFuture<String> follower = singleFlight.getAsync( "item", "a", () -> CompletableFuture.completedFuture( "own" ) );
+        call.completeExceptionally( failure );
+        
+        assertSame( failure, assertThrows( CompletionException.class, leader::join ).getCause() );
+        assertSame( failure, assertThrows( CompletionException.class, follower::join ).getCause() );
+        // The key is released, so the next read makes a new call
+        assertEquals( "next", singleFlight.getAsync( "item", "a", () -> CompletableFuture.completedFuture( "next" ) ).join() );
+    }
+    
+    private double count (String role) {
+        return meterRegistry.counter( "taskly.singleflight.calls", "read", "item", "role", role ).count();
+    }
+    
+    // A follower is counted just before it starts waiting on the shared call
+    private void awaitCount (String role, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos( 5 );
+        while ( count( role ) < expected ) {
+            assertTrue( System.nanoTime() < deadline, "No " + role + " within 5s" );
+            Thread.sleep( 1 );
+        }
+    }
+    
+    private static void await (CountDownLatch latch) {
+        try {
+            assertTrue( latch.await( 5, TimeUnit.SECONDS ) );
+        } catch ( InterruptedException e ) {
+            throw new IllegalStateException( e );
+        }
+    }
+}
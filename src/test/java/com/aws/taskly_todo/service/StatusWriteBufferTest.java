@@ -0,0 +1,186 @@
+package com.aws.taskly_todo.service;
+
+import com.aws.taskly_todo.model.Status;
+import com.aws.taskly_todo.model.TodoItem;
+import com.aws.taskly_todo.repository.CreatedAtShards;
+import com.aws.taskly_todo.repository.DueMonthBuckets;
+import com.aws.taskly_todo.repository.InMemoryTodoStore;
+import com.aws.taskly_todo.repository.TodoSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatusWriteBufferTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool( 2 );
+    private final CountingStore store = new CountingStore();
+    private final TodoPageCache todoPageCache = new TodoPageCache( 100, Duration.ofSeconds( 5 ), meterRegistry );
+    
+    @AfterEach
+    void shutDown () {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void coalescesChangesOfAnItemIntoOneWrite () {
+        StatusWriteBuffer buffer = buffer( Duration.ofHours( 1 ), 100 );
+        TodoItem item = store.save( "Pay rent", null, null );
+        
+        buffer.submit( read( buffer, item ), Status.ONGOING );
+        TodoItem submitted = buffer.submit( read( buffer, item ), Status.COMPLETED );
+        buffer.flushDue();
+        
+        // Not due yet, but every read sees the change, with the same version
+        assertEquals( 0, store.writes.get() );
+        assertEquals( "COMPLETED", read( buffer, item ).getStatus() );
+        assertEquals( submitted.version(), read( buffer, item ).version() );
+        assertEquals( submitted.version(), read( buffer, item ).version() );
+        
+        buffer.flushAll();
+        assertEquals( 1, store.writes.get() );
+        assertEquals( "COMPLETED", stored( item ).getStatus() );
+        assertEquals( 1.0, count( "coalesced" ) );
+        assertEquals( 1.0, count( "written" ) );
+    }
+    
+    @Test
+    void writesChangesOnceTheWindowHasPassed () {
+        StatusWriteBuffer buffer = buffer( Duration.ZERO, 100 );
+        TodoItem item = store.save( "Pay rent", null, null );
+        long generation = todoPageCache.generation();
+        
+        buffer.submit( item, Status.ONGOING );
+        buffer.flushDue();
+        
+        assertEquals( 1, store.writes.get() );
+        assertEquals( "ONGOING", stored( item ).getStatus() );
+        assertNotEquals( generation, todoPageCache.generation() );
+        // Nothing is left to overlay
+        TodoItem stored = stored( item );
+        assertSame( stored, buffer.overlay( stored ) );
+    }
+    
+    @Test
+    void aFullBufferWritesNewItemsThrough () {
+        StatusWriteBuffer buffer = buffer( Duration.ofHours( 1 ), 1 );
+        TodoItem first = store.save( "Pay rent", null, null );
+        TodoItem second = store.save( "Call the bank", null, null );
+        
+        buffer.submit( first, Status.ONGOING );
+        buffer.submit( second, Status.COMPLETED );
+        // An item already buffered still coalesces
+        buffer.submit( read( buffer, first ), Status.COMPLETED );
+        
+        assertEquals( 1, store.writes.get() );
+        assertEquals( "COMPLETED", stored( second ).getStatus() );
+        assertEquals( "PENDING", stored( first ).getStatus() );
+        assertEquals( 1.0, count( "written-through" ) );
+        assertEquals( 1.0, count( "coalesced" ) );
+    }
+    
+    @Test
+    void failedWritesAreRetriedAtTheNextFlush () {
+        StatusWriteBuffer buffer = buffer( Duration.ZERO, 100 );
+        TodoItem item = store.save( "Pay rent", null, null );
+        store.failures.set( 1 );
+        
+        buffer.submit( item, Status.COMPLETED );
+        buffer.flushDue();
+        assertEquals( "PENDING", stored( item ).getStatus() );
+        assertEquals( "COMPLETED", read( buffer, item ).getStatus() );
+        assertEquals( 1.0, count( "failed" ) );
+        
+        buffer.flushDue();
+        assertEquals( "COMPLETED", stored( item ).getStatus() );
+        assertEquals( 1.0, count( "written" ) );
+    }
+    
+    @Test
+    void discardedChangesAreNotWritten () {
+        StatusWriteBuffer buffer = buffer( Duration.ZERO, 100 );
+        TodoItem item = store.save( "Pay rent", null, null );
+        
+        buffer.submit( item, Status.COMPLETED );
+        buffer.discard( item.getId() );
+        buffer.flushDue();
+        
+        assertEquals( 0, store.writes.get() );
+        assertEquals( "PENDING", read( buffer, item ).getStatus() );
+    }
+    
+    @Test
+    void discardWaitsForAWriteAlreadyRunning () throws Exception {
+        StatusWriteBuffer buffer = buffer( Duration.ZERO, 100 );
+        TodoItem item = store.save( "Pay rent", null, null );
+        store.release = new CountDownLatch( 1 );
+        
+        buffer.submit( item, Status.COMPLETED );
+        CompletableFuture<Void> flush = CompletableFuture.runAsync( buffer::flushDue );
+        assertTrue( store.started.await( 5, TimeUnit.SECONDS ) );
+        CompletableFuture<Void> discard = CompletableFuture.runAsync( () -> buffer.discard( item.getId() ) );
+        
+        TimeUnit.MILLISECONDS.sleep( 50 );
+        assertFalse( discard.isDone() );
+        
+        store.release.countDown();
+        discard.get( 5, TimeUnit.SECONDS );
+        // The buffered write has landed, so a write made after the discard comes last
+        assertEquals( "COMPLETED", stored( item ).getStatus() );
+        flush.get( 5, TimeUnit.SECONDS );
+    }
+    
+    private StatusWriteBuffer buffer (Duration window, int maxPending) {
+        return new StatusWriteBuffer( store, todoPageCache, executor, window, maxPending, 2, 2, Duration.ofSeconds( 5 ), meterRegistry );
+    }
+    
+    private TodoItem read (StatusWriteBuffer buffer, TodoItem item) {
+        return buffer.overlay( stored( item ) );
+    }
+    
+    private TodoItem stored (TodoItem item) {
+        return store.findById( item.getId() ).orElseThrow();
+    }
+    
+    private double count (String outcome) {
+        return meterRegistry.counter( "taskly.status.buffer.changes", "outcome", outcome ).count();
+    }
+    
+    // Counts status writes, fails the given number of them first, and holds them until released if asked to
+    private static class CountingStore extends InMemoryTodoStore {
+        private final AtomicInteger writes = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final CountDownLatch started = new CountDownLatch( 1 );
+        private volatile CountDownLatch release;
+        
+        CountingStore () {
+            super( new CreatedAtShards( 1, true ), new DueMonthBuckets( 12 ), new TodoSearchIndex() );
+        }
+        
+        @Override
+        public Optional<TodoItem> updateStatus (String id, String newStatus, String expectedVersion) {
+            if ( failures.getAndUpdate( left -> Math.max( 0, left - 1 ) ) > 0 ) throw new IllegalStateException( "Throttled" );
+            
+            writes.incrementAndGet();
+            if ( release != null ) {
+                started.countDown();
+                try {
+                    assertTrue( release.await( 5, TimeUnit.SECONDS ) );
+                } catch ( InterruptedException e ) {
+                    throw new IllegalStateException( e );
+                }
+            }
+            return super.updateStatus( id, newStatus, expectedVersion );
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.aws.taskly_todo.service;
+
+import com.aws.taskly_todo.model.PaginatedResult;
+import com.aws.taskly_todo.model.TodoFilter;
+import com.aws.taskly_todo.model.TodoSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoPageCacheTest {
+    private static final TodoFilter ALL = new TodoFilter( null, null, null, null, false );
+    private static final PaginatedResult<TodoSummary> PAGE = new PaginatedResult<>( List.of(), "next" );
+    
+    private final TodoPageCache cache = new TodoPageCache( 100, Duration.ofMinutes( 1 ), new SimpleMeterRegistry() );
+    private final AtomicInteger loads = new AtomicInteger();
+    
+    @Test
+    void concurrentCallersOfAPageShareOneLoad () throws Exception {
+        CountDownLatch started = new CountDownLatch( 1 );
+        CountDownLatch release = new CountDownLatch( 1 );
+        
+        CompletableFuture<PaginatedResult<TodoSummary>> leader = CompletableFuture.supplyAsync( () -> cache.get( ALL, 10, null, () -> {
+            started.countDown();
+            await( release );
+            return load();
+        } ) );
+        assertTrue( started.await( 5, TimeUnit.SECONDS ) );
+        
+        CompletableFuture<PaginatedResult<TodoSummary>> follower = cache.getAsync( ALL, 10, "", () -> CompletableFuture.completedFuture( load() ) );
+        assertFalse( follower.isDone() );
+        
+        release.countDown();
+        assertSame( PAGE, leader.get( 5, TimeUnit.SECONDS ) );
+        assertSame( PAGE, follower.get( 5, TimeUnit.SECONDS ) );
+        assertEquals( 1, loads.get() );
+    }
+    
+    @Test
+    void aSlowLoadDoesNotHoldUpOtherPages () throws Exception {
+        CountDownLatch started = new CountDownLatch( 1 );
+        CountDownLatch release = new CountDownLatch( 1 );
+        
+        CompletableFuture<PaginatedResult<TodoSummary>> slow = CompletableFuture.supplyAsync( () -> cache.get( ALL, 10, null, () -> {
+            started.countDown();
+            await( release );
+            return load();
+        } ) );
+        assertTrue( started.await( 5, TimeUnit.SECONDS ) );
+        
+        for ( int page = 0; page < 100; page++ ) {
+            assertSame( PAGE, cache.get( ALL, 10, "page-" + page, this::load ) );
+        }
+        assertFalse( slow.isDone() );
+        
+        release.countDown();
+        assertSame( PAGE, slow.get( 5, TimeUnit.SECONDS ) );
+    }
+    
+    @Test
+    void aFailedLoadFailsUnwrappedAndIsNotCached () {
+        IllegalStateException failure = new IllegalStateException( "query failed" );
+        
+        assertSame( failure, assertThrows( IllegalStateException.class, () -> cache.get( ALL, 10, null, () -> {
+            throw failure;
+        } ) ) );
+        assertSame( PAGE, cache.get( ALL, 10, null, this::load ) );
+        assertEquals( 1, loads.get() );
+    }
+    
+    @Test
+    void aWriteMakesTheNextReadLoadAgain () {
+        cache.get( ALL, 10, null, this::load );
+        cache.get( ALL, 10, null, this::load );
+        assertEquals( 1, loads.get() );
+        
+        cache.invalidate();
+        cache.get( ALL, 10, null, this::load );
+        assertEquals( 2, loads.get() );
+    }
+    
+    private PaginatedResult<TodoSummary> load () {
+        loads.incrementAndGet();
+        return PAGE;
+    }
+    
+    private static void await (CountDownLatch latch) {
+        try {
+            assertTrue( latch.await( 5, TimeUnit.SECONDS ) );
+        } catch ( InterruptedException e ) {
+            throw new IllegalStateException( e );
+        }
+    }
+}
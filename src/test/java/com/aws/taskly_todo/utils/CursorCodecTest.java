@@ -0,0 +1,72 @@
+package com.aws.taskly_todo.utils;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorCodecTest {
+    
+    @Test
+    void roundTripsKnownKeyNames() {
+        Map<String, AttributeValue> key = new LinkedHashMap<>();
+        key.put("status", s("PENDING"));
+        key.put("sortKey", s("2025-07-01T10:15:30#a1b2"));
+        key.put("id", s("a1b2"));
+        
+        assertEquals(key, CursorCodec.decode(CursorCodec.encode(key)));
+    }
+    
+    @Test
+    void roundTripsCustomNamesAndNumbers() {
+        Map<String, AttributeValue> key = Map.of(
+                "shard", AttributeValue.builder().n("7").build(),
+                "title", s("Ünïcödé / with spaces"));
+        
+        assertEquals(key, CursorCodec.decode(CursorCodec.encode(key)));
+    }
+    
+    @Test
+    void encodesNoKeyAsNoCursor() {
+        assertNull(CursorCodec.encode(null));
+        assertNull(CursorCodec.encode(Map.of()));
+        assertEquals(Map.of(), CursorCodec.decode(null));
+        assertEquals(Map.of(), CursorCodec.decode(" "));
+    }
+    
+    @Test
+    void rejectsUnsupportedAttributeTypes() {
+        Map<String, AttributeValue> key = Map.of("id", AttributeValue.builder().bool(true).build());
+        
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.encode(key));
+    }
+    
+    @Test
+    void decodesMalformedCursorsAsNoKey() {
+        byte[] bytes = Base64.getUrlDecoder().decode(CursorCodec.encode(Map.of("id", s("a1b2"))));
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 2);
+        byte[] otherVersion = bytes.clone();
+        otherVersion[0] = 2;
+        // Byte 3 is the first attribute name: the version byte and a short count come before it
+        byte[] unknownName = bytes.clone();
+        unknownName[3] = 9;
+        
+        assertEquals(Map.of(), CursorCodec.decode("not*base64"));
+        assertEquals(Map.of(), CursorCodec.decode(encoded(truncated)));
+        assertEquals(Map.of(), CursorCodec.decode(encoded(otherVersion)));
+        assertEquals(Map.of(), CursorCodec.decode(encoded(unknownName)));
+    }
+    
+    private static AttributeValue s(String value) {
+        return AttributeValue.builder().s(value).build();
+    }
+    
+    private static String encoded(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}